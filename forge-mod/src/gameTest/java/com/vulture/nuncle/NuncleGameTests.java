@@ -0,0 +1,342 @@
+package com.vulture.nuncle;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.Container;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Headless behaviour and tick-budget checks, run with ./gradlew runGameTestServer.
+ *
+ * There is only one NPC per server, so every test gets its own batch —
+ * batches run one after another, tests inside a batch run together.
+ * The "platform" template is a 12x12 smooth stone floor with 5 blocks of air above.
+ */
+@GameTestHolder(NuncleMod.MODID)
+@PrefixGameTestTemplate(false)
+public class NuncleGameTests {
+    /** Average wall time one observe() may take; a whole tick is 50ms */
+    private static final long OBSERVE_BUDGET_NANOS = 5_000_000L;
+    /** Average wall time one NPC tick may take while following a moving player */
+    private static final long FOLLOW_TICK_BUDGET_NANOS = 2_000_000L;
+
+    private static final String PLATFORM = "platform";
+    private static final BlockPos CENTER = new BlockPos(6, 1, 6);
+
+    // --- Correctness ---
+
+    @GameTest(template = PLATFORM, batch = "nuncle_boundary", timeoutTicks = 100)
+    public static void boundaryPullsNpcBack(GameTestHelper helper) {
+        NunclePlayer mgr = spawnNpc(helper, CENTER);
+        BlockPos center = helper.absolutePos(CENTER);
+        mgr.setBoundary(center.getX() + 0.5, center.getZ() + 0.5, 3);
+
+        String reply = mgr.goTo(center.getX() + 20, center.getY(), center.getZ());
+        helper.assertTrue(reply.contains("clamped"), "goto outside the boundary was not clamped: " + reply);
+
+        mgr.getNpc().teleportTo(center.getX() + 5.5, center.getY(), center.getZ() + 0.5);
+        helper.startSequence()
+            .thenWaitUntil(() -> helper.assertTrue(mgr.isInsideBoundary(mgr.getNpc().getX(), mgr.getNpc().getZ()),
+                "NPC is still outside its boundary"))
+            .thenExecute(() -> cleanup(mgr))
+            .thenSucceed();
+    }
+
+    @GameTest(template = PLATFORM, batch = "nuncle_deferred_move", timeoutTicks = 100)
+    public static void newerGotoDropsDeferredMove(GameTestHelper helper) {
+        NunclePlayer mgr = spawnNpc(helper, CENTER);
+        BlockPos center = helper.absolutePos(CENTER);
+
+        // Far past the route's chunk budget, so this move waits on its chunk
+        String reply = mgr.goTo(center.getX() + 4000, center.getY(), center.getZ());
+        helper.assertTrue(reply.startsWith("Loading chunks"), "far goto was not deferred: " + reply);
+        BlockPos near = center.offset(3, 0, 3);
+        reply = mgr.goTo(near.getX() + 0.5, near.getY(), near.getZ() + 0.5);
+        helper.assertTrue(reply.startsWith("Moving to"), "near goto did not start: " + reply);
+        helper.assertTrue(!mgr.hasPendingMove(), "the far move is still waiting after a newer goto");
+
+        helper.startSequence()
+            .thenWaitUntil(() -> helper.assertTrue(mgr.getNpc().distanceToSqr(Vec3.atBottomCenterOf(near)) <= 1.5,
+                "NPC did not reach the second target"))
+            .thenIdle(20)
+            .thenExecute(() -> helper.assertTrue(mgr.getNpc().distanceToSqr(Vec3.atBottomCenterOf(near)) <= 1.5,
+                "NPC left the second target"))
+            .thenExecute(() -> cleanup(mgr))
+            .thenSucceed();
+    }
+
+    @GameTest(template = PLATFORM, batch = "nuncle_craft")
+    public static void craftConsumesIngredients(GameTestHelper helper) {
+        NunclePlayer mgr = spawnNpc(helper, CENTER);
+        mgr.getBackpack().addItem(new ItemStack(Items.OAK_LOG, 1));
+
+        String reply = mgr.craft("oak_planks");
+        helper.assertTrue(reply.startsWith("Crafted"), "craft failed: " + reply);
+        helper.assertTrue(mgr.getInventoryIndex().count(Items.OAK_PLANKS) == 4, "expected 4 oak planks");
+        helper.assertTrue(mgr.getInventoryIndex().count(Items.OAK_LOG) == 0, "log was not consumed");
+
+        reply = mgr.craft("oak_planks");
+        helper.assertTrue(reply.startsWith("Missing materials"), "craft without materials: " + reply);
+
+        cleanup(mgr);
+        helper.succeed();
+    }
+
+    @GameTest(template = PLATFORM, batch = "nuncle_container")
+    public static void containerTransferRoundTrips(GameTestHelper helper) {
+        NunclePlayer mgr = spawnNpc(helper, CENTER);
+        BlockPos chestRel = CENTER.offset(2, 0, 0);
+        helper.setBlock(chestRel, Blocks.CHEST);
+        BlockPos chest = helper.absolutePos(chestRel);
+        Container container = (Container) helper.getBlockEntity(chestRel);
+        mgr.getBackpack().addItem(new ItemStack(Items.COBBLESTONE, 10));
+
+        String reply = mgr.putInContainer(chest.getX(), chest.getY(), chest.getZ(), "cobblestone", 6);
+        helper.assertTrue(reply.startsWith("Put"), "put failed: " + reply);
+        helper.assertTrue(container.countItem(Items.COBBLESTONE) == 6, "chest should hold 6 cobblestone");
+        helper.assertTrue(mgr.getInventoryIndex().count(Items.COBBLESTONE) == 4, "NPC should keep 4 cobblestone");
+
+        reply = mgr.takeFromContainer(chest.getX(), chest.getY(), chest.getZ(), "cobble", 6);
+        helper.assertTrue(reply.startsWith("Took"), "take failed: " + reply);
+        helper.assertTrue(container.countItem(Items.COBBLESTONE) == 0, "chest should be empty");
+        helper.assertTrue(mgr.getInventoryIndex().count(Items.COBBLESTONE) == 10, "NPC should have all 10 back");
+
+        cleanup(mgr);
+        helper.succeed();
+    }
+
+    @GameTest(template = PLATFORM, batch = "nuncle_backpack")
+    public static void backpackHoldsMoreAndOutlivesDespawn(GameTestHelper helper) {
+        NunclePlayer mgr = spawnNpc(helper, CENTER);
+        NuncleBackpack backpack = mgr.getBackpack();
+        for (int i = 0; i < 20; i++) backpack.addItem(new ItemStack(Items.COBBLESTONE, 64));
+        helper.assertTrue(mgr.getInventoryIndex().count(Items.COBBLESTONE) == 20 * 64,
+            "backpack should hold 20 full stacks");
+
+        mgr.despawn();
+        BlockPos pos = helper.absolutePos(CENTER);
+        mgr.spawn(pos.getX() + 0.5, pos.getY(), pos.getZ() + 0.5);
+        helper.assertTrue(mgr.getInventoryIndex().count(Items.COBBLESTONE) == 20 * 64,
+            "backpack contents were lost across despawn and spawn");
+
+        mgr.getNpc().kill();
+        helper.assertTrue(mgr.getInventoryIndex().count(Items.COBBLESTONE) == 0, "backpack survived a death");
+        cleanup(mgr);
+        helper.succeed();
+    }
+
+    @GameTest(template = PLATFORM, batch = "nuncle_backpack_restart")
+    public static void backpackSurvivesRestart(GameTestHelper helper) {
+        NunclePlayer mgr = spawnNpc(helper, CENTER);
+        mgr.getBackpack().addItem(new ItemStack(Items.IRON_INGOT, 12));
+
+        // Stopping the server despawns the NPC, discarding the entity...
+        mgr.despawn();
+        // ...the world save writes the saved data and the next start reads it back
+        MinecraftServer server = helper.getLevel().getServer();
+        CompoundTag saved = NuncleBackpackStore.get(server).save(new CompoundTag());
+        server.overworld().getDataStorage().set(NuncleBackpackStore.NAME, NuncleBackpackStore.load(saved));
+
+        NunclePlayer restarted = new NunclePlayer(server);
+        BlockPos pos = helper.absolutePos(CENTER);
+        restarted.spawn(pos.getX() + 0.5, pos.getY(), pos.getZ() + 0.5);
+        helper.assertTrue(restarted.getInventoryIndex().count(Items.IRON_INGOT) == 12,
+            "backpack contents were lost across a restart");
+
+        cleanup(restarted);
+        helper.succeed();
+    }
+
+    @GameTest(template = PLATFORM, batch = "nuncle_mailbox", timeoutTicks = 40)
+    public static void offThreadCommandsRunOnServerThread(GameTestHelper helper) {
+        NunclePlayer mgr = spawnNpc(helper, CENTER);
+        Thread serverThread = Thread.currentThread();
+        CompletableFuture<Thread> ranOn = CompletableFuture
+            .supplyAsync(() -> mgr.submit(Thread::currentThread))
+            .thenCompose(future -> future);
+        helper.startSequence()
+            .thenWaitUntil(() -> helper.assertTrue(ranOn.isDone(), "queued command was never applied"))
+            .thenExecute(() -> helper.assertTrue(ranOn.join() == serverThread, "command ran off the server thread"))
+            .thenExecute(() -> cleanup(mgr))
+            .thenSucceed();
+    }
+
+    @GameTest(template = PLATFORM, batch = "nuncle_deferred_clear", timeoutTicks = 40)
+    public static void planClearKeepsOtherDeferredCommands(GameTestHelper helper) {
+        NunclePlayer mgr = spawnNpc(helper, CENTER);
+        AtomicBoolean craftRan = new AtomicBoolean();
+        AtomicBoolean planRan = new AtomicBoolean();
+        mgr.defer("craft bread", false, () -> craftRan.getAndSet(true) ? "again" : "Crafted");
+        mgr.defer("plan wait 1", true, () -> planRan.getAndSet(true) ? "again" : "Queued");
+        String reply = mgr.clearPlan();
+        helper.assertTrue(reply.startsWith("Cleared 1"), "plan clear should drop only the plan: " + reply);
+        helper.startSequence()
+            .thenWaitUntil(() -> helper.assertTrue(craftRan.get(), "deferred craft was dropped by plan clear"))
+            .thenExecute(() -> helper.assertFalse(planRan.get(), "cleared plan still ran"))
+            .thenExecute(() -> cleanup(mgr))
+            .thenSucceed();
+    }
+
+    @GameTest(template = PLATFORM, batch = "nuncle_autopickup", timeoutTicks = 60)
+    public static void autoPickupCollectsMatchingDrops(GameTestHelper helper) {
+        NunclePlayer mgr = spawnNpc(helper, CENTER);
+        String reply = mgr.autoPickup(4, List.of("bread"));
+        helper.assertTrue(reply.startsWith("Auto-pickup on"), "autopickup failed: " + reply);
+
+        // Spawned after enabling, so these only reach the NPC through the join event
+        helper.spawnItem(Items.BREAD, CENTER.getX() + 2, CENTER.getY(), CENTER.getZ());
+        ItemEntity dirt = helper.spawnItem(Items.DIRT, CENTER.getX() - 2, CENTER.getY(), CENTER.getZ());
+        helper.startSequence()
+            .thenWaitUntil(() -> helper.assertTrue(mgr.getInventoryIndex().count(Items.BREAD) == 1,
+                "bread was not picked up"))
+            .thenIdle(5)
+            .thenExecute(() -> helper.assertTrue(dirt.isAlive(), "filtered-out dirt was picked up"))
+            .thenExecute(() -> cleanup(mgr))
+            .thenSucceed();
+    }
+
+    @GameTest(template = PLATFORM, batch = "nuncle_waypoints")
+    public static void waypointsSkipWater(GameTestHelper helper) {
+        BlockPos dry = helper.absolutePos(CENTER);
+        BlockPos spot = NuncleWaypoints.findSpot(helper.getLevel(), dry.getX(), dry.getZ());
+        helper.assertTrue(spot != null && spot.getY() == dry.getY(), "dry floor was not standable: " + spot);
+
+        BlockPos pool = CENTER.offset(3, -1, 3);
+        helper.setBlock(pool, Blocks.WATER);
+        BlockPos wet = helper.absolutePos(pool);
+        helper.assertTrue(NuncleWaypoints.findSpot(helper.getLevel(), wet.getX(), wet.getZ()) == null,
+            "a water surface was picked as a waypoint");
+        helper.succeed();
+    }
+
+    @GameTest(template = PLATFORM, batch = "nuncle_terrain")
+    public static void terrainSeesNewWater(GameTestHelper helper) {
+        NunclePlayer mgr = spawnNpc(helper, CENTER);
+        BlockPos pool = CENTER.offset(3, -1, 3);
+        BlockPos wet = helper.absolutePos(pool);
+        helper.assertTrue((terrainFlags(mgr, wet) & NuncleTerrain.FLAG_WATER) == 0, "dry floor reported water");
+
+        helper.setBlock(pool, Blocks.WATER); // the cached chunk has to be dropped for this to show
+        helper.assertTrue((terrainFlags(mgr, wet) & NuncleTerrain.FLAG_WATER) != 0, "new pool missing from the terrain grid");
+        cleanup(mgr);
+        helper.succeed();
+    }
+
+    private static int terrainFlags(NunclePlayer mgr, BlockPos pos) {
+        JsonObject grid = JsonParser.parseString(mgr.getTerrain(8)).getAsJsonObject();
+        int col = Math.floorDiv(pos.getX() - grid.get("x0").getAsInt(), NuncleTerrain.CELL);
+        int row = Math.floorDiv(pos.getZ() - grid.get("z0").getAsInt(), NuncleTerrain.CELL);
+        char flags = grid.get("flags").getAsString().charAt(row * grid.get("width").getAsInt() + col);
+        return Character.digit(flags, 16);
+    }
+
+    // --- Tick budgets ---
+
+    @GameTest(template = PLATFORM, batch = "nuncle_observe_budget")
+    public static void observeWithinBudget(GameTestHelper helper) {
+        NunclePlayer mgr = spawnNpc(helper, CENTER);
+        for (int i = 0; i < 5; i++) {
+            helper.spawn(EntityType.ZOMBIE, CENTER.offset(-4 + 2 * i, 0, 4));
+            helper.spawnItem(Items.BREAD, 2 + i, 1, 2);
+        }
+
+        // Measure the uncached path; the cache would otherwise answer every run after the first
+        NuncleObservationCache cache = mgr.getObservationCache();
+        for (int i = 0; i < 10; i++) { // warm up
+            cache.invalidateAll();
+            NuncleObserver.observe(mgr);
+        }
+        int runs = 50;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            cache.invalidateAll();
+            NuncleObserver.observe(mgr);
+        }
+        long avg = (System.nanoTime() - start) / runs;
+
+        NuncleMod.LOGGER.info("GameTest observe: avg {} us", avg / 1000);
+        helper.assertTrue(avg <= OBSERVE_BUDGET_NANOS,
+            "observe took " + avg / 1000 + "us on average (budget " + OBSERVE_BUDGET_NANOS / 1000 + "us)");
+
+        String first = NuncleObserver.observe(mgr);
+        helper.assertTrue(NuncleObserver.observe(mgr) == first, "repeat observe in the same tick was recomputed");
+        long now = mgr.getNpc().level().getGameTime();
+        JsonObject tree = cache.tree(NuncleObserver.Query.ALL, now);
+        NuncleObserver.observeBinary(mgr, NuncleObserver.Query.ALL);
+        helper.assertTrue(tree != null && cache.tree(NuncleObserver.Query.ALL, now) == tree,
+            "binary observe in the same tick did not reuse the memoized reply");
+        cleanup(mgr);
+        helper.succeed();
+    }
+
+    @GameTest(template = PLATFORM, batch = "nuncle_follow_budget", timeoutTicks = 200)
+    public static void followWithinBudget(GameTestHelper helper) {
+        NunclePlayer mgr = spawnNpc(helper, new BlockPos(1, 1, 1));
+        ServerPlayer player = helper.makeMockServerPlayerInLevel();
+        Vec3 near = Vec3.atBottomCenterOf(helper.absolutePos(new BlockPos(9, 1, 9)));
+        Vec3 far = Vec3.atBottomCenterOf(helper.absolutePos(new BlockPos(10, 1, 3)));
+        player.moveTo(near.x, near.y, near.z);
+
+        String reply = mgr.follow(player.getGameProfile().getName());
+        helper.assertTrue(reply.startsWith("Following"), "follow failed: " + reply);
+
+        // Move the target every tick so the NPC keeps repathing — the worst case for follow
+        int runs = 100;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            Vec3 p = (i & 1) == 0 ? far : near;
+            player.moveTo(p.x, p.y, p.z);
+            mgr.tick();
+        }
+        long avg = (System.nanoTime() - start) / runs;
+
+        NuncleMod.LOGGER.info("GameTest follow tick: avg {} us", avg / 1000);
+        helper.assertTrue(avg <= FOLLOW_TICK_BUDGET_NANOS,
+            "follow tick took " + avg / 1000 + "us on average (budget " + FOLLOW_TICK_BUDGET_NANOS / 1000 + "us)");
+
+        player.moveTo(near.x, near.y, near.z);
+        helper.startSequence()
+            .thenWaitUntil(() -> helper.assertTrue(mgr.getNpc().distanceTo(player) <= 4.0,
+                "NPC did not catch up with the player"))
+            .thenExecute(() -> {
+                cleanup(mgr);
+                helper.getLevel().getServer().getPlayerList().remove(player);
+            })
+            .thenSucceed();
+    }
+
+    // --- Helpers ---
+
+    /** Fresh NPC (empty backpack, no boundary) at a position relative to the test structure */
+    static NunclePlayer spawnNpc(GameTestHelper helper, BlockPos relative) {
+        NunclePlayer mgr = NuncleMod.getNpcManager();
+        cleanup(mgr);
+        BlockPos pos = helper.absolutePos(relative);
+        mgr.spawn(pos.getX() + 0.5, pos.getY(), pos.getZ() + 0.5);
+        if (mgr.getNpc() == null) helper.fail("NPC did not spawn");
+        mgr.getBackpack().clearContent(); // whatever the last test's NPC carried comes back on spawn
+        return mgr;
+    }
+
+    static void cleanup(NunclePlayer mgr) {
+        mgr.despawn();
+        mgr.clearBoundary();
+    }
+}
@@ -0,0 +1,206 @@
+package com.vulture.nuncle;
+
+import com.mojang.authlib.GameProfile;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.common.util.FakePlayer;
+import net.minecraftforge.common.util.FakePlayerFactory;
+import net.minecraftforge.event.ServerChatEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStartedEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Synthetic load run: N NPCs × M fake players × a chat flood plus observe
+ * polling, on the flat world prepared by ./gradlew runLoadHarness. Records
+ * per-tick MSPT and the share of it spent in mod code, writes CSVs and stops
+ * the server. Inert unless -Dnuncle.loadHarness=true.
+ *
+ * Tuning (system properties): nuncle.load.npcs, .players, .chatPerTick,
+ * .observeEvery, .warmupTicks, .ticks, .seed.
+ *
+ * "Mod time" is everything between our HIGHEST and LOWEST end-of-tick
+ * listeners: NuncleMod's own tick of NPC 0, the extra NPCs, observe polls
+ * and the posted chat events.
+ */
+@Mod.EventBusSubscriber(modid = NuncleMod.MODID)
+public class NuncleLoadHarness {
+    private static final boolean ENABLED = Boolean.getBoolean("nuncle.loadHarness");
+
+    private static final int NPCS = Integer.getInteger("nuncle.load.npcs", 4);
+    private static final int PLAYERS = Integer.getInteger("nuncle.load.players", 8);
+    private static final int CHAT_PER_TICK = Integer.getInteger("nuncle.load.chatPerTick", 10);
+    private static final int OBSERVE_EVERY = Integer.getInteger("nuncle.load.observeEvery", 20);
+    private static final int WARMUP_TICKS = Integer.getInteger("nuncle.load.warmupTicks", 200);
+    private static final int MEASURE_TICKS = Integer.getInteger("nuncle.load.ticks", 1200);
+    private static final long SEED = Long.getLong("nuncle.load.seed", 42L);
+
+    private static final String[] CHAT_LINES = {
+        "hey nuncle", "where are you", "follow me", "got any food?", "look at this",
+        "lol", "can you mine that", "come here", "nice house", "!nuncle"
+    };
+
+    private static MinecraftServer server;
+    private static final List<NunclePlayer> npcs = new ArrayList<>();
+    private static final List<FakePlayer> players = new ArrayList<>();
+    private static Random random;
+    private static int tick;
+    private static long tickStart;
+    private static long modStart;
+    private static long[] mspt;
+    private static long[] modNanos;
+
+    @SubscribeEvent
+    public static void onServerStarted(ServerStartedEvent event) {
+        if (!ENABLED) return;
+        // The report needs at least one measured tick; a negative warmup would skip tick 0 and never finish
+        if (MEASURE_TICKS < 1 || WARMUP_TICKS < 0) {
+            NuncleMod.LOGGER.error("Load harness: nuncle.load.ticks must be >= 1 and nuncle.load.warmupTicks >= 0 (got {} and {})",
+                MEASURE_TICKS, WARMUP_TICKS);
+            return;
+        }
+        server = event.getServer();
+        random = new Random(SEED);
+        ServerLevel level = server.overworld();
+        BlockPos spawn = level.getSharedSpawnPos();
+
+        // NPC 0 is the regular manager so chat reaches NuncleMod's HEARD path
+        npcs.add(NuncleMod.getNpcManager());
+        for (int i = 1; i < NPCS; i++) npcs.add(new NunclePlayer(server));
+        for (int i = 0; i < npcs.size(); i++) {
+            npcs.get(i).spawn(spawn.getX() + 0.5 + (i % 8) * 3, spawn.getY(), spawn.getZ() + 0.5 + (i / 8) * 3);
+            npcs.get(i).wander();
+        }
+
+        // Fake players in a ring inside hearing range
+        for (int i = 0; i < PLAYERS; i++) {
+            FakePlayer player = FakePlayerFactory.get(level,
+                new GameProfile(UUID.nameUUIDFromBytes(("nuncle-load-" + i).getBytes(StandardCharsets.UTF_8)), "load_" + i));
+            double angle = 2 * Math.PI * i / Math.max(1, PLAYERS);
+            player.moveTo(spawn.getX() + Math.cos(angle) * 12, spawn.getY(), spawn.getZ() + Math.sin(angle) * 12);
+            players.add(player);
+        }
+
+        mspt = new long[MEASURE_TICKS];
+        modNanos = new long[MEASURE_TICKS];
+        tick = -WARMUP_TICKS;
+        NuncleMod.LOGGER.info("Load harness: {} NPCs, {} fake players, {} chat/tick, observe every {} ticks, {}+{} ticks",
+            NPCS, PLAYERS, CHAT_PER_TICK, OBSERVE_EVERY, WARMUP_TICKS, MEASURE_TICKS);
+    }
+
+    @SubscribeEvent(priority = EventPriority.HIGHEST)
+    public static void onTickStart(TickEvent.ServerTickEvent event) {
+        if (server == null || event.phase != TickEvent.Phase.START) return;
+        tickStart = System.nanoTime();
+    }
+
+    @SubscribeEvent(priority = EventPriority.HIGHEST)
+    public static void onTickEndFirst(TickEvent.ServerTickEvent event) {
+        if (server == null || event.phase != TickEvent.Phase.END) return;
+        modStart = System.nanoTime();
+
+        for (int i = 1; i < npcs.size(); i++) npcs.get(i).tick(); // NPC 0 is ticked by NuncleMod
+
+        if (OBSERVE_EVERY > 0 && Math.floorMod(tick, OBSERVE_EVERY) == 0) {
+            for (NunclePlayer npc : npcs) NuncleObserver.observe(npc);
+        }
+
+        if (!players.isEmpty()) {
+            for (int i = 0; i < CHAT_PER_TICK; i++) {
+                FakePlayer player = players.get(random.nextInt(players.size()));
+                String line = CHAT_LINES[random.nextInt(CHAT_LINES.length)];
+                MinecraftForge.EVENT_BUS.post(new ServerChatEvent(player, line, Component.literal(line)));
+            }
+        }
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onTickEndLast(TickEvent.ServerTickEvent event) {
+        if (server == null || event.phase != TickEvent.Phase.END) return;
+        long now = System.nanoTime();
+        if (tick >= 0 && tick < MEASURE_TICKS) {
+            mspt[tick] = now - tickStart;
+            modNanos[tick] = now - modStart;
+        }
+        tick++;
+        if (tick == MEASURE_TICKS) finish();
+    }
+
+    private static void finish() {
+        Path dir = server.getServerDirectory().toPath();
+        try {
+            writeTicks(dir.resolve("load-ticks.csv"));
+            writeSummary(dir.resolve("load-summary.csv"));
+        } catch (IOException e) {
+            NuncleMod.LOGGER.error("Load harness: failed to write report", e);
+        }
+        for (int i = 1; i < npcs.size(); i++) npcs.get(i).despawn();
+        server.halt(false);
+        server = null;
+    }
+
+    private static void writeTicks(Path file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println("tick,mspt,mod_ms");
+            for (int i = 0; i < MEASURE_TICKS; i++) {
+                out.println(i + "," + ms(mspt[i]) + "," + ms(modNanos[i]));
+            }
+        }
+    }
+
+    private static void writeSummary(Path file) throws IOException {
+        long[] sorted = mspt.clone();
+        Arrays.sort(sorted);
+        long total = 0, mod = 0;
+        for (int i = 0; i < MEASURE_TICKS; i++) {
+            total += mspt[i];
+            mod += modNanos[i];
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println("metric,value");
+            out.println("npcs," + NPCS);
+            out.println("fake_players," + PLAYERS);
+            out.println("chat_per_tick," + CHAT_PER_TICK);
+            out.println("observe_every," + OBSERVE_EVERY);
+            out.println("ticks," + MEASURE_TICKS);
+            out.println("seed," + SEED);
+            out.println("mspt_mean," + ms(total / MEASURE_TICKS));
+            out.println("mspt_p50," + ms(percentile(sorted, 0.50)));
+            out.println("mspt_p95," + ms(percentile(sorted, 0.95)));
+            out.println("mspt_p99," + ms(percentile(sorted, 0.99)));
+            out.println("mspt_max," + ms(sorted[sorted.length - 1]));
+            out.println("mod_ms_mean," + ms(mod / MEASURE_TICKS));
+            out.println("mod_share_pct," + String.format(Locale.ROOT, "%.1f", total == 0 ? 0.0 : 100.0 * mod / total));
+        }
+        NuncleMod.LOGGER.info("Load harness: mspt p50={} p95={} p99={} max={}, mod share {}%, report in {}",
+            ms(percentile(sorted, 0.50)), ms(percentile(sorted, 0.95)), ms(percentile(sorted, 0.99)),
+            ms(sorted[sorted.length - 1]), String.format(Locale.ROOT, "%.1f", total == 0 ? 0.0 : 100.0 * mod / total),
+            file.getParent());
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static String ms(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,174 @@
+package com.vulture.nuncle;
+
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStartedEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Plays a recorded trace (see NuncleTrace) back against a copy of the world
+ * it was recorded in: ./gradlew runTraceReplay -Dnuncle.replay.trace=path,
+ * with the world snapshot copied to run-replay/world. Spawns the NPC where
+ * the trace starts, runs each command on the tick it arrived, and writes
+ * replay-commands.csv (time per command) and replay-ticks.csv (recorded vs
+ * replayed NPC tick time, and how far the NPC has drifted from its recorded
+ * position), then stops the server. Inert unless nuncle.replay.trace is set.
+ *
+ * Commands run at the start of the tick after the one they were recorded on,
+ * which is when the server ran them (between ticks) in the original session.
+ */
+@Mod.EventBusSubscriber(modid = NuncleMod.MODID)
+public class NuncleTraceReplay {
+    private static final String TRACE = System.getProperty("nuncle.replay.trace");
+
+    private static MinecraftServer server;
+    private static NuncleTraceFile.Trace trace;
+    private static CommandSourceStack source;
+    private static int baseTick;
+    private static int nextCommand;
+    private static int nextTick;
+    private static int lastTick;
+
+    private static long[] commandNanos;
+    private static long[] replayNanos;
+    private static double[] drift;
+
+    @SubscribeEvent
+    public static void onServerStarted(ServerStartedEvent event) {
+        if (TRACE == null) return;
+        try {
+            trace = NuncleTraceFile.read(ByteBuffer.wrap(Files.readAllBytes(Path.of(TRACE))));
+        } catch (IOException | IllegalArgumentException e) {
+            NuncleMod.LOGGER.error("Trace replay: cannot read {}", TRACE, e);
+            event.getServer().halt(false);
+            return;
+        }
+        server = event.getServer();
+        source = server.createCommandSourceStack().withSuppressedOutput();
+        List<NuncleTraceFile.Tick> ticks = trace.ticks();
+        lastTick = Math.max(ticks.isEmpty() ? 0 : ticks.get(ticks.size() - 1).tick(),
+            trace.commands().isEmpty() ? 0 : trace.commands().get(trace.commands().size() - 1).tick());
+        commandNanos = new long[trace.commands().size()];
+        replayNanos = new long[ticks.size()];
+        drift = new double[ticks.size()];
+        Arrays.fill(drift, Double.NaN);
+
+        // Start from where the recording did; a spawn command in the trace moves it anyway
+        NunclePlayer mgr = NuncleMod.getNpcManager();
+        if (!ticks.isEmpty() && (ticks.get(0).flags() & NuncleTraceFile.ALIVE) != 0) {
+            NuncleTraceFile.Tick first = ticks.get(0);
+            mgr.spawn(first.x(), first.y(), first.z());
+        }
+        baseTick = server.getTickCount();
+        NuncleMod.LOGGER.info("Trace replay: {} recorded in {} at game time {}, {} tick(s), {} command(s)",
+            TRACE, trace.level(), trace.startGameTime(), ticks.size(), trace.commands().size());
+    }
+
+    @SubscribeEvent(priority = EventPriority.HIGHEST)
+    public static void onTickStart(TickEvent.ServerTickEvent event) {
+        if (server == null || event.phase != TickEvent.Phase.START) return;
+        int now = server.getTickCount() - baseTick;
+        List<NuncleTraceFile.Command> commands = trace.commands();
+        while (nextCommand < commands.size() && commands.get(nextCommand).tick() <= now) {
+            long start = System.nanoTime();
+            server.getCommands().performPrefixedCommand(source, commands.get(nextCommand).command());
+            commandNanos[nextCommand++] = System.nanoTime() - start;
+        }
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onTickEnd(TickEvent.ServerTickEvent event) {
+        if (server == null || event.phase != TickEvent.Phase.END) return;
+        long nanos = NuncleMod.getLastTickNanos();
+        int now = server.getTickCount() - baseTick;
+        List<NuncleTraceFile.Tick> ticks = trace.ticks();
+        while (nextTick < ticks.size() && ticks.get(nextTick).tick() <= now) {
+            NuncleTraceFile.Tick recorded = ticks.get(nextTick);
+            replayNanos[nextTick] = nanos;
+            Villager npc = NuncleMod.getNpcManager().getNpc();
+            if ((recorded.flags() & NuncleTraceFile.ALIVE) != 0 && npc != null && npc.isAlive()) {
+                drift[nextTick] = Math.sqrt(npc.distanceToSqr(recorded.x(), recorded.y(), recorded.z()));
+            }
+            nextTick++;
+        }
+        if (now >= lastTick) finish();
+    }
+
+    private static void finish() {
+        Path dir = server.getServerDirectory().toPath();
+        try {
+            writeCommands(dir.resolve("replay-commands.csv"));
+            writeTicks(dir.resolve("replay-ticks.csv"));
+        } catch (IOException e) {
+            NuncleMod.LOGGER.error("Trace replay: failed to write report", e);
+        }
+        summarize();
+        server.halt(false);
+        server = null;
+    }
+
+    private static void writeCommands(Path file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println("tick,ms,command");
+            List<NuncleTraceFile.Command> commands = trace.commands();
+            for (int i = 0; i < commands.size(); i++) {
+                out.println(commands.get(i).tick() + "," + ms(commandNanos[i]) + ",\"" +
+                    commands.get(i).command().replace("\"", "\"\"") + "\"");
+            }
+        }
+    }
+
+    private static void writeTicks(Path file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println("tick,recorded_ms,replay_ms,drift_blocks,flags");
+            List<NuncleTraceFile.Tick> ticks = trace.ticks();
+            for (int i = 0; i < ticks.size(); i++) {
+                NuncleTraceFile.Tick t = ticks.get(i);
+                out.println(t.tick() + "," + ms(t.modMicros() * 1000L) + "," + ms(replayNanos[i]) + "," +
+                    (Double.isNaN(drift[i]) ? "" : String.format(Locale.ROOT, "%.2f", drift[i])) + "," + t.flags());
+            }
+        }
+    }
+
+    private static void summarize() {
+        List<NuncleTraceFile.Tick> ticks = trace.ticks();
+        long[] recorded = new long[ticks.size()];
+        for (int i = 0; i < recorded.length; i++) recorded[i] = ticks.get(i).modMicros() * 1000L;
+        long[] replayed = replayNanos.clone();
+        long[] perCommand = commandNanos.clone();
+        Arrays.sort(recorded);
+        Arrays.sort(replayed);
+        Arrays.sort(perCommand);
+        double maxDrift = Arrays.stream(drift).filter(d -> !Double.isNaN(d)).max().orElse(0);
+        NuncleMod.LOGGER.info("Trace replay: NPC tick p50/p99 recorded {}/{} ms, replayed {}/{} ms; " +
+                "command p50/p99 {}/{} ms; max drift {} blocks; report in {}",
+            ms(percentile(recorded, 0.50)), ms(percentile(recorded, 0.99)),
+            ms(percentile(replayed, 0.50)), ms(percentile(replayed, 0.99)),
+            ms(percentile(perCommand, 0.50)), ms(percentile(perCommand, 0.99)),
+            String.format(Locale.ROOT, "%.1f", maxDrift), server.getServerDirectory());
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static String ms(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,89 @@
+package com.vulture.nuncle;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-tick boundary enforcement: containment check, clamp when outside.
+ * "legacy" is the old Double-boxed fields + double[] clamp, kept here as the baseline.
+ * Run with ./gradlew jmh (add -prof gc to the JMH args to see allocation rates).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NuncleBoundaryBenchmark {
+    private static final int POINTS = 1024;
+
+    /** Share of ticks where the NPC is outside and gets pulled back */
+    @Param({"0.0", "0.1", "1.0"})
+    public double outsideRatio;
+
+    private final double[] xs = new double[POINTS];
+    private final double[] zs = new double[POINTS];
+    private int i;
+
+    private NuncleBoundary boundary;
+    private Double legacyCenterX;
+    private Double legacyCenterZ;
+    private Double legacyRadius;
+
+    @Setup
+    public void setup() {
+        boundary = new NuncleBoundary(100.0, -50.0, 64.0);
+        legacyCenterX = 100.0;
+        legacyCenterZ = -50.0;
+        legacyRadius = 64.0;
+        Random random = new Random(1);
+        for (int k = 0; k < POINTS; k++) {
+            double angle = random.nextDouble() * Math.PI * 2;
+            double dist = random.nextDouble() < outsideRatio ? 65 + random.nextDouble() * 30 : random.nextDouble() * 63;
+            xs[k] = 100.0 + Math.cos(angle) * dist;
+            zs[k] = -50.0 + Math.sin(angle) * dist;
+        }
+    }
+
+    @Benchmark
+    public void enforce(Blackhole bh) {
+        int k = i++ & (POINTS - 1);
+        double x = xs[k], z = zs[k];
+        NuncleBoundary b = boundary;
+        if (b != null && !b.contains(x, z)) {
+            bh.consume(b.clampX(x, z));
+            bh.consume(b.clampZ(x, z));
+        }
+    }
+
+    @Benchmark
+    public void legacy(Blackhole bh) {
+        int k = i++ & (POINTS - 1);
+        double x = xs[k], z = zs[k];
+        if (legacyCenterX != null && !legacyInside(x, z)) {
+            double[] clamped = legacyClamp(x, z);
+            bh.consume(clamped[0]);
+            bh.consume(clamped[1]);
+        }
+    }
+
+    private boolean legacyInside(double x, double z) {
+        if (legacyCenterX == null) return true;
+        double dx = x - legacyCenterX;
+        double dz = z - legacyCenterZ;
+        return Math.sqrt(dx * dx + dz * dz) <= legacyRadius;
+    }
+
+    private double[] legacyClamp(double x, double z) {
+        if (legacyCenterX == null) return new double[]{x, z};
+        double dx = x - legacyCenterX;
+        double dz = z - legacyCenterZ;
+        double dist = Math.sqrt(dx * dx + dz * dz);
+        if (dist <= legacyRadius) return new double[]{x, z};
+        double scale = legacyRadius / dist;
+        return new double[]{legacyCenterX + dx * scale, legacyCenterZ + dz * scale};
+    }
+}
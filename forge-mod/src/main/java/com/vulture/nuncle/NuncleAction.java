@@ -0,0 +1,261 @@
+package com.vulture.nuncle;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.phys.Vec3;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One step of a plan run by {@link NunclePlayer}'s action queue.
+ * A step has a precondition, an optional approach target (the NPC walks
+ * until it is within reach) and an execute step that may span several ticks.
+ */
+public abstract class NuncleAction {
+
+    public enum Status { RUNNING, DONE, FAILED }
+
+    /** Outcome of a one-shot NPC operation (mine, place, take...) */
+    public record Result(boolean success, String message) {
+        public static Result ok(String message) {
+            return new Result(true, message);
+        }
+
+        public static Result fail(String message) {
+            return new Result(false, message);
+        }
+    }
+
+    private final String description;
+    private String message = "";
+
+    protected NuncleAction(String description) {
+        this.description = description;
+    }
+
+    public String describe() {
+        return description;
+    }
+
+    /** Result text of the last execute, or the failure reason */
+    public String message() {
+        return message;
+    }
+
+    /** Why this step cannot run at all, or null if it can */
+    @Nullable
+    public String precondition(NunclePlayer mgr) {
+        return null;
+    }
+
+    /** Where the NPC must be within {@link #reach()} of before executing, or null to act in place */
+    @Nullable
+    public Vec3 target(NunclePlayer mgr) {
+        return null;
+    }
+
+    public double reach() {
+        return NunclePlayer.REACH;
+    }
+
+    /**
+     * The current target could not be reached. Return true to carry on with
+     * the next target (multi-block jobs skip the block), false to fail the step.
+     */
+    public boolean onUnreachable(NunclePlayer mgr) {
+        return false;
+    }
+
+    /** Called once in range, then every tick while it returns RUNNING */
+    public abstract Status execute(NunclePlayer mgr);
+
+    protected Status finish(Result result) {
+        message = result.message();
+        return result.success() ? Status.DONE : Status.FAILED;
+    }
+
+    protected Status fail(String reason) {
+        message = reason;
+        return Status.FAILED;
+    }
+
+    protected void setMessage(String message) {
+        this.message = message;
+    }
+
+    // --- Plan parsing ---
+
+    /** Parse a plan like "goto 10 64 5; mine 12 63 5; pickup; put 0 64 0 cobblestone 64" */
+    public static List<NuncleAction> parsePlan(String plan) {
+        List<NuncleAction> steps = new ArrayList<>();
+        for (String step : plan.split(";")) {
+            String trimmed = step.trim();
+            if (!trimmed.isEmpty()) steps.add(parse(trimmed));
+        }
+        if (steps.isEmpty()) throw new IllegalArgumentException("Plan has no steps");
+        return steps;
+    }
+
+    public static NuncleAction parse(String step) {
+        String[] t = step.trim().split("\\s+");
+        String verb = t[0].toLowerCase();
+        try {
+            switch (verb) {
+                case "goto": {
+                    expect(t, 4, 4, "goto <x> <y> <z>");
+                    double x = Double.parseDouble(t[1]);
+                    double y = Double.parseDouble(t[2]);
+                    double z = Double.parseDouble(t[3]);
+                    return new Goto(step, x, y, z);
+                }
+                case "mine": {
+                    if (t.length > 1 && t[1].equalsIgnoreCase("area")) {
+                        expect(t, 8, 9, "mine area <x1> <y1> <z1> <x2> <y2> <z2> [blocksPerTick]");
+                        int perTick = t.length > 8 ? Integer.parseInt(t[8]) : NuncleMiningJob.DEFAULT_BLOCKS_PER_TICK;
+                        return NuncleMiningJob.area(blockPos(t, 2), blockPos(t, 5), perTick);
+                    }
+                    if (t.length > 1 && t[1].equalsIgnoreCase("vein")) {
+                        expect(t, 5, 6, "mine vein <x> <y> <z> [blocksPerTick]");
+                        int perTick = t.length > 5 ? Integer.parseInt(t[5]) : NuncleMiningJob.DEFAULT_BLOCKS_PER_TICK;
+                        return NuncleMiningJob.vein(blockPos(t, 2), perTick);
+                    }
+                    expect(t, 4, 4, "mine <x> <y> <z>");
+                    BlockPos pos = blockPos(t, 1);
+                    return at(step, pos, m -> m.mineAt(pos));
+                }
+                case "place": {
+                    expect(t, 5, 5, "place <x> <y> <z> <block>");
+                    BlockPos pos = blockPos(t, 1);
+                    String block = t[4];
+                    return at(step, pos, m -> m.placeAt(pos, block));
+                }
+                case "take": {
+                    expect(t, 4, 6, "take <x> <y> <z> [filter] [count]");
+                    BlockPos pos = blockPos(t, 1);
+                    String filter = t.length > 4 ? t[4] : null;
+                    int count = t.length > 5 ? Integer.parseInt(t[5]) : 64;
+                    return at(step, pos, m -> m.takeFrom(pos, filter, count));
+                }
+                case "put": {
+                    expect(t, 5, 6, "put <x> <y> <z> <item> [count]");
+                    BlockPos pos = blockPos(t, 1);
+                    String item = t[4];
+                    int count = t.length > 5 ? Integer.parseInt(t[5]) : 64;
+                    return at(step, pos, m -> m.putInto(pos, item, count));
+                }
+                case "pickup": {
+                    String filter = t.length > 1 ? rest(t, 1) : null;
+                    return inPlace(step, m -> m.pickupItems(filter));
+                }
+                case "drop": {
+                    expect(t, 2, Integer.MAX_VALUE, "drop <item>");
+                    String item = rest(t, 1);
+                    return inPlace(step, m -> m.dropStack(item));
+                }
+                case "craft": {
+                    expect(t, 2, Integer.MAX_VALUE, "craft <item>");
+                    String item = rest(t, 1);
+                    return inPlace(step, m -> m.craftItem(item));
+                }
+                case "wait": {
+                    expect(t, 2, 2, "wait <ticks>");
+                    return new Wait(step, Integer.parseInt(t[1]));
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown step '" + verb + "'");
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad number in '" + step + "'");
+        }
+    }
+
+    private static void expect(String[] tokens, int min, int max, String usage) {
+        if (tokens.length < min || tokens.length > max) {
+            throw new IllegalArgumentException("Usage: " + usage);
+        }
+    }
+
+    private static BlockPos blockPos(String[] t, int from) {
+        return new BlockPos(Integer.parseInt(t[from]), Integer.parseInt(t[from + 1]), Integer.parseInt(t[from + 2]));
+    }
+
+    private static String rest(String[] t, int from) {
+        return String.join(" ", Arrays.copyOfRange(t, from, t.length));
+    }
+
+    /** A one-shot operation on a block that must be inside the boundary and within reach */
+    private static NuncleAction at(String description, BlockPos pos, Function<NunclePlayer, Result> op) {
+        return new NuncleAction(description) {
+            @Override
+            public String precondition(NunclePlayer mgr) {
+                return mgr.isInsideBoundary(pos.getX(), pos.getZ()) ? null : "Target is outside boundary";
+            }
+
+            @Override
+            public Vec3 target(NunclePlayer mgr) {
+                return Vec3.atCenterOf(pos);
+            }
+
+            @Override
+            public Status execute(NunclePlayer mgr) {
+                return finish(op.apply(mgr));
+            }
+        };
+    }
+
+    /** A one-shot operation that needs no approach */
+    private static NuncleAction inPlace(String description, Function<NunclePlayer, Result> op) {
+        return new NuncleAction(description) {
+            @Override
+            public Status execute(NunclePlayer mgr) {
+                return finish(op.apply(mgr));
+            }
+        };
+    }
+
+    private static class Goto extends NuncleAction {
+        private final double x, y, z;
+
+        Goto(String description, double x, double y, double z) {
+            super(description);
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        @Override
+        public Vec3 target(NunclePlayer mgr) {
+            return mgr.clampedTarget(x, y, z);
+        }
+
+        @Override
+        public double reach() {
+            return 1.5;
+        }
+
+        @Override
+        public Status execute(NunclePlayer mgr) {
+            Vec3 dest = target(mgr);
+            return finish(Result.ok("Arrived at " + (int) dest.x + " " + (int) dest.y + " " + (int) dest.z));
+        }
+    }
+
+    private static class Wait extends NuncleAction {
+        private int remaining;
+
+        Wait(String description, int ticks) {
+            super(description);
+            this.remaining = ticks;
+        }
+
+        @Override
+        public Status execute(NunclePlayer mgr) {
+            if (--remaining > 0) return Status.RUNNING;
+            setMessage("Waited");
+            return Status.DONE;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.vulture.nuncle;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Persistent vacuum mode: items that appear near the NPC are collected as
+ * soon as their pickup delay runs out. Candidates arrive through
+ * {@link #onItemJoined} (EntityJoinLevelEvent) rather than a per-tick scan;
+ * the area is only rescanned when the NPC has moved far enough to see new
+ * ground. The filter is checked once when an item is queued.
+ */
+public class NuncleAutoPickup {
+    public static final double DEFAULT_RADIUS = 4.0;
+    private static final double MAX_RADIUS = 12.0;
+    /** Items this far out are still watched, since they may roll or we may walk closer */
+    private static final double WATCH_FACTOR = 2.0;
+
+    private boolean enabled;
+    private double radius = DEFAULT_RADIUS;
+    private List<String> filters = List.of();
+    private final List<ItemEntity> pending = new ArrayList<>();
+    private double scanX, scanZ;
+    private boolean full;
+    private int collected;
+
+    public String enable(NunclePlayer mgr, double radius, List<String> filters) {
+        this.enabled = true;
+        this.radius = Math.max(1.0, Math.min(MAX_RADIUS, radius));
+        this.filters = filters.stream().map(f -> f.toLowerCase(Locale.ROOT)).toList();
+        this.collected = 0;
+        this.full = false;
+        pending.clear();
+        if (mgr.isAlive()) rescan(mgr.getNpc());
+        return "Auto-pickup on within " + (int) this.radius + " blocks" +
+            (this.filters.isEmpty() ? "" : " for " + String.join(", ", this.filters)) +
+            " (" + pending.size() + " item(s) in view)";
+    }
+
+    public String disable() {
+        enabled = false;
+        pending.clear();
+        return "Auto-pickup off (" + collected + " item(s) collected)";
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String info() {
+        if (!enabled) return "Auto-pickup: off";
+        return "Auto-pickup: on, radius " + (int) radius +
+            ", filter " + (filters.isEmpty() ? "any" : String.join(",", filters)) +
+            ", watching " + pending.size() + ", collected " + collected + (full ? ", inventory full" : "");
+    }
+
+    /** Queue a freshly spawned item if it is close enough to matter */
+    public void onItemJoined(Villager npc, ItemEntity item) {
+        if (!enabled || item.level() != npc.level()) return;
+        double watch = radius * WATCH_FACTOR;
+        if (npc.distanceToSqr(item) > watch * watch) return;
+        if (!wants(npc, item)) return;
+        pending.add(item);
+    }
+
+    public void tick(NunclePlayer mgr) {
+        if (!enabled) return;
+        Villager npc = mgr.getNpc();
+        double dx = npc.getX() - scanX;
+        double dz = npc.getZ() - scanZ;
+        if (dx * dx + dz * dz > radius * radius) rescan(npc);
+        if (pending.isEmpty()) return;
+
+        NuncleInventoryIndex index = mgr.getInventoryIndex();
+        double radiusSq = radius * radius;
+        double watch = radius * WATCH_FACTOR;
+        double watchSq = watch * watch;
+        boolean blocked = false;
+        for (int i = pending.size() - 1; i >= 0; i--) {
+            ItemEntity item = pending.get(i);
+            double distSq = item.isAlive() && item.level() == npc.level() ? npc.distanceToSqr(item) : Double.MAX_VALUE;
+            if (distSq > watchSq) {
+                removeAt(i);
+                continue;
+            }
+            if (distSq > radiusSq || item.hasPickUpDelay()) continue;
+
+            ItemStack stack = item.getItem();
+            String name = BuiltInRegistries.ITEM.getKey(stack.getItem()).getPath(); // an emptied stack reads as air
+            int moved = index.insert(stack);
+            if (moved == 0) {
+                blocked = true;
+                continue;
+            }
+            npc.take(item, moved);
+            collected += moved;
+            NuncleEvents.emit("AUTO_PICKUP", "{} {}", name, moved);
+            if (stack.isEmpty()) {
+                item.discard();
+                removeAt(i);
+            } else {
+                item.setItem(stack); // resync the smaller count to clients
+                blocked = true;
+            }
+        }
+        if (blocked != full) {
+            full = blocked;
+            if (full) NuncleEvents.emit("AUTO_PICKUP_FULL", "{}", pending.size());
+        }
+    }
+
+    private void rescan(Villager npc) {
+        scanX = npc.getX();
+        scanZ = npc.getZ();
+        double watch = radius * WATCH_FACTOR;
+        for (ItemEntity item : npc.level().getEntitiesOfClass(ItemEntity.class, npc.getBoundingBox().inflate(watch),
+                e -> e.isAlive() && wants(npc, e))) {
+            if (!pending.contains(item)) pending.add(item);
+        }
+    }
+
+    /** Skips what the NPC dropped itself, otherwise it would pick it straight back up */
+    private boolean wants(Villager npc, ItemEntity item) {
+        return !npc.getUUID().equals(item.getThrower()) && matches(item.getItem());
+    }
+
+    private boolean matches(ItemStack stack) {
+        if (filters.isEmpty()) return true;
+        String name = BuiltInRegistries.ITEM.getKey(stack.getItem()).getPath();
+        for (int i = 0; i < filters.size(); i++) {
+            if (name.contains(filters.get(i))) return true;
+        }
+        return false;
+    }
+
+    private void removeAt(int i) {
+        int last = pending.size() - 1;
+        pending.set(i, pending.get(last));
+        pending.remove(last);
+    }
+}
@@ -0,0 +1,26 @@
+package com.vulture.nuncle;
+
+import net.minecraft.world.SimpleContainer;
+
+/**
+ * The NPC's real inventory: a 36-slot container owned by {@link NunclePlayer}
+ * rather than the villager entity, which is discarded on every despawn. The
+ * vanilla villager inventory (8 slots) is left alone; {@link NuncleBackpackStore}
+ * keeps the contents across restarts. Carries its own
+ * {@link NuncleInventoryIndex}, so per-item totals and slot lookups never
+ * rescan the container.
+ */
+public class NuncleBackpack extends SimpleContainer {
+    public static final int SIZE = 36;
+
+    private final NuncleInventoryIndex index;
+
+    public NuncleBackpack() {
+        super(SIZE);
+        this.index = new NuncleInventoryIndex(this);
+    }
+
+    public NuncleInventoryIndex index() {
+        return index;
+    }
+}
@@ -0,0 +1,50 @@
+package com.vulture.nuncle;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.saveddata.SavedData;
+
+/**
+ * Holds the backpack while there is no NPC to carry it. Despawning (which
+ * server shutdown does too) stashes the contents here and the next spawn
+ * takes them back, so they outlive the discarded entity. Saved with the
+ * overworld's data; a death leaves nothing behind, like a player's inventory
+ * without keepInventory.
+ */
+public class NuncleBackpackStore extends SavedData {
+    static final String NAME = NuncleMod.MODID + "_backpack";
+
+    private ListTag items = new ListTag();
+
+    public static NuncleBackpackStore get(MinecraftServer server) {
+        return server.overworld().getDataStorage().computeIfAbsent(NuncleBackpackStore::load, NuncleBackpackStore::new, NAME);
+    }
+
+    static NuncleBackpackStore load(CompoundTag tag) {
+        NuncleBackpackStore store = new NuncleBackpackStore();
+        store.items = tag.getList("items", Tag.TAG_COMPOUND);
+        return store;
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag) {
+        tag.put("items", items);
+        return tag;
+    }
+
+    /** Keep what the backpack holds until the next spawn */
+    public void stash(NuncleBackpack backpack) {
+        items = backpack.createTag();
+        setDirty();
+    }
+
+    /** Move the stashed contents into a freshly spawned NPC's backpack */
+    public void restore(NuncleBackpack backpack) {
+        if (items.isEmpty()) return;
+        backpack.fromTag(items);
+        items = new ListTag();
+        setDirty();
+    }
+}
@@ -0,0 +1,55 @@
+package com.vulture.nuncle;
+
+/**
+ * Circular leash around a center point (x/z only). Immutable, so a new one is
+ * swapped in whole and readers never see a half-updated center or radius.
+ * Checks use squared distances; clamping returns one coordinate at a time so
+ * the per-tick enforcement path doesn't allocate.
+ */
+public final class NuncleBoundary {
+    private final double centerX;
+    private final double centerZ;
+    private final double radius;
+    private final double radiusSq;
+
+    public NuncleBoundary(double centerX, double centerZ, double radius) {
+        if (!(radius >= 0)) throw new IllegalArgumentException("Boundary radius must be >= 0");
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+        this.radius = radius;
+        this.radiusSq = radius * radius;
+    }
+
+    public double centerX() { return centerX; }
+    public double centerZ() { return centerZ; }
+    public double radius() { return radius; }
+
+    public boolean contains(double x, double z) {
+        double dx = x - centerX;
+        double dz = z - centerZ;
+        return dx * dx + dz * dz <= radiusSq;
+    }
+
+    public double distanceFromCenter(double x, double z) {
+        double dx = x - centerX;
+        double dz = z - centerZ;
+        return Math.sqrt(dx * dx + dz * dz);
+    }
+
+    /** X of the point clamped onto the boundary (unchanged if already inside) */
+    public double clampX(double x, double z) {
+        return centerX + (x - centerX) * clampScale(x, z);
+    }
+
+    /** Z of the point clamped onto the boundary (unchanged if already inside) */
+    public double clampZ(double x, double z) {
+        return centerZ + (z - centerZ) * clampScale(x, z);
+    }
+
+    private double clampScale(double x, double z) {
+        double dx = x - centerX;
+        double dz = z - centerZ;
+        double distSq = dx * dx + dz * dz;
+        return distSq <= radiusSq ? 1.0 : radius / Math.sqrt(distSq);
+    }
+}
@@ -0,0 +1,167 @@
+package com.vulture.nuncle;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
+import net.minecraft.commands.arguments.blocks.BlockStateParser;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.Vec3;
+
+import javax.annotation.Nullable;
+
+/**
+ * Places a cached schematic at an origin, a few blocks per tick, from the
+ * NPC's inventory. Cells go bottom layer first; within a layer a block waits
+ * until it has something to attach to, so supports are placed before what
+ * rests on them. Runs out of materials → pauses (JOB_PAUSED) until they show up.
+ */
+public class NuncleBuildJob extends NuncleAction {
+    public static final int DEFAULT_BLOCKS_PER_TICK = 2;
+    private static final int MAX_BLOCKS_PER_TICK = 16;
+    private static final int PAUSED_RECHECK_TICKS = 20;
+    private static final int PROGRESS_INTERVAL = 32;
+
+    private final String id;
+    private final NuncleSchematic schematic;
+    private final BlockPos origin;
+    private final int blocksPerTick;
+
+    @Nullable private BlockState[] states; // resolved palette
+    private final IntArrayFIFOQueue pending = new IntArrayFIFOQueue();
+    private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+    private final BlockPos.MutableBlockPos neighbour = new BlockPos.MutableBlockPos();
+    private int deferredInARow;
+    private int placed;
+    private int skipped;
+    @Nullable private Item missing;
+    private int pausedTicks;
+
+    public NuncleBuildJob(String id, NuncleSchematic schematic, BlockPos origin, int blocksPerTick) {
+        super("build " + id + " at " + origin.toShortString());
+        this.id = id;
+        this.schematic = schematic;
+        this.origin = origin;
+        this.blocksPerTick = Math.max(1, Math.min(MAX_BLOCKS_PER_TICK, blocksPerTick));
+    }
+
+    @Override
+    @Nullable
+    public String precondition(NunclePlayer mgr) {
+        states = new BlockState[schematic.paletteSize()];
+        for (int i = 1; i < states.length; i++) {
+            try {
+                states[i] = BlockStateParser.parseForBlock(BuiltInRegistries.BLOCK.asLookup(), schematic.state(i), false)
+                    .blockState();
+            } catch (CommandSyntaxException e) {
+                return "Unknown block state in schematic " + id + ": " + schematic.state(i);
+            }
+        }
+
+        Level level = mgr.getNpc().level();
+        for (int i = 0; i < schematic.volume(); i++) {
+            int paletteIndex = schematic.cell(i);
+            if (paletteIndex == 0) continue;
+            at(i);
+            if (!mgr.isInsideBoundary(cursor.getX(), cursor.getZ())) {
+                skipped++;
+                continue;
+            }
+            if (level.getBlockState(cursor) == states[paletteIndex]) continue; // already built
+            pending.enqueue(i);
+        }
+        return null;
+    }
+
+    @Override
+    @Nullable
+    public Vec3 target(NunclePlayer mgr) {
+        if (pending.isEmpty() || missing != null) return null;
+        at(pending.firstInt());
+        return Vec3.atCenterOf(cursor);
+    }
+
+    @Override
+    public boolean onUnreachable(NunclePlayer mgr) {
+        pending.dequeueInt();
+        skipped++;
+        return true;
+    }
+
+    @Override
+    public Status execute(NunclePlayer mgr) {
+        if (missing != null) {
+            if (++pausedTicks < PAUSED_RECHECK_TICKS) return Status.RUNNING;
+            pausedTicks = 0;
+            if (mgr.getInventoryIndex().count(missing) == 0) return Status.RUNNING;
+            NuncleEvents.emit("JOB_RESUMED", "{}", describe());
+            missing = null;
+        }
+
+        Level level = mgr.getNpc().level();
+        for (int n = 0; n < blocksPerTick && !pending.isEmpty(); n++) {
+            int cell = pending.firstInt();
+            at(cell);
+            if (mgr.getNpc().position().distanceTo(Vec3.atCenterOf(cursor)) > reach()) {
+                return Status.RUNNING; // walk to it next tick
+            }
+
+            BlockState state = states[schematic.cell(cell)];
+            if (!level.getBlockState(cursor).canBeReplaced()) {
+                pending.dequeueInt();
+                skipped++;
+                continue;
+            }
+
+            // Nothing to rest on yet — retry after the rest of the queue, unless the whole queue is stuck
+            if (!hasSupport(level) && deferredInARow < pending.size()) {
+                pending.enqueue(pending.dequeueInt());
+                deferredInARow++;
+                continue;
+            }
+
+            Item item = state.getBlock().asItem();
+            if (item == Items.AIR) {
+                pending.dequeueInt();
+                skipped++;
+                continue;
+            }
+            if (mgr.getInventoryIndex().consume(item, 1) == 0) {
+                missing = item;
+                pausedTicks = 0;
+                NuncleEvents.emit("JOB_PAUSED", "{} | missing {} ({} left)",
+                    describe(), BuiltInRegistries.ITEM.getKey(item).getPath(), pending.size());
+                return Status.RUNNING;
+            }
+
+            level.setBlock(cursor, state, 3);
+            pending.dequeueInt();
+            deferredInARow = 0;
+            placed++;
+            if (placed % PROGRESS_INTERVAL == 0) {
+                NuncleEvents.emit("JOB_PROGRESS", "{} | placed={} left={}", describe(), placed, pending.size());
+            }
+        }
+
+        if (!pending.isEmpty()) return Status.RUNNING;
+        setMessage("Built " + id + ": placed " + placed + " block(s)" + (skipped > 0 ? ", skipped " + skipped : ""));
+        return Status.DONE;
+    }
+
+    /** Is there a solid neighbour at the cursor to place against? */
+    private boolean hasSupport(Level level) {
+        for (Direction dir : Direction.values()) {
+            neighbour.setWithOffset(cursor, dir);
+            if (!level.getBlockState(neighbour).canBeReplaced()) return true;
+        }
+        return false;
+    }
+
+    private void at(int cell) {
+        cursor.set(origin.getX() + schematic.x(cell), origin.getY() + schematic.y(cell), origin.getZ() + schematic.z(cell));
+    }
+}
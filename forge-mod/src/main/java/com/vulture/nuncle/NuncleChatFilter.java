@@ -0,0 +1,189 @@
+package com.vulture.nuncle;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiConsumer;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Filter in front of HEARD, since every HEARD can wake the brain and cost a
+ * model call. Per player, in order: messages matching an ignore pattern are
+ * dropped, repeats of a recent message are dropped, and the rest are batched.
+ * A batch is sent as one HEARD line ("a | b | c") when the player's token
+ * bucket has a token; a quiet player's first message goes out immediately.
+ * Batches are capped, and messages past the cap are counted as rate-limited.
+ */
+public class NuncleChatFilter {
+    private static final int RECENT = 4;
+    private static final int IDLE_PRUNE_TICKS = 6000;
+
+    // Tunables (ticks), see configure()
+    private int dedupeWindow = 200;
+    private int bucketSize = 3;
+    private int refillTicks = 100;
+    private int coalesceTicks = 40;
+    private int maxBatch = 5;
+    private final List<Pattern> ignore = new ArrayList<>();
+
+    private final Object2ObjectOpenHashMap<String, Speaker> speakers = new Object2ObjectOpenHashMap<>();
+    private final BiConsumer<String, String> heard;
+
+    // Counters
+    private long received;
+    private long ignored;
+    private long duplicates;
+    private long rateLimited;
+    private long coalesced;
+    private long emitted;
+
+    private static final class Speaker {
+        final String[] recent = new String[RECENT];
+        final long[] recentAt = new long[RECENT];
+        int recentNext;
+        double tokens;
+        long refilledAt;
+        long lastEmit = Long.MIN_VALUE / 2;
+        long lastSeen;
+        final List<String> batch = new ArrayList<>();
+
+        Speaker(int bucketSize, long now) {
+            this.tokens = bucketSize;
+            this.refilledAt = now;
+        }
+    }
+
+    public NuncleChatFilter() {
+        this((player, message) -> NuncleEvents.emit("HEARD", "{} {}", player, message));
+    }
+
+    /** @param heard receives (player, message) for every HEARD that passes */
+    NuncleChatFilter(BiConsumer<String, String> heard) {
+        this.heard = heard;
+    }
+
+    /** Run a message through the filter; emits HEARD now or queues it for {@link #tick} */
+    public void accept(String player, String message, long now) {
+        received++;
+        for (int i = 0; i < ignore.size(); i++) {
+            if (ignore.get(i).matcher(message).find()) {
+                ignored++;
+                return;
+            }
+        }
+
+        Speaker s = speakers.get(player);
+        if (s == null) {
+            s = new Speaker(bucketSize, now);
+            speakers.put(player, s);
+        }
+        s.lastSeen = now;
+
+        String normalized = message.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        for (int i = 0; i < RECENT; i++) {
+            if (normalized.equals(s.recent[i]) && now - s.recentAt[i] <= dedupeWindow) {
+                duplicates++;
+                return;
+            }
+        }
+        s.recent[s.recentNext] = normalized;
+        s.recentAt[s.recentNext] = now;
+        s.recentNext = (s.recentNext + 1) % RECENT;
+
+        if (s.batch.size() >= maxBatch) {
+            rateLimited++;
+            return;
+        }
+        s.batch.add(message);
+        flush(player, s, now);
+    }
+
+    /** Send batches whose coalesce window has passed and whose bucket has refilled */
+    public void tick(long now) {
+        if (speakers.isEmpty()) return;
+        var it = speakers.object2ObjectEntrySet().fastIterator();
+        while (it.hasNext()) {
+            var entry = it.next();
+            Speaker s = entry.getValue();
+            if (!s.batch.isEmpty()) {
+                flush(entry.getKey(), s, now);
+            } else if (now - s.lastSeen > IDLE_PRUNE_TICKS) {
+                it.remove();
+            }
+        }
+    }
+
+    private void flush(String player, Speaker s, long now) {
+        if (s.batch.isEmpty() || now - s.lastEmit < coalesceTicks) return;
+        refill(s, now);
+        if (s.tokens < 1) return;
+        s.tokens -= 1;
+        s.lastEmit = now;
+        coalesced += s.batch.size() - 1;
+        emitted++;
+        heard.accept(player, String.join(" | ", s.batch));
+        s.batch.clear();
+    }
+
+    private void refill(Speaker s, long now) {
+        if (s.tokens >= bucketSize) {
+            s.refilledAt = now;
+            return;
+        }
+        s.tokens = Math.min(bucketSize, s.tokens + (double) (now - s.refilledAt) / refillTicks);
+        s.refilledAt = now;
+    }
+
+    /** Drop pending batches and per-player state, e.g. when the NPC despawns */
+    public void reset() {
+        speakers.clear();
+    }
+
+    public String configure(String name, int value) {
+        if (value < 0 || (value == 0 && !name.equals("dedupe") && !name.equals("coalesce"))) {
+            return "Value for " + name + " must be " + (name.equals("dedupe") || name.equals("coalesce") ? ">= 0" : "> 0");
+        }
+        switch (name) {
+            case "dedupe" -> dedupeWindow = value;
+            case "bucket" -> bucketSize = value;
+            case "refill" -> refillTicks = value;
+            case "coalesce" -> coalesceTicks = value;
+            case "batch" -> maxBatch = value;
+            default -> {
+                return "Unknown setting: " + name + " (dedupe, bucket, refill, coalesce, batch)";
+            }
+        }
+        return "Chat filter " + name + " set to " + value;
+    }
+
+    public String addPattern(String regex) {
+        try {
+            ignore.add(Pattern.compile(regex, Pattern.CASE_INSENSITIVE));
+        } catch (PatternSyntaxException e) {
+            return "Invalid pattern: " + e.getDescription();
+        }
+        return "Ignoring chat matching /" + regex + "/ (" + ignore.size() + " pattern(s))";
+    }
+
+    public String removePattern(String regex) {
+        boolean removed = ignore.removeIf(p -> p.pattern().equals(regex));
+        return removed ? "Removed pattern /" + regex + "/" : "No pattern /" + regex + "/";
+    }
+
+    public String info() {
+        StringBuilder sb = new StringBuilder("Chat filter: dedupe=").append(dedupeWindow)
+            .append(" bucket=").append(bucketSize).append(" refill=").append(refillTicks)
+            .append(" coalesce=").append(coalesceTicks).append(" batch=").append(maxBatch);
+        for (Pattern p : ignore) sb.append("\n  ignore /").append(p.pattern()).append('/');
+        return sb.toString();
+    }
+
+    public String stats() {
+        return "Chat filter: received " + received + ", heard " + emitted + " event(s), " +
+            "ignored " + ignored + ", duplicates " + duplicates + ", coalesced " + coalesced +
+            ", rate-limited " + rateLimited;
+    }
+}
@@ -0,0 +1,174 @@
+package com.vulture.nuncle;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps the NPC's surroundings loaded without a player nearby, and loads the
+ * chunks along where it is about to walk before it gets there.
+ *
+ * A "home" ticket follows the NPC's chunk (3x3 entity-ticking). A move to a
+ * far point tickets every chunk on the straight line to it; the chunk system
+ * loads or generates them off-thread and the move only starts once the
+ * destination chunk is present, so nothing here ever blocks on generation.
+ * Route tickets are re-planned whenever the NPC crosses a chunk border, which
+ * releases the ones it has walked past.
+ */
+public class NuncleChunkLoader {
+    /** Keyed per loader, so two NPCs ticketing the same chunk don't release each other's tickets */
+    public static final TicketType<Integer> TICKET = TicketType.create(NuncleMod.MODID, Integer::compareTo);
+    private static final AtomicInteger IDS = new AtomicInteger();
+
+    private static final int HOME_DISTANCE = 3;  // ticket level 30: the 3x3 around the NPC entity-ticks
+    private static final int ROUTE_DISTANCE = 1; // ticket level 32: loaded to FULL, enough for heightmaps
+    private static final int MAX_ROUTE_CHUNKS = 32;
+    private static final int MOVE_TIMEOUT_TICKS = 600;
+
+    private final int id = IDS.incrementAndGet();
+    @Nullable private ServerLevel level;
+    @Nullable private ChunkPos home;
+
+    // Route toward the current destination, nearest chunk first
+    private LongLinkedOpenHashSet route = new LongLinkedOpenHashSet();
+    private boolean routing;
+    private double routeX, routeZ;
+
+    // Move waiting for its destination chunk
+    private boolean pending;
+    private double pendingX, pendingY, pendingZ;
+    private boolean pendingSurface;
+    private int pendingTicks;
+
+    public void tick(Villager npc) {
+        ServerLevel current = (ServerLevel) npc.level();
+        if (current != level) release();
+        level = current;
+
+        ChunkPos here = npc.chunkPosition();
+        if (!here.equals(home)) {
+            ServerChunkCache chunks = level.getChunkSource();
+            chunks.addRegionTicket(TICKET, here, HOME_DISTANCE, id);
+            if (home != null) chunks.removeRegionTicket(TICKET, home, HOME_DISTANCE, id);
+            home = here;
+            if (routing) replan(npc);
+        }
+
+        if (pending) {
+            if (isLoaded(pendingX, pendingZ)) {
+                pending = false;
+                double y = pendingSurface ? surfaceY(pendingX, pendingZ) : pendingY;
+                NunclePlayer.navigate(npc, pendingX, y, pendingZ, 1.0);
+            } else if (++pendingTicks > MOVE_TIMEOUT_TICKS) {
+                NuncleEvents.emit("ROUTE_TIMEOUT", "{} {}", (int) pendingX, (int) pendingZ);
+                cancel();
+            }
+        }
+    }
+
+    /**
+     * Start a move once the chunk at x/z is loaded; call {@link #plan} first
+     * so it is on its way.
+     * @param surface ignore y and use the top block at x/z
+     */
+    public void defer(double x, double y, double z, boolean surface) {
+        pending = true;
+        pendingX = x;
+        pendingY = y;
+        pendingZ = z;
+        pendingSurface = surface;
+        pendingTicks = 0;
+    }
+
+    /** Preload the chunks between the NPC and a point it is heading for */
+    public void plan(Villager npc, double x, double z) {
+        routing = true;
+        routeX = x;
+        routeZ = z;
+        level = (ServerLevel) npc.level();
+        replan(npc);
+    }
+
+    public boolean hasPendingMove() {
+        return pending;
+    }
+
+    /** Drop the route and any deferred move; the home ticket stays */
+    public void cancel() {
+        pending = false;
+        routing = false;
+        if (level != null) setRoute(new LongLinkedOpenHashSet());
+    }
+
+    /** Drop every ticket, e.g. on despawn */
+    public void release() {
+        cancel();
+        if (level != null && home != null) {
+            level.getChunkSource().removeRegionTicket(TICKET, home, HOME_DISTANCE, id);
+        }
+        home = null;
+    }
+
+    public String info() {
+        return "Chunks: home " + (home == null ? "none" : home.x + "," + home.z) +
+            ", route " + route.size() + " chunk(s)" +
+            (pending ? ", waiting for " + (int) pendingX + " " + (int) pendingZ : "");
+    }
+
+    public boolean isLoaded(double x, double z) {
+        return level != null && level.hasChunk(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(z));
+    }
+
+    /** Top block at x/z; only call once {@link #isLoaded} says the chunk is there */
+    public int surfaceY(double x, double z) {
+        return level.getHeight(Heightmap.Types.MOTION_BLOCKING_NO_LEAVES, (int) Math.floor(x), (int) Math.floor(z));
+    }
+
+    private void replan(Villager npc) {
+        int fromX = SectionPos.blockToSectionCoord(npc.getX());
+        int fromZ = SectionPos.blockToSectionCoord(npc.getZ());
+        int toX = SectionPos.blockToSectionCoord(routeX);
+        int toZ = SectionPos.blockToSectionCoord(routeZ);
+        if (Math.max(Math.abs(toX - fromX), Math.abs(toZ - fromZ)) <= 1) {
+            routing = false; // the home ticket covers the rest
+            setRoute(new LongLinkedOpenHashSet());
+            return;
+        }
+
+        // Sample the segment every half chunk; consecutive samples share or neighbour chunks
+        LongLinkedOpenHashSet next = new LongLinkedOpenHashSet();
+        double dx = routeX - npc.getX();
+        double dz = routeZ - npc.getZ();
+        int steps = (int) Math.ceil(Math.sqrt(dx * dx + dz * dz) / 8.0);
+        for (int i = 1; i <= steps && next.size() < MAX_ROUTE_CHUNKS; i++) {
+            double t = (double) i / steps;
+            next.add(ChunkPos.asLong(SectionPos.blockToSectionCoord(npc.getX() + dx * t),
+                SectionPos.blockToSectionCoord(npc.getZ() + dz * t)));
+        }
+        next.add(ChunkPos.asLong(toX, toZ)); // past the cap on long trips, a deferred move still needs its target
+        setRoute(next);
+    }
+
+    /** Ticket what's new before releasing what's gone, so shared chunks never drop to unloaded */
+    private void setRoute(LongLinkedOpenHashSet next) {
+        ServerChunkCache chunks = level.getChunkSource();
+        for (LongIterator it = next.iterator(); it.hasNext(); ) {
+            long pos = it.nextLong();
+            if (!route.contains(pos)) chunks.addRegionTicket(TICKET, new ChunkPos(pos), ROUTE_DISTANCE, id);
+        }
+        for (LongIterator it = route.iterator(); it.hasNext(); ) {
+            long pos = it.nextLong();
+            if (!next.contains(pos)) chunks.removeRegionTicket(TICKET, new ChunkPos(pos), ROUTE_DISTANCE, id);
+        }
+        route = next;
+    }
+}
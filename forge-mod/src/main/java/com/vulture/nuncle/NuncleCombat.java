@@ -0,0 +1,178 @@
+package com.vulture.nuncle;
+
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.phys.AABB;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Melee engagement: picks the best target among everything that matches
+ * (one entity type, or all hostiles), strikes on a cooldown and moves on to
+ * the next target by itself. Target selection runs every few ticks; chasing
+ * and striking run every tick.
+ *
+ * Score = threat − distance + weakness, where threat counts hostility and
+ * whether the mob is targeting us, and weakness favours finishing off hurt
+ * mobs. The current target gets a small bonus so we don't flip-flop.
+ */
+public class NuncleCombat {
+    public static final double DEFAULT_RADIUS = 16.0;
+    private static final double MAX_RADIUS = 32.0;
+    private static final float ATTACK_DAMAGE = 4.0F;
+    private static final int ATTACK_COOLDOWN_TICKS = 15;
+    private static final int RETARGET_INTERVAL_TICKS = 10;
+    private static final double MELEE_REACH = 2.5;
+
+    private static final double HOSTILE_THREAT = 10.0;
+    private static final double AGGRO_THREAT = 8.0;
+    private static final double WEAKNESS_WEIGHT = 5.0;
+    private static final double STICKINESS = 2.0;
+
+    private boolean active;
+    @Nullable private EntityType<?> typeFilter; // null = any hostile
+    private String label = "";
+    private double radius = DEFAULT_RADIUS;
+    @Nullable private LivingEntity target;
+    private int cooldown;
+    private int retargetIn;
+    private int repathIn;
+    private int kills;
+
+    /**
+     * Engage every matching mob in range until none are left.
+     * @param type entity type to hunt, or null for all hostiles
+     */
+    public void engage(@Nullable EntityType<?> type, String label, double radius) {
+        this.active = true;
+        this.typeFilter = type;
+        this.label = label;
+        this.radius = Math.max(1.0, Math.min(MAX_RADIUS, radius));
+        this.target = null;
+        this.retargetIn = 0;
+        this.repathIn = 0;
+        this.kills = 0;
+    }
+
+    public void stop() {
+        active = false;
+        target = null;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    @Nullable
+    public LivingEntity getTarget() {
+        return target;
+    }
+
+    public String info() {
+        if (!active) return "Combat: idle";
+        String info = "Combat: hunting " + label + " within " + (int) radius + " blocks, " + kills + " kill(s)";
+        if (target != null) info += " | target " + NuncleEntityTypes.name(target);
+        return info;
+    }
+
+    /** Count candidates in range without engaging, for command feedback */
+    public int countTargets(NunclePlayer mgr, @Nullable EntityType<?> type, double radius) {
+        Villager npc = mgr.getNpc();
+        return npc.level().getEntitiesOfClass(LivingEntity.class, npc.getBoundingBox().inflate(radius),
+            e -> matches(mgr, npc, e, type, radius * radius)).size();
+    }
+
+    public void tick(NunclePlayer mgr) {
+        if (!active) return;
+        Villager npc = mgr.getNpc();
+        if (cooldown > 0) cooldown--;
+
+        boolean lost = target != null && (!target.isAlive() || !matches(mgr, npc, target, typeFilter, radius * radius));
+        if (lost) {
+            // Not alive also covers despawned, discarded and unloaded mobs; only a death is a kill
+            if (target.isDeadOrDying() || target.getRemovalReason() == Entity.RemovalReason.KILLED) {
+                kills++;
+                NuncleEvents.emit("COMBAT_KILL", "{}", NuncleEntityTypes.name(target));
+            } else if (target.isRemoved()) {
+                NuncleEvents.emit("COMBAT_LOST", "{} {}", NuncleEntityTypes.name(target),
+                    target.getRemovalReason().name().toLowerCase(Locale.ROOT));
+            }
+            target = null;
+            retargetIn = 0;
+        }
+
+        if (--retargetIn <= 0) {
+            retargetIn = RETARGET_INTERVAL_TICKS;
+            LivingEntity best = selectTarget(mgr, npc);
+            if (best == null) {
+                npc.getNavigation().stop();
+                NuncleEvents.emit("COMBAT_CLEAR", "{} kills={}", label, kills);
+                stop();
+                return;
+            }
+            if (best != target) {
+                target = best;
+                repathIn = 0;
+                NuncleEvents.emit("COMBAT_TARGET", "{} {}", NuncleEntityTypes.name(best), (int) npc.distanceTo(best));
+            }
+        }
+        if (target == null) return;
+
+        double dist = npc.distanceTo(target);
+        if (dist > MELEE_REACH) {
+            if (--repathIn <= 0 || npc.getNavigation().isDone()) {
+                repathIn = mgr.getLoadShedder().level().combatRepathTicks;
+                NunclePlayer.navigate(npc, target, 1.2);
+            }
+            return;
+        }
+
+        npc.getLookControl().setLookAt(target);
+        if (cooldown == 0) {
+            cooldown = ATTACK_COOLDOWN_TICKS;
+            npc.swing(InteractionHand.MAIN_HAND);
+            target.hurt(npc.damageSources().mobAttack(npc), ATTACK_DAMAGE);
+        }
+    }
+
+    @Nullable
+    private LivingEntity selectTarget(NunclePlayer mgr, Villager npc) {
+        double radiusSq = radius * radius;
+        List<LivingEntity> candidates = npc.level().getEntitiesOfClass(LivingEntity.class,
+            npc.getBoundingBox().inflate(radius), e -> matches(mgr, npc, e, typeFilter, radiusSq));
+        LivingEntity best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < candidates.size(); i++) {
+            LivingEntity e = candidates.get(i);
+            double score = score(npc, e);
+            if (e == target) score += STICKINESS;
+            if (score > bestScore) {
+                bestScore = score;
+                best = e;
+            }
+        }
+        return best;
+    }
+
+    private static double score(Villager npc, LivingEntity e) {
+        double threat = 0;
+        if (NuncleEntityTypes.isHostile(e)) threat += HOSTILE_THREAT;
+        if (e instanceof Mob mob && mob.getTarget() == npc) threat += AGGRO_THREAT;
+        double weakness = 1.0 - e.getHealth() / Math.max(1.0F, e.getMaxHealth());
+        return threat - npc.distanceTo(e) + WEAKNESS_WEIGHT * weakness;
+    }
+
+    private static boolean matches(NunclePlayer mgr, Villager npc, Entity e, @Nullable EntityType<?> type,
+                                   double radiusSq) {
+        if (e == npc || !e.isAlive()) return false;
+        if (type != null ? e.getType() != type : !NuncleEntityTypes.isHostile(e)) return false;
+        if (npc.distanceToSqr(e) > radiusSq) return false;
+        return mgr.isInsideBoundary(e.getX(), e.getZ());
+    }
+}
@@ -3,9 +3,11 @@ package com.vulture.nuncle;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.arguments.DoubleArgumentType;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.LongArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import net.minecraft.ChatFormatting;
+import net.minecraft.core.BlockPos;
 import net.minecraft.network.chat.ClickEvent;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.HoverEvent;
@@ -14,6 +16,11 @@ import net.minecraft.commands.Commands;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.npc.Villager;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
 public class NuncleCommands {
 
     public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
@@ -36,11 +43,23 @@ public class NuncleCommands {
             .then(Commands.literal("status")
                 .executes(NuncleCommands::status))
 
-            // /nuncle observe [inventory]
+            // /nuncle observe [inventory | fields=self,entities:16,... radius=<n>]
             .then(Commands.literal("observe")
                 .executes(NuncleCommands::observe)
                 .then(Commands.literal("inventory")
-                    .executes(NuncleCommands::observeInventory)))
+                    .executes(NuncleCommands::observeInventory))
+                // /nuncle observe cache — section hit rate
+                .then(Commands.literal("cache")
+                    .executes(ctx -> run(ctx, m -> m.getObservationCache().info())))
+                // /nuncle observe binary [reset | <options>] — base64, see NuncleObservationCodec
+                .then(Commands.literal("binary")
+                    .executes(ctx -> observeBinary(ctx, ""))
+                    .then(Commands.literal("reset")
+                        .executes(NuncleCommands::observeBinaryReset))
+                    .then(Commands.argument("options", StringArgumentType.greedyString())
+                        .executes(ctx -> observeBinary(ctx, StringArgumentType.getString(ctx, "options")))))
+                .then(Commands.argument("options", StringArgumentType.greedyString())
+                    .executes(NuncleCommands::observeWith)))
 
             // /nuncle chat <message>
             .then(Commands.literal("chat")
@@ -74,18 +93,91 @@ public class NuncleCommands {
                         .then(Commands.argument("z", DoubleArgumentType.doubleArg())
                             .executes(NuncleCommands::lookAt)))))
 
-            // /nuncle attack <entityType>
+            // /nuncle attack <entityType|hostile> [radius]
             .then(Commands.literal("attack")
                 .then(Commands.argument("entityType", StringArgumentType.word())
-                    .executes(NuncleCommands::attack)))
+                    .executes(ctx -> attack(ctx, NuncleCombat.DEFAULT_RADIUS))
+                    .then(Commands.argument("radius", DoubleArgumentType.doubleArg(1, 32))
+                        .executes(ctx -> attack(ctx, DoubleArgumentType.getDouble(ctx, "radius"))))))
+
+            // /nuncle chunks
+            .then(Commands.literal("chunks")
+                .executes(ctx -> run(ctx, NunclePlayer::getChunkInfo)))
+
+            // /nuncle terrain <radius> | terrain cache
+            .then(Commands.literal("terrain")
+                .then(Commands.argument("radius", IntegerArgumentType.integer(NuncleTerrain.CELL, NuncleTerrain.MAX_RADIUS))
+                    .executes(ctx -> run(ctx, m -> m.getTerrain(IntegerArgumentType.getInteger(ctx, "radius")))))
+                .then(Commands.literal("cache")
+                    .executes(ctx -> run(ctx, NunclePlayer::getTerrainInfo))))
+
+            // /nuncle output
+            .then(Commands.literal("output")
+                .executes(ctx -> run(ctx, m -> m.getOutput().info())))
+
+            // /nuncle waypoints
+            .then(Commands.literal("waypoints")
+                .executes(ctx -> run(ctx, NunclePlayer::getWaypointInfo)))
+
+            // /nuncle combat info|stop
+            .then(Commands.literal("combat")
+                .then(Commands.literal("info")
+                    .executes(ctx -> run(ctx, NunclePlayer::getCombatInfo)))
+                .then(Commands.literal("stop")
+                    .executes(ctx -> run(ctx, NunclePlayer::stopCombat))))
 
             // /nuncle mine <x> <y> <z>
+            // /nuncle mine area <x1> <y1> <z1> <x2> <y2> <z2> [blocksPerTick]
+            // /nuncle mine vein <x> <y> <z> [blocksPerTick]
             .then(Commands.literal("mine")
+                .then(Commands.literal("area")
+                    .then(Commands.argument("x1", IntegerArgumentType.integer())
+                        .then(Commands.argument("y1", IntegerArgumentType.integer())
+                            .then(Commands.argument("z1", IntegerArgumentType.integer())
+                                .then(Commands.argument("x2", IntegerArgumentType.integer())
+                                    .then(Commands.argument("y2", IntegerArgumentType.integer())
+                                        .then(Commands.argument("z2", IntegerArgumentType.integer())
+                                            .executes(ctx -> mineArea(ctx, NuncleMiningJob.DEFAULT_BLOCKS_PER_TICK))
+                                            .then(Commands.argument("blocksPerTick", IntegerArgumentType.integer(1, 16))
+                                                .executes(ctx -> mineArea(ctx,
+                                                    IntegerArgumentType.getInteger(ctx, "blocksPerTick")))))))))))
+                .then(Commands.literal("vein")
+                    .then(Commands.argument("x", IntegerArgumentType.integer())
+                        .then(Commands.argument("y", IntegerArgumentType.integer())
+                            .then(Commands.argument("z", IntegerArgumentType.integer())
+                                .executes(ctx -> mineVein(ctx, NuncleMiningJob.DEFAULT_BLOCKS_PER_TICK))
+                                .then(Commands.argument("blocksPerTick", IntegerArgumentType.integer(1, 16))
+                                    .executes(ctx -> mineVein(ctx,
+                                        IntegerArgumentType.getInteger(ctx, "blocksPerTick"))))))))
                 .then(Commands.argument("x", IntegerArgumentType.integer())
                     .then(Commands.argument("y", IntegerArgumentType.integer())
                         .then(Commands.argument("z", IntegerArgumentType.integer())
                             .executes(NuncleCommands::mine)))))
 
+            // /nuncle build <schematicId> <x> <y> <z> [blocksPerTick]
+            .then(Commands.literal("build")
+                .then(Commands.argument("schematicId", StringArgumentType.word())
+                    .then(Commands.argument("x", IntegerArgumentType.integer())
+                        .then(Commands.argument("y", IntegerArgumentType.integer())
+                            .then(Commands.argument("z", IntegerArgumentType.integer())
+                                .executes(ctx -> build(ctx, NuncleBuildJob.DEFAULT_BLOCKS_PER_TICK))
+                                .then(Commands.argument("blocksPerTick", IntegerArgumentType.integer(1, 16))
+                                    .executes(ctx -> build(ctx,
+                                        IntegerArgumentType.getInteger(ctx, "blocksPerTick")))))))))
+
+            // /nuncle schematic upload <id> <base64> | finish <id> | delete <id>
+            .then(Commands.literal("schematic")
+                .then(Commands.literal("upload")
+                    .then(Commands.argument("id", StringArgumentType.word())
+                        .then(Commands.argument("data", StringArgumentType.greedyString())
+                            .executes(NuncleCommands::schematicUpload))))
+                .then(Commands.literal("finish")
+                    .then(Commands.argument("id", StringArgumentType.word())
+                        .executes(NuncleCommands::schematicFinish)))
+                .then(Commands.literal("delete")
+                    .then(Commands.argument("id", StringArgumentType.word())
+                        .executes(NuncleCommands::schematicDelete))))
+
             // /nuncle place <x> <y> <z> <blockName>
             .then(Commands.literal("place")
                 .then(Commands.argument("x", IntegerArgumentType.integer())
@@ -94,6 +186,20 @@ public class NuncleCommands {
                             .then(Commands.argument("blockName", StringArgumentType.word())
                                 .executes(NuncleCommands::placeBlock))))))
 
+            // /nuncle autopickup on [radius] [filters...] | off | info
+            .then(Commands.literal("autopickup")
+                .then(Commands.literal("on")
+                    .executes(ctx -> autoPickup(ctx, NuncleAutoPickup.DEFAULT_RADIUS, ""))
+                    .then(Commands.argument("radius", DoubleArgumentType.doubleArg(1, 12))
+                        .executes(ctx -> autoPickup(ctx, DoubleArgumentType.getDouble(ctx, "radius"), ""))
+                        .then(Commands.argument("filters", StringArgumentType.greedyString())
+                            .executes(ctx -> autoPickup(ctx, DoubleArgumentType.getDouble(ctx, "radius"),
+                                StringArgumentType.getString(ctx, "filters"))))))
+                .then(Commands.literal("off")
+                    .executes(ctx -> run(ctx, NunclePlayer::stopAutoPickup)))
+                .then(Commands.literal("info")
+                    .executes(ctx -> run(ctx, NunclePlayer::getAutoPickupInfo))))
+
             // /nuncle pickup [itemFilter]
             .then(Commands.literal("pickup")
                 .executes(NuncleCommands::pickupAll)
@@ -150,6 +256,79 @@ public class NuncleCommands {
                 .then(Commands.argument("itemName", StringArgumentType.greedyString())
                     .executes(NuncleCommands::craft)))
 
+            // /nuncle plan <steps> | add <steps> | clear | status
+            .then(Commands.literal("plan")
+                .then(Commands.literal("clear")
+                    .executes(NuncleCommands::planClear))
+                .then(Commands.literal("status")
+                    .executes(NuncleCommands::planStatus))
+                .then(Commands.literal("add")
+                    .then(Commands.argument("steps", StringArgumentType.greedyString())
+                        .executes(ctx -> plan(ctx, true))))
+                .then(Commands.argument("steps", StringArgumentType.greedyString())
+                    .executes(ctx -> plan(ctx, false))))
+
+            // /nuncle trigger info | <hostile|hearing|health|item> <value>
+            .then(Commands.literal("trigger")
+                .then(Commands.literal("info")
+                    .executes(NuncleCommands::triggerInfo))
+                .then(Commands.argument("name", StringArgumentType.word())
+                    .then(Commands.argument("value", DoubleArgumentType.doubleArg(0))
+                        .executes(NuncleCommands::triggerSet))))
+
+            // /nuncle chatfilter info | stats | set <name> <value> | ignore <regex> | unignore <regex>
+            .then(Commands.literal("chatfilter")
+                .then(Commands.literal("info")
+                    .executes(ctx -> run(ctx, m -> m.getChatFilter().info())))
+                .then(Commands.literal("stats")
+                    .executes(ctx -> run(ctx, m -> m.getChatFilter().stats())))
+                .then(Commands.literal("set")
+                    .then(Commands.argument("name", StringArgumentType.word())
+                        .then(Commands.argument("value", IntegerArgumentType.integer(0))
+                            .executes(NuncleCommands::chatFilterSet))))
+                .then(Commands.literal("ignore")
+                    .then(Commands.argument("regex", StringArgumentType.greedyString())
+                        .executes(NuncleCommands::chatFilterIgnore)))
+                .then(Commands.literal("unignore")
+                    .then(Commands.argument("regex", StringArgumentType.greedyString())
+                        .executes(NuncleCommands::chatFilterUnignore))))
+
+            // /nuncle trace start <name> | stop | info
+            .then(Commands.literal("trace")
+                .then(Commands.literal("start")
+                    .then(Commands.argument("name", StringArgumentType.word())
+                        .executes(ctx -> reply(ctx, NuncleMod.getTrace().start(StringArgumentType.getString(ctx, "name"))))))
+                .then(Commands.literal("stop")
+                    .executes(ctx -> reply(ctx, NuncleMod.getTrace().stop())))
+                .then(Commands.literal("info")
+                    .executes(ctx -> reply(ctx, NuncleMod.getTrace().info()))))
+
+            // /nuncle load | load force <level> | load auto
+            .then(Commands.literal("load")
+                .executes(ctx -> run(ctx, NunclePlayer::getLoadInfo))
+                .then(Commands.literal("force")
+                    .then(Commands.argument("level", StringArgumentType.word())
+                        .executes(NuncleCommands::forceLoad)))
+                .then(Commands.literal("auto")
+                    .executes(ctx -> run(ctx, m -> m.forceLoadLevel(null)))))
+
+            // /nuncle jfr start | stop | status
+            .then(Commands.literal("jfr")
+                .then(Commands.literal("start")
+                    .executes(ctx -> reply(ctx, NuncleJfr.start())))
+                .then(Commands.literal("stop")
+                    .executes(ctx -> reply(ctx, NuncleJfr.stop(ctx.getSource().getServer()))))
+                .then(Commands.literal("status")
+                    .executes(ctx -> reply(ctx, NuncleJfr.status()))))
+
+            // /nuncle journal info | since <seq>
+            .then(Commands.literal("journal")
+                .then(Commands.literal("info")
+                    .executes(ctx -> reply(ctx, NuncleEvents.info())))
+                .then(Commands.literal("since")
+                    .then(Commands.argument("seq", LongArgumentType.longArg(0))
+                        .executes(ctx -> reply(ctx, NuncleEvents.since(LongArgumentType.getLong(ctx, "seq")))))))
+
             // /nuncle brain on|off
             .then(Commands.literal("brain")
                 .then(Commands.literal("on")
@@ -168,79 +347,155 @@ public class NuncleCommands {
         return 1;
     }
 
+    /**
+     * Apply a command through the NPC's mailbox and reply with its result.
+     * Brigadier runs us on the server thread, so this normally completes
+     * inline; from any other thread it completes at the start of the next tick.
+     */
+    private static int run(CommandContext<CommandSourceStack> ctx, Function<NunclePlayer, String> command) {
+        NunclePlayer mgr = mgr();
+        String input = ctx.getInput();
+        mgr.submit(() -> {
+            NuncleJfr.Command event = new NuncleJfr.Command();
+            event.begin();
+            String msg = command.apply(mgr);
+            event.finish(input, mgr, msg);
+            return msg;
+        }).whenComplete((msg, err) ->
+            reply(ctx, err != null ? "Command failed: " + err.getMessage() : msg));
+        return 1;
+    }
+
+    /**
+     * {@link #run} for heavy commands that can wait: while the load shedder
+     * holds them back they are queued and reply at once, and the real result
+     * follows as a DEFERRED_DONE event.
+     */
+    private static int runDeferrable(CommandContext<CommandSourceStack> ctx, Function<NunclePlayer, String> command) {
+        return runDeferrable(ctx, false, command);
+    }
+
+    /** {@link #runDeferrable}; a queued plan submission ({@code plan}) is dropped by plan clear */
+    private static int runDeferrable(CommandContext<CommandSourceStack> ctx, boolean plan,
+                                     Function<NunclePlayer, String> command) {
+        String input = ctx.getInput();
+        return run(ctx, m -> m.getLoadShedder().level().defersCommands()
+            ? m.defer(input, plan, () -> command.apply(m)) : command.apply(m));
+    }
+
     private static NunclePlayer mgr() {
         return NuncleMod.getNpcManager();
     }
 
     private static int spawnDefault(CommandContext<CommandSourceStack> ctx) {
-        return reply(ctx, mgr().spawnAtWorldSpawn());
+        return run(ctx, NunclePlayer::spawnAtWorldSpawn);
     }
 
     private static int spawnAt(CommandContext<CommandSourceStack> ctx) {
         double x = DoubleArgumentType.getDouble(ctx, "x");
         double y = DoubleArgumentType.getDouble(ctx, "y");
         double z = DoubleArgumentType.getDouble(ctx, "z");
-        return reply(ctx, mgr().spawn(x, y, z));
+        return run(ctx, m -> m.spawn(x, y, z));
     }
 
     private static int despawn(CommandContext<CommandSourceStack> ctx) {
-        return reply(ctx, mgr().despawn());
+        return run(ctx, NunclePlayer::despawn);
     }
 
     private static int status(CommandContext<CommandSourceStack> ctx) {
-        return reply(ctx, NuncleObserver.getStatus(mgr()));
+        return run(ctx, NuncleObserver::getStatus);
     }
 
     private static int observe(CommandContext<CommandSourceStack> ctx) {
-        return reply(ctx, NuncleObserver.observe(mgr()));
+        return run(ctx, NuncleObserver::observe);
+    }
+
+    private static int observeWith(CommandContext<CommandSourceStack> ctx) {
+        String options = StringArgumentType.getString(ctx, "options");
+        try {
+            NuncleObserver.Query query = NuncleObserver.Query.parse(options);
+            return run(ctx, m -> NuncleObserver.observe(m, query));
+        } catch (IllegalArgumentException e) {
+            return reply(ctx, "Invalid observe options: " + e.getMessage());
+        }
+    }
+
+    private static int observeBinary(CommandContext<CommandSourceStack> ctx, String options) {
+        try {
+            NuncleObserver.Query query = NuncleObserver.Query.parse(options);
+            return run(ctx, m -> NuncleObserver.observeBinary(m, query));
+        } catch (IllegalArgumentException e) {
+            return reply(ctx, "Invalid observe options: " + e.getMessage());
+        }
+    }
+
+    private static int observeBinaryReset(CommandContext<CommandSourceStack> ctx) {
+        return run(ctx, m -> {
+            m.getObservationEncoder().reset();
+            return "Binary observe session reset";
+        });
     }
 
     private static int observeInventory(CommandContext<CommandSourceStack> ctx) {
-        return reply(ctx, NuncleObserver.observeInventory(mgr()));
+        return run(ctx, NuncleObserver::observeInventory);
     }
 
     private static int chat(CommandContext<CommandSourceStack> ctx) {
         String message = StringArgumentType.getString(ctx, "message");
-        return reply(ctx, mgr().chat(message));
+        return run(ctx, m -> m.chat(message));
     }
 
     private static int goTo(CommandContext<CommandSourceStack> ctx) {
         double x = DoubleArgumentType.getDouble(ctx, "x");
         double y = DoubleArgumentType.getDouble(ctx, "y");
         double z = DoubleArgumentType.getDouble(ctx, "z");
-        return reply(ctx, mgr().goTo(x, y, z));
+        return run(ctx, m -> m.goTo(x, y, z));
     }
 
     private static int follow(CommandContext<CommandSourceStack> ctx) {
         String player = StringArgumentType.getString(ctx, "player");
-        return reply(ctx, mgr().follow(player));
+        return run(ctx, m -> m.follow(player));
     }
 
     private static int wander(CommandContext<CommandSourceStack> ctx) {
-        return reply(ctx, mgr().wander());
+        return run(ctx, NunclePlayer::wander);
     }
 
     private static int stay(CommandContext<CommandSourceStack> ctx) {
-        return reply(ctx, mgr().stay());
+        return run(ctx, NunclePlayer::stay);
     }
 
     private static int lookAt(CommandContext<CommandSourceStack> ctx) {
         double x = DoubleArgumentType.getDouble(ctx, "x");
         double y = DoubleArgumentType.getDouble(ctx, "y");
         double z = DoubleArgumentType.getDouble(ctx, "z");
-        return reply(ctx, mgr().lookAt(x, y, z));
+        return run(ctx, m -> m.lookAt(x, y, z));
     }
 
-    private static int attack(CommandContext<CommandSourceStack> ctx) {
+    private static int attack(CommandContext<CommandSourceStack> ctx, double radius) {
         String entityType = StringArgumentType.getString(ctx, "entityType");
-        return reply(ctx, mgr().attack(entityType));
+        return run(ctx, m -> m.attack(entityType, radius));
     }
 
     private static int mine(CommandContext<CommandSourceStack> ctx) {
         int x = IntegerArgumentType.getInteger(ctx, "x");
         int y = IntegerArgumentType.getInteger(ctx, "y");
         int z = IntegerArgumentType.getInteger(ctx, "z");
-        return reply(ctx, mgr().mine(x, y, z));
+        return run(ctx, m -> m.mine(x, y, z));
+    }
+
+    private static int mineArea(CommandContext<CommandSourceStack> ctx, int blocksPerTick) {
+        BlockPos from = new BlockPos(IntegerArgumentType.getInteger(ctx, "x1"),
+            IntegerArgumentType.getInteger(ctx, "y1"), IntegerArgumentType.getInteger(ctx, "z1"));
+        BlockPos to = new BlockPos(IntegerArgumentType.getInteger(ctx, "x2"),
+            IntegerArgumentType.getInteger(ctx, "y2"), IntegerArgumentType.getInteger(ctx, "z2"));
+        return runDeferrable(ctx, m -> m.mineArea(from, to, blocksPerTick));
+    }
+
+    private static int mineVein(CommandContext<CommandSourceStack> ctx, int blocksPerTick) {
+        BlockPos origin = new BlockPos(IntegerArgumentType.getInteger(ctx, "x"),
+            IntegerArgumentType.getInteger(ctx, "y"), IntegerArgumentType.getInteger(ctx, "z"));
+        return runDeferrable(ctx, m -> m.mineVein(origin, blocksPerTick));
     }
 
     private static int placeBlock(CommandContext<CommandSourceStack> ctx) {
@@ -248,28 +503,56 @@ public class NuncleCommands {
         int y = IntegerArgumentType.getInteger(ctx, "y");
         int z = IntegerArgumentType.getInteger(ctx, "z");
         String blockName = StringArgumentType.getString(ctx, "blockName");
-        return reply(ctx, mgr().placeBlock(x, y, z, blockName));
+        return run(ctx, m -> m.placeBlock(x, y, z, blockName));
+    }
+
+    private static int build(CommandContext<CommandSourceStack> ctx, int blocksPerTick) {
+        String id = StringArgumentType.getString(ctx, "schematicId");
+        BlockPos origin = new BlockPos(IntegerArgumentType.getInteger(ctx, "x"),
+            IntegerArgumentType.getInteger(ctx, "y"), IntegerArgumentType.getInteger(ctx, "z"));
+        return runDeferrable(ctx, m -> m.build(id, origin, blocksPerTick));
+    }
+
+    private static int schematicUpload(CommandContext<CommandSourceStack> ctx) {
+        String id = StringArgumentType.getString(ctx, "id");
+        String data = StringArgumentType.getString(ctx, "data");
+        return run(ctx, m -> m.getSchematics().upload(id, data));
+    }
+
+    private static int schematicFinish(CommandContext<CommandSourceStack> ctx) {
+        String id = StringArgumentType.getString(ctx, "id");
+        return runDeferrable(ctx, m -> m.getSchematics().finish(id));
+    }
+
+    private static int schematicDelete(CommandContext<CommandSourceStack> ctx) {
+        String id = StringArgumentType.getString(ctx, "id");
+        return run(ctx, m -> m.getSchematics().delete(id));
+    }
+
+    private static int autoPickup(CommandContext<CommandSourceStack> ctx, double radius, String filters) {
+        List<String> names = Arrays.stream(filters.split("[,\\s]+")).filter(f -> !f.isEmpty()).toList();
+        return run(ctx, m -> m.autoPickup(radius, names));
     }
 
     private static int pickupAll(CommandContext<CommandSourceStack> ctx) {
-        return reply(ctx, mgr().pickup(null));
+        return run(ctx, m -> m.pickup(null));
     }
 
     private static int pickupFiltered(CommandContext<CommandSourceStack> ctx) {
         String filter = StringArgumentType.getString(ctx, "itemFilter");
-        return reply(ctx, mgr().pickup(filter));
+        return run(ctx, m -> m.pickup(filter));
     }
 
     private static int dropItem(CommandContext<CommandSourceStack> ctx) {
         String itemName = StringArgumentType.getString(ctx, "itemName");
-        return reply(ctx, mgr().dropItem(itemName));
+        return run(ctx, m -> m.dropItem(itemName));
     }
 
     private static int takeAll(CommandContext<CommandSourceStack> ctx) {
         int x = IntegerArgumentType.getInteger(ctx, "x");
         int y = IntegerArgumentType.getInteger(ctx, "y");
         int z = IntegerArgumentType.getInteger(ctx, "z");
-        return reply(ctx, mgr().takeFromContainer(x, y, z, null, 64));
+        return run(ctx, m -> m.takeFromContainer(x, y, z, null, 64));
     }
 
     private static int takeFiltered(CommandContext<CommandSourceStack> ctx) {
@@ -277,7 +560,7 @@ public class NuncleCommands {
         int y = IntegerArgumentType.getInteger(ctx, "y");
         int z = IntegerArgumentType.getInteger(ctx, "z");
         String filter = StringArgumentType.getString(ctx, "itemFilter");
-        return reply(ctx, mgr().takeFromContainer(x, y, z, filter, 64));
+        return run(ctx, m -> m.takeFromContainer(x, y, z, filter, 64));
     }
 
     private static int takeFilteredCount(CommandContext<CommandSourceStack> ctx) {
@@ -286,7 +569,7 @@ public class NuncleCommands {
         int z = IntegerArgumentType.getInteger(ctx, "z");
         String filter = StringArgumentType.getString(ctx, "itemFilter");
         int count = IntegerArgumentType.getInteger(ctx, "count");
-        return reply(ctx, mgr().takeFromContainer(x, y, z, filter, count));
+        return run(ctx, m -> m.takeFromContainer(x, y, z, filter, count));
     }
 
     private static int putDefault(CommandContext<CommandSourceStack> ctx) {
@@ -294,7 +577,7 @@ public class NuncleCommands {
         int y = IntegerArgumentType.getInteger(ctx, "y");
         int z = IntegerArgumentType.getInteger(ctx, "z");
         String itemName = StringArgumentType.getString(ctx, "itemName");
-        return reply(ctx, mgr().putInContainer(x, y, z, itemName, 64));
+        return run(ctx, m -> m.putInContainer(x, y, z, itemName, 64));
     }
 
     private static int putWithCount(CommandContext<CommandSourceStack> ctx) {
@@ -303,44 +586,99 @@ public class NuncleCommands {
         int z = IntegerArgumentType.getInteger(ctx, "z");
         String itemName = StringArgumentType.getString(ctx, "itemName");
         int count = IntegerArgumentType.getInteger(ctx, "count");
-        return reply(ctx, mgr().putInContainer(x, y, z, itemName, count));
+        return run(ctx, m -> m.putInContainer(x, y, z, itemName, count));
     }
 
     private static int boundarySet(CommandContext<CommandSourceStack> ctx) {
         double x = DoubleArgumentType.getDouble(ctx, "x");
         double z = DoubleArgumentType.getDouble(ctx, "z");
         double radius = DoubleArgumentType.getDouble(ctx, "radius");
-        return reply(ctx, mgr().setBoundary(x, z, radius));
+        return run(ctx, m -> m.setBoundary(x, z, radius));
     }
 
     private static int boundaryClear(CommandContext<CommandSourceStack> ctx) {
-        return reply(ctx, mgr().clearBoundary());
+        return run(ctx, NunclePlayer::clearBoundary);
     }
 
     private static int boundaryInfo(CommandContext<CommandSourceStack> ctx) {
-        return reply(ctx, mgr().getBoundaryInfo());
+        return run(ctx, NunclePlayer::getBoundaryInfo);
     }
 
     private static int thinkingStart(CommandContext<CommandSourceStack> ctx) {
-        return reply(ctx, mgr().setThinking(true));
+        return run(ctx, m -> m.setThinking(true));
     }
 
     private static int thinkingStop(CommandContext<CommandSourceStack> ctx) {
-        return reply(ctx, mgr().setThinking(false));
+        return run(ctx, m -> m.setThinking(false));
+    }
+
+    private static int forceLoad(CommandContext<CommandSourceStack> ctx) {
+        String name = StringArgumentType.getString(ctx, "level").toUpperCase(Locale.ROOT);
+        NuncleLoadShedder.Level level;
+        try {
+            level = NuncleLoadShedder.Level.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return reply(ctx, "Unknown load level " + name);
+        }
+        return run(ctx, m -> m.forceLoadLevel(level));
     }
 
     private static int craft(CommandContext<CommandSourceStack> ctx) {
         String itemName = StringArgumentType.getString(ctx, "itemName");
-        return reply(ctx, mgr().craft(itemName));
+        return runDeferrable(ctx, m -> m.craft(itemName));
+    }
+
+    private static int plan(CommandContext<CommandSourceStack> ctx, boolean append) {
+        String steps = StringArgumentType.getString(ctx, "steps");
+        try {
+            List<NuncleAction> actions = NuncleAction.parsePlan(steps);
+            return runDeferrable(ctx, true, m -> m.submitPlan(actions, append));
+        } catch (IllegalArgumentException e) {
+            return reply(ctx, "Invalid plan: " + e.getMessage());
+        }
+    }
+
+    private static int planClear(CommandContext<CommandSourceStack> ctx) {
+        return run(ctx, NunclePlayer::clearPlan);
+    }
+
+    private static int planStatus(CommandContext<CommandSourceStack> ctx) {
+        return run(ctx, NunclePlayer::getPlanInfo);
+    }
+
+    private static int triggerInfo(CommandContext<CommandSourceStack> ctx) {
+        return run(ctx, m -> m.getTriggers().info());
+    }
+
+    private static int triggerSet(CommandContext<CommandSourceStack> ctx) {
+        String name = StringArgumentType.getString(ctx, "name");
+        double value = DoubleArgumentType.getDouble(ctx, "value");
+        return run(ctx, m -> m.getTriggers().configure(name, value));
+    }
+
+    private static int chatFilterSet(CommandContext<CommandSourceStack> ctx) {
+        String name = StringArgumentType.getString(ctx, "name");
+        int value = IntegerArgumentType.getInteger(ctx, "value");
+        return run(ctx, m -> m.getChatFilter().configure(name, value));
+    }
+
+    private static int chatFilterIgnore(CommandContext<CommandSourceStack> ctx) {
+        String regex = StringArgumentType.getString(ctx, "regex");
+        return run(ctx, m -> m.getChatFilter().addPattern(regex));
+    }
+
+    private static int chatFilterUnignore(CommandContext<CommandSourceStack> ctx) {
+        String regex = StringArgumentType.getString(ctx, "regex");
+        return run(ctx, m -> m.getChatFilter().removePattern(regex));
     }
 
     private static int brainOn(CommandContext<CommandSourceStack> ctx) {
-        NuncleMod.LOGGER.info("[NUNCLE] BRAIN_ON");
+        NuncleEvents.emit("BRAIN_ON");
         return reply(ctx, "Brain toggle: ON — NuncleNelson will spawn and start thinking");
     }
 
     private static int brainOff(CommandContext<CommandSourceStack> ctx) {
-        NuncleMod.LOGGER.info("[NUNCLE] BRAIN_OFF");
+        NuncleEvents.emit("BRAIN_OFF");
         return reply(ctx, "Brain toggle: OFF — NuncleNelson will despawn and stop thinking");
     }
 
@@ -0,0 +1,134 @@
+package com.vulture.nuncle;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.MobCategory;
+import net.minecraft.world.entity.ai.attributes.DefaultAttributes;
+
+import java.util.Arrays;
+
+/**
+ * Per-EntityType classification table, indexed by registry id.
+ * Built once at server start so observe/attack can classify an entity
+ * with an array read instead of building registry keys and hashing names.
+ */
+public final class NuncleEntityTypes {
+
+    public static final int HOSTILE = 1;
+    public static final int LIVING = 1 << 1;
+    public static final int ITEM = 1 << 2;
+    public static final int PLAYER = 1 << 3;
+
+    /** Coarse grouping reported to the brain; the binary observe codec sends the ordinal */
+    public enum Category {
+        HOSTILE("hostile"),
+        ANIMAL("animal"),
+        PLAYER("player"),
+        ITEM("item"),
+        OTHER("other");
+
+        private final String label;
+
+        Category(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    /** The three columns of the table, always replaced together so readers never see a mixed pair */
+    private record Table(byte[] flags, String[] names, Category[] categories) {}
+
+    private static volatile Table table = new Table(new byte[0], new String[0], new Category[0]);
+
+    private NuncleEntityTypes() {}
+
+    /** Build the table from the (frozen) entity type registry. Covers modded types too. */
+    public static synchronized void init() {
+        int size = BuiltInRegistries.ENTITY_TYPE.size();
+        Table next = new Table(new byte[size], new String[size], new Category[size]);
+        for (EntityType<?> type : BuiltInRegistries.ENTITY_TYPE) {
+            int id = BuiltInRegistries.ENTITY_TYPE.getId(type);
+            if (id < 0 || id >= size) continue;
+            classify(type, id, next);
+        }
+        table = next;
+        NuncleMod.LOGGER.info("NuncleNelson classified {} entity types", size);
+    }
+
+    public static boolean isHostile(Entity e) {
+        return (flags(e.getType()) & HOSTILE) != 0;
+    }
+
+    public static boolean isLiving(Entity e) {
+        return (flags(e.getType()) & LIVING) != 0;
+    }
+
+    public static boolean isItem(Entity e) {
+        return (flags(e.getType()) & ITEM) != 0;
+    }
+
+    /** Registry path of the entity's type, e.g. "zombie" */
+    public static String name(Entity e) {
+        int id = BuiltInRegistries.ENTITY_TYPE.getId(e.getType());
+        return tableFor(e.getType(), id).names()[id];
+    }
+
+    public static Category category(Entity e) {
+        int id = BuiltInRegistries.ENTITY_TYPE.getId(e.getType());
+        return tableFor(e.getType(), id).categories()[id];
+    }
+
+    public static int flags(EntityType<?> type) {
+        int id = BuiltInRegistries.ENTITY_TYPE.getId(type);
+        return tableFor(type, id).flags()[id];
+    }
+
+    /** A table that has {@code id} classified; read it once and index that same table */
+    private static Table tableFor(EntityType<?> type, int id) {
+        Table t = table;
+        if (id >= 0 && id < t.names().length && t.names()[id] != null) return t;
+        return grow(type, id);
+    }
+
+    /**
+     * Slow path: a type we haven't seen (registry not yet frozen when init ran).
+     * Copies the table, classifies into the copy and publishes it in one write.
+     */
+    private static synchronized Table grow(EntityType<?> type, int id) {
+        if (id < 0) {
+            throw new IllegalStateException("Unregistered entity type " + type);
+        }
+        Table t = table;
+        if (id < t.names().length && t.names()[id] != null) return t; // another thread got here first
+        int size = Math.max(t.names().length, Math.max(id + 1, BuiltInRegistries.ENTITY_TYPE.size()));
+        Table next = new Table(Arrays.copyOf(t.flags(), size), Arrays.copyOf(t.names(), size),
+            Arrays.copyOf(t.categories(), size));
+        classify(type, id, next);
+        table = next;
+        return next;
+    }
+
+    private static void classify(EntityType<?> type, int id, Table into) {
+        int f = 0;
+        if (type.getCategory() == MobCategory.MONSTER) f |= HOSTILE;
+        // Every living entity type registers default attributes (Forge includes modded ones)
+        if (DefaultAttributes.hasSupplier(type)) f |= LIVING;
+        if (type == EntityType.ITEM) f |= ITEM;
+        if (type == EntityType.PLAYER) f |= PLAYER;
+
+        Category category;
+        if ((f & PLAYER) != 0) category = Category.PLAYER;
+        else if ((f & ITEM) != 0) category = Category.ITEM;
+        else if ((f & HOSTILE) != 0) category = Category.HOSTILE;
+        else if ((f & LIVING) != 0 && type.getCategory() != MobCategory.MISC) category = Category.ANIMAL;
+        else category = Category.OTHER;
+
+        into.flags()[id] = (byte) f;
+        into.names()[id] = EntityType.getKey(type).getPath();
+        into.categories()[id] = category;
+    }
+}
@@ -0,0 +1,100 @@
+package com.vulture.nuncle;
+
+import org.apache.logging.log4j.message.ParameterizedMessage;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The one place {@code [NUNCLE]} events are written. Each event is appended to
+ * the journal (which assigns its sequence number) and then logged as
+ * {@code [NUNCLE] #<seq> EVENT data}, so the bot can tail the log as before
+ * and, after a restart or a log rotation, ask for whatever it missed with
+ * {@code /nuncle journal since <seq>}. Without a journal (before the server
+ * starts, or after a write error) events are logged without a sequence.
+ *
+ * Opening the journal logs {@code JOURNAL <id>}, and replay replies end with
+ * the id too, so a consumer notices when the numbering started over.
+ */
+public final class NuncleEvents {
+    // Keep a replay reply inside one RCON packet (4096 bytes)
+    static final int REPLY_BYTES = 3500;
+
+    @Nullable private static NuncleJournal journal;
+
+    private NuncleEvents() {}
+
+    /** Log an event; {@code format} uses the logger's {} placeholders */
+    public static synchronized void emit(String event, String format, Object... args) {
+        String data = args.length == 0 ? format : ParameterizedMessage.format(format, args);
+        long seq = 0;
+        if (journal != null) {
+            try {
+                seq = journal.append(System.currentTimeMillis(), event, data);
+            } catch (IOException | RuntimeException e) {
+                NuncleMod.LOGGER.warn("Event journal write failed, continuing without it", e);
+                close();
+            }
+        }
+        String line = seq > 0 ? "[NUNCLE] #" + seq + " " + event : "[NUNCLE] " + event;
+        NuncleMod.LOGGER.info(data.isEmpty() ? line : line + " " + data);
+    }
+
+    public static void emit(String event) {
+        emit(event, "");
+    }
+
+    public static synchronized void open(Path dir) {
+        close();
+        try {
+            journal = new NuncleJournal(dir);
+            NuncleMod.LOGGER.info("Event journal at {} (next #{})", dir, journal.nextSeq());
+            emit("JOURNAL", "{}", journal.id());
+        } catch (IOException e) {
+            NuncleMod.LOGGER.warn("Failed to open event journal at {}", dir, e);
+        }
+    }
+
+    public static synchronized void close() {
+        if (journal == null) return;
+        try {
+            journal.close();
+        } catch (IOException e) {
+            NuncleMod.LOGGER.warn("Failed to close event journal", e);
+        }
+        journal = null;
+    }
+
+    /**
+     * Events after {@code seq}, one per line as "seq millis EVENT data", capped to
+     * fit a reply and ending in "MORE &lt;last seq&gt; &lt;id&gt;" or "END &lt;head seq&gt; &lt;id&gt;"
+     */
+    public static synchronized String since(long seq) {
+        if (journal == null) return "Event journal is not open";
+        List<NuncleJournal.Record> records;
+        try {
+            records = journal.since(seq, 200);
+        } catch (IOException e) {
+            return "Failed to read event journal: " + e.getMessage();
+        }
+        StringBuilder sb = new StringBuilder();
+        long last = seq;
+        for (NuncleJournal.Record r : records) {
+            String line = r.seq() + " " + r.time() + " " + r.event() + (r.data().isEmpty() ? "" : " " + r.data());
+            if (sb.length() + line.length() + 1 > REPLY_BYTES && sb.length() > 0) break;
+            sb.append(line).append('\n');
+            last = r.seq();
+        }
+        // END carries the journal's head, so a consumer ahead of it knows the journal started over
+        long head = journal.nextSeq() - 1;
+        return sb.append(last < head ? "MORE " + last : "END " + head).append(' ').append(journal.id()).toString();
+    }
+
+    public static synchronized String info() {
+        if (journal == null) return "Event journal is not open";
+        return "Event journal: next #" + journal.nextSeq() + ", " + journal.segmentCount() + " segment(s), " +
+            (journal.sizeOnDisk() >> 20) + " MiB";
+    }
+}
@@ -0,0 +1,127 @@
+package com.vulture.nuncle;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.world.Container;
+import net.minecraft.world.ContainerListener;
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * Item → (total count, first slot) index over the NPC's inventory. Rebuilt
+ * lazily after the container reports a change, so lookups during a build or
+ * transfer don't rescan every slot. Code that mutates stacks in place must
+ * call {@link Container#setChanged()} so the index notices.
+ */
+public class NuncleInventoryIndex implements ContainerListener {
+    private final SimpleContainer container;
+    private final Object2IntOpenHashMap<Item> totals = new Object2IntOpenHashMap<>();
+    private final Object2IntOpenHashMap<Item> firstSlot = new Object2IntOpenHashMap<>();
+    private int emptySlots;
+    private boolean dirty = true;
+
+    public NuncleInventoryIndex(SimpleContainer container) {
+        this.container = container;
+        this.firstSlot.defaultReturnValue(-1);
+        container.addListener(this);
+    }
+
+    @Override
+    public void containerChanged(Container changed) {
+        dirty = true;
+    }
+
+    public int count(Item item) {
+        refresh();
+        return totals.getInt(item);
+    }
+
+    /** First slot holding this item, or -1 */
+    public int findSlot(Item item) {
+        refresh();
+        return firstSlot.getInt(item);
+    }
+
+    /** Remove up to n of an item; returns how many were removed */
+    public int consume(Item item, int n) {
+        int removed = 0;
+        int slot = findSlot(item);
+        for (int i = Math.max(slot, 0); slot >= 0 && i < container.getContainerSize() && removed < n; i++) {
+            ItemStack stack = container.getItem(i);
+            if (stack.isEmpty() || stack.getItem() != item) continue;
+            int take = Math.min(n - removed, stack.getCount());
+            stack.shrink(take);
+            removed += take;
+        }
+        if (removed > 0) container.setChanged();
+        return removed;
+    }
+
+    /**
+     * Whether at least one of this stack would fit. Answered from the index
+     * when there's an empty slot or no stack of the item at all, so a full
+     * inventory costs nothing per rejected item.
+     */
+    public boolean hasSpaceFor(ItemStack stack) {
+        refresh();
+        if (emptySlots > 0) return true;
+        int slot = firstSlot.getInt(stack.getItem());
+        if (slot < 0) return false;
+        for (int i = slot; i < container.getContainerSize(); i++) {
+            ItemStack existing = container.getItem(i);
+            if (existing.getCount() < existing.getMaxStackSize() && ItemStack.isSameItemSameTags(existing, stack)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Move as much of the stack as fits into the container, topping up
+     * matching stacks first. The source stack is shrunk in place; only a
+     * stack landing in an empty slot is split off. Returns how many moved.
+     */
+    public int insert(ItemStack stack) {
+        if (stack.isEmpty() || !hasSpaceFor(stack)) return 0;
+        int start = stack.getCount();
+        int slot = firstSlot.getInt(stack.getItem());
+        for (int i = Math.max(slot, 0); slot >= 0 && i < container.getContainerSize() && !stack.isEmpty(); i++) {
+            ItemStack existing = container.getItem(i);
+            if (existing.isEmpty() || !ItemStack.isSameItemSameTags(existing, stack)) continue;
+            int move = Math.min(stack.getCount(), existing.getMaxStackSize() - existing.getCount());
+            if (move <= 0) continue;
+            existing.grow(move);
+            stack.shrink(move);
+        }
+        for (int i = 0; i < container.getContainerSize() && !stack.isEmpty(); i++) {
+            if (!container.getItem(i).isEmpty()) continue;
+            container.setItem(i, stack.split(Math.min(stack.getCount(), stack.getMaxStackSize())));
+        }
+        int moved = start - stack.getCount();
+        if (moved > 0) container.setChanged();
+        return moved;
+    }
+
+    public Object2IntMap<Item> totals() {
+        refresh();
+        return totals;
+    }
+
+    private void refresh() {
+        if (!dirty) return;
+        totals.clear();
+        firstSlot.clear();
+        emptySlots = 0;
+        for (int i = 0; i < container.getContainerSize(); i++) {
+            ItemStack stack = container.getItem(i);
+            if (stack.isEmpty()) {
+                emptySlots++;
+                continue;
+            }
+            totals.addTo(stack.getItem(), stack.getCount());
+            firstSlot.putIfAbsent(stack.getItem(), i);
+        }
+        dirty = false;
+    }
+}
@@ -0,0 +1,200 @@
+package com.vulture.nuncle;
+
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.level.storage.LevelResource;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Flight Recorder events for the mod's work, under the "Nuncle" category, so
+ * a server recording shows which observe, command, path request or tick phase
+ * an MSPT spike came from. Every event is disabled by default, so a plain
+ * server recording never pays for them; the nuncle.jfc profile shipped in
+ * the mod jar turns them on, either through /nuncle jfr start (default
+ * profile plus ours) or by extracting it and passing it to the JVM:
+ * {@code -XX:StartFlightRecording=settings=default,settings=nuncle.jfc}.
+ */
+public final class NuncleJfr {
+    private static final String PROFILE = "/nuncle.jfc";
+
+    @Nullable private static Recording recording;
+
+    private NuncleJfr() {}
+
+    @Name("nuncle.Observe")
+    @Label("Observe")
+    @Category("Nuncle")
+    @Description("One observe or observe-binary call")
+    @StackTrace(false)
+    @Enabled(false)
+    public static class Observe extends Event {
+        @Label("NPC Id") int npcId;
+        @Label("Fields") @Description("Bitmask of requested sections") int fields;
+        @Label("Entity Radius") int entityRadius;
+        @Label("Item Radius") int itemRadius;
+        @Label("Block Radius") int blockRadius;
+        @Label("Entities Scanned") int entitiesScanned;
+        @Label("Blocks Scanned") int blocksScanned;
+        @Label("Result Size") @Description("Characters in the reply") int resultSize;
+        @Label("Cached") @Description("Whole reply reused from earlier this tick") boolean cached;
+
+        void finish(Villager npc, NuncleObserver.Query query, int entitiesScanned, int blocksScanned,
+                    int resultSize, boolean cached) {
+            end();
+            if (!shouldCommit()) return;
+            this.npcId = npc.getId();
+            this.fields = query.fields();
+            this.entityRadius = query.entityRadius();
+            this.itemRadius = query.itemRadius();
+            this.blockRadius = query.blockRadius();
+            this.entitiesScanned = entitiesScanned;
+            this.blocksScanned = blocksScanned;
+            this.resultSize = resultSize;
+            this.cached = cached;
+            commit();
+        }
+    }
+
+    @Name("nuncle.Command")
+    @Label("Command")
+    @Category("Nuncle")
+    @Description("One /nuncle command applied to the NPC")
+    @StackTrace(false)
+    @Enabled(false)
+    public static class Command extends Event {
+        @Label("Command") String command;
+        @Label("NPC Id") int npcId;
+        @Label("Result Size") @Description("Characters in the reply") int resultSize;
+
+        void finish(String command, NunclePlayer mgr, @Nullable String reply) {
+            end();
+            if (!shouldCommit()) return;
+            Villager npc = mgr.getNpc();
+            this.command = command;
+            this.npcId = npc != null ? npc.getId() : -1;
+            this.resultSize = reply != null ? reply.length() : 0;
+            commit();
+        }
+    }
+
+    @Name("nuncle.Navigation")
+    @Label("Navigation Request")
+    @Category("Nuncle")
+    @Description("A path request issued for the NPC")
+    @StackTrace(false)
+    @Enabled(false)
+    public static class Navigation extends Event {
+        @Label("NPC Id") int npcId;
+        @Label("Target X") double targetX;
+        @Label("Target Y") double targetY;
+        @Label("Target Z") double targetZ;
+        @Label("Distance") double distance;
+        @Label("Path Found") boolean pathFound;
+        @Label("Path Nodes") int pathNodes;
+
+        void finish(Villager npc, double x, double y, double z, boolean found) {
+            end();
+            if (!shouldCommit()) return;
+            this.npcId = npc.getId();
+            this.targetX = x;
+            this.targetY = y;
+            this.targetZ = z;
+            this.distance = Math.sqrt(npc.distanceToSqr(x, y, z));
+            this.pathFound = found;
+            var path = npc.getNavigation().getPath();
+            this.pathNodes = found && path != null ? path.getNodeCount() : 0;
+            commit();
+        }
+    }
+
+    @Name("nuncle.TickPhase")
+    @Label("NPC Tick Phase")
+    @Category("Nuncle")
+    @Description("One phase of NunclePlayer.tick")
+    @StackTrace(false)
+    @Enabled(false)
+    @Threshold("1 ms") // a dozen per tick; only slow phases unless a profile asks for all
+    public static class TickPhase extends Event {
+        @Label("NPC Id") int npcId;
+        @Label("Phase") String phase;
+
+        static TickPhase begin(int npcId, String phase) {
+            TickPhase event = new TickPhase();
+            event.npcId = npcId;
+            event.phase = phase;
+            event.begin();
+            return event;
+        }
+
+        /** Close this phase and open the next */
+        TickPhase next(String phase) {
+            commit();
+            return begin(npcId, phase);
+        }
+    }
+
+    // --- Recording from inside the server ---
+
+    /** Start a recording with the default profile plus nuncle.jfc */
+    public static synchronized String start() {
+        if (recording != null) return "Already recording (" + recording.getName() + ")";
+        Map<String, String> settings;
+        try (InputStream in = NuncleJfr.class.getResourceAsStream(PROFILE)) {
+            if (in == null) return "nuncle.jfc is missing from the mod jar";
+            settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+            settings.putAll(Configuration.create(new InputStreamReader(in, StandardCharsets.UTF_8)).getSettings());
+        } catch (IOException | ParseException e) {
+            return "Failed to load JFR settings: " + e.getMessage();
+        }
+        recording = new Recording(settings);
+        recording.setName("nuncle");
+        recording.setToDisk(true);
+        recording.start();
+        return "JFR recording started";
+    }
+
+    /** Stop the recording and write it to world/nuncle/jfr */
+    public static synchronized String stop(MinecraftServer server) {
+        if (recording == null) return "Not recording";
+        Path dir = server.getWorldPath(LevelResource.ROOT).resolve("nuncle").resolve("jfr");
+        Path file = dir.resolve("nuncle-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".jfr");
+        try {
+            Files.createDirectories(dir);
+            recording.stop();
+            recording.dump(file);
+        } catch (IOException e) {
+            return "Failed to write recording: " + e.getMessage();
+        } finally {
+            recording.close();
+            recording = null;
+        }
+        return "JFR recording written to " + file;
+    }
+
+    public static synchronized String status() {
+        return recording == null ? "Not recording" :
+            "Recording " + recording.getName() + " since " + recording.getStartTime() + ", " + recording.getSize() / 1024 + " KiB";
+    }
+}
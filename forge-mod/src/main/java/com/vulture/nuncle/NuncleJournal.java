@@ -0,0 +1,224 @@
+package com.vulture.nuncle;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Append-only event journal in fixed-size memory-mapped segments. Every event
+ * gets the next sequence number, so a consumer that remembers the last one it
+ * saw can ask for everything after it, across log rotations and restarts.
+ *
+ * Segment files are named after the first sequence they hold. Record layout:
+ * <pre>
+ *   u32 length (of what follows; 0 = end of segment)
+ *   u64 sequence
+ *   u64 epoch millis
+ *   u8  event name length, event name (ASCII)
+ *   data (UTF-8, rest of the record)
+ * </pre>
+ * The length is written last, so a crash mid-record leaves a 0 there and the
+ * half-written record is ignored on reopen. When the segments on disk exceed
+ * the size cap, the oldest are deleted.
+ *
+ * A journal started from nothing (new world, or its directory wiped) numbers
+ * from 1 again, so it also gets a new id, kept next to the segments; a
+ * consumer whose cursor belongs to another id has to start over.
+ *
+ * Pages are never forced from {@link #append}, which runs on the server
+ * thread: a dead server process loses nothing that was written to the
+ * mapping, only an OS crash can, and the page cache writes back on its own.
+ */
+public class NuncleJournal implements AutoCloseable {
+    public static final int DEFAULT_SEGMENT_BYTES = 4 << 20;
+    public static final long DEFAULT_MAX_BYTES = 64L << 20;
+    private static final int HEADER = 4 + 8 + 8 + 1;
+    private static final String SUFFIX = ".seg";
+    private static final String ID_FILE = "journal.id";
+
+    /** One journal entry as read back */
+    public record Record(long seq, long time, String event, String data) {}
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final long maxBytes;
+    // First sequence → segment file, oldest first
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private FileChannel channel;
+    private MappedByteBuffer active;
+    private long nextSeq = 1;
+    private final long id;
+
+    public NuncleJournal(Path dir) throws IOException {
+        this(dir, DEFAULT_SEGMENT_BYTES, DEFAULT_MAX_BYTES);
+    }
+
+    public NuncleJournal(Path dir, int segmentBytes, long maxBytes) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).forEach(p -> {
+                String name = p.getFileName().toString();
+                try {
+                    segments.put(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())), p);
+                } catch (NumberFormatException ignored) {
+                    // not ours
+                }
+            });
+        }
+        id = segments.isEmpty() ? newId() : readId();
+        if (segments.isEmpty()) {
+            openSegment(1);
+        } else {
+            // Reopen the newest segment and find where writing stopped
+            long first = segments.lastKey();
+            mapSegment(segments.get(first));
+            nextSeq = first;
+            while (active.remaining() >= 4) {
+                int length = active.getInt(active.position());
+                if (length <= 0 || length > active.remaining() - 4) break;
+                nextSeq = active.getLong(active.position() + 4) + 1;
+                active.position(active.position() + 4 + length);
+            }
+        }
+    }
+
+    /** Identifies this run of sequence numbers; changes whenever they start over from 1 */
+    public long id() {
+        return id;
+    }
+
+    /** Next sequence number to be assigned */
+    public synchronized long nextSeq() {
+        return nextSeq;
+    }
+
+    /** Append one event; returns its sequence number */
+    public synchronized long append(long time, String event, String data) throws IOException {
+        byte[] name = event.getBytes(StandardCharsets.US_ASCII);
+        byte[] body = data.getBytes(StandardCharsets.UTF_8);
+        if (name.length > 255) throw new IllegalArgumentException("event name too long: " + event);
+        int length = HEADER - 4 + name.length + body.length;
+        if (4 + length > segmentBytes - 4) {
+            // Larger than a whole segment would ever hold; keep the head of the data
+            int room = segmentBytes - 8 - (HEADER - 4) - name.length;
+            body = java.util.Arrays.copyOf(body, Math.max(0, room));
+            length = HEADER - 4 + name.length + body.length;
+        }
+        // Leave room for the 0 terminator so readers always find an end marker
+        if (active.remaining() < 4 + length + 4) {
+            openSegment(nextSeq);
+            trim();
+        }
+
+        long seq = nextSeq++;
+        int start = active.position();
+        active.position(start + 4);
+        active.putLong(seq);
+        active.putLong(time);
+        active.put((byte) name.length);
+        active.put(name);
+        active.put(body);
+        active.putInt(start, length); // commit
+        return seq;
+    }
+
+    /** Records with a sequence greater than {@code after}, oldest first, up to {@code max} */
+    public synchronized List<Record> since(long after, int max) throws IOException {
+        List<Record> out = new ArrayList<>();
+        Long from = segments.floorKey(after + 1);
+        if (from == null) from = segments.firstKey(); // older than anything kept: start at the oldest
+        for (Path segment : segments.tailMap(from, true).values()) {
+            ByteBuffer buf = segment.equals(segments.lastEntry().getValue()) ? active.duplicate().flip() : read(segment);
+            buf.position(0);
+            while (buf.remaining() >= 4 && out.size() < max) {
+                int length = buf.getInt();
+                if (length <= 0 || length > buf.remaining()) break;
+                int end = buf.position() + length;
+                long seq = buf.getLong();
+                if (seq <= after) {
+                    buf.position(end);
+                    continue;
+                }
+                long time = buf.getLong();
+                byte[] name = new byte[buf.get() & 0xFF];
+                buf.get(name);
+                byte[] body = new byte[end - buf.position()];
+                buf.get(body);
+                out.add(new Record(seq, time, new String(name, StandardCharsets.US_ASCII),
+                    new String(body, StandardCharsets.UTF_8)));
+            }
+            if (out.size() >= max) break;
+        }
+        return out;
+    }
+
+    public synchronized long sizeOnDisk() {
+        return (long) segments.size() * segmentBytes;
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        active.force();
+        channel.close();
+    }
+
+    /** Start time in millis, bumped past the previous id if the clock hasn't moved on */
+    private long newId() throws IOException {
+        long fresh = Math.max(System.currentTimeMillis(), storedId() + 1);
+        Files.writeString(dir.resolve(ID_FILE), Long.toString(fresh));
+        return fresh;
+    }
+
+    private long readId() throws IOException {
+        long stored = storedId();
+        return stored > 0 ? stored : newId(); // none yet: segments written before ids existed
+    }
+
+    private long storedId() throws IOException {
+        Path file = dir.resolve(ID_FILE);
+        if (!Files.exists(file)) return 0;
+        try {
+            return Long.parseLong(Files.readString(file).trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private void openSegment(long firstSeq) throws IOException {
+        Path path = dir.resolve(String.format("%020d%s", firstSeq, SUFFIX));
+        segments.put(firstSeq, path);
+        mapSegment(path);
+    }
+
+    private void mapSegment(Path path) throws IOException {
+        if (channel != null) channel.close();
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        active = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+    }
+
+    private void trim() throws IOException {
+        while (segments.size() > 1 && sizeOnDisk() > maxBytes) {
+            Files.deleteIfExists(segments.pollFirstEntry().getValue());
+        }
+    }
+
+    private static ByteBuffer read(Path segment) throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(segment));
+    }
+}
@@ -0,0 +1,130 @@
+package com.vulture.nuncle;
+
+import javax.annotation.Nullable;
+import java.util.Locale;
+
+/**
+ * Steps the mod's own work down while the server is struggling. Every
+ * second it averages the server's last 100 tick times (MinecraftServer's
+ * tickTimes ring, 5 s at 20 TPS) and picks a level; each level caps observe
+ * radii, spaces out repathing and particles, and from HIGH on holds back
+ * heavy commands (mining, building, crafting, plans) so only a few start per
+ * tick.
+ *
+ * Load goes up as soon as the average crosses a threshold; it comes back
+ * down one level at a time, and only once the average has stayed
+ * {@link #HYSTERESIS_MS} under that level's threshold for a full window, so
+ * a single quiet second doesn't flap it back to full work. Server thread only.
+ */
+public class NuncleLoadShedder {
+    private static final int EVALUATE_INTERVAL_TICKS = 20;
+    private static final int SETTLE_TICKS = 100;
+    static final double HYSTERESIS_MS = 5.0;
+
+    public enum Level {
+        //       enter ms  entity item block  follow combat particles commands/tick
+        NORMAL(       0,   64, 32, 16,   1,  5, 10, Integer.MAX_VALUE),
+        ELEVATED(    40,   24,  8,  6,   5, 10, 20, Integer.MAX_VALUE),
+        HIGH(        50,   16,  6,  4,  10, 20, 40, 2),
+        CRITICAL(    65,   12,  4,  2,  20, 20,  0, 1);
+
+        /** Average MSPT at which this level starts */
+        public final double enterMs;
+        public final int maxEntityRadius;
+        public final int maxItemRadius;
+        public final int maxBlockRadius;
+        /** Ticks between path requests while following a player */
+        public final int followRepathTicks;
+        /** Ticks between path requests toward a combat target */
+        public final int combatRepathTicks;
+        /** Ticks between thinking particle bursts, 0 for none */
+        public final int particleIntervalTicks;
+        /** Deferred commands started per tick */
+        public final int commandBudget;
+
+        Level(double enterMs, int maxEntityRadius, int maxItemRadius, int maxBlockRadius,
+              int followRepathTicks, int combatRepathTicks, int particleIntervalTicks, int commandBudget) {
+            this.enterMs = enterMs;
+            this.maxEntityRadius = maxEntityRadius;
+            this.maxItemRadius = maxItemRadius;
+            this.maxBlockRadius = maxBlockRadius;
+            this.followRepathTicks = followRepathTicks;
+            this.combatRepathTicks = combatRepathTicks;
+            this.particleIntervalTicks = particleIntervalTicks;
+            this.commandBudget = commandBudget;
+        }
+
+        public boolean defersCommands() {
+            return commandBudget != Integer.MAX_VALUE;
+        }
+
+        /** Highest level whose threshold {@code ms} has reached */
+        static Level forMspt(double ms) {
+            Level[] levels = values();
+            for (int i = levels.length - 1; i > 0; i--) {
+                if (ms >= levels[i].enterMs) return levels[i];
+            }
+            return NORMAL;
+        }
+    }
+
+    private Level level = Level.NORMAL;
+    @Nullable private Level forced;
+    private double mspt;
+    private int lastChangeTick;
+    private int changes;
+
+    /**
+     * Once per server tick.
+     * @param tickTimes the server's ring of recent tick durations in nanoseconds
+     */
+    public void tick(long[] tickTimes, int tickCount) {
+        if (tickCount % EVALUATE_INTERVAL_TICKS != 0) return;
+        long total = 0;
+        for (long t : tickTimes) total += t;
+        mspt = tickTimes.length == 0 ? 0 : total / (double) tickTimes.length / 1_000_000.0;
+        if (forced != null) return;
+
+        Level target = Level.forMspt(mspt);
+        if (target.ordinal() > level.ordinal()) {
+            change(target, tickCount);
+        } else if (target.ordinal() < level.ordinal() && tickCount - lastChangeTick >= SETTLE_TICKS
+            && mspt < level.enterMs - HYSTERESIS_MS) {
+            change(Level.values()[level.ordinal() - 1], tickCount);
+        }
+    }
+
+    private void change(Level next, int tickCount) {
+        NuncleEvents.emit("LOAD_LEVEL", "{} mspt={}", next, String.format(Locale.ROOT, "%.1f", mspt));
+        level = next;
+        lastChangeTick = tickCount;
+        changes++;
+    }
+
+    public Level level() {
+        return level;
+    }
+
+    /** Rolling average of the server's tick time, as of the last evaluation */
+    public double mspt() {
+        return mspt;
+    }
+
+    /** Pin a level (null to go back to following MSPT), e.g. to see how the brain copes */
+    public String force(@Nullable Level pinned, int tickCount) {
+        forced = pinned;
+        if (pinned == null) return "Load level follows MSPT again (now " + level + ")";
+        if (pinned != level) change(pinned, tickCount);
+        return "Load level pinned at " + pinned;
+    }
+
+    public String info() {
+        return "Load: " + level + (forced != null ? " (pinned)" : "") +
+            String.format(Locale.ROOT, ", %.1f ms/tick average", mspt) +
+            ", radii entity " + level.maxEntityRadius + " item " + level.maxItemRadius + " block " + level.maxBlockRadius +
+            ", follow repath every " + level.followRepathTicks + " tick(s)" +
+            (level.particleIntervalTicks == 0 ? ", no particles" : "") +
+            (level.defersCommands() ? ", heavy commands " + level.commandBudget + "/tick" : "") +
+            ", " + changes + " change(s)";
+    }
+}
@@ -0,0 +1,208 @@
+package com.vulture.nuncle;
+
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.LiquidBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.Vec3;
+
+import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Resumable multi-block mining job run from the action queue. Breaks up to
+ * {@code blocksPerTick} blocks per tick once they are in reach, walking to the
+ * next block otherwise. Area jobs sweep a box top-down (so sand and gravel
+ * don't bury the NPC); vein jobs flood-fill over one block type as it breaks.
+ */
+public class NuncleMiningJob extends NuncleAction {
+    public static final int DEFAULT_BLOCKS_PER_TICK = 2;
+    private static final int MAX_BLOCKS_PER_TICK = 16;
+    private static final int MAX_AREA_BLOCKS = 4096;
+    private static final int MAX_VEIN_BLOCKS = 256;
+    private static final int MAX_VEIN_SPREAD = 16;
+    private static final int PROGRESS_INTERVAL = 16;
+
+    private final int blocksPerTick;
+
+    // Area sweep cursor (unused for veins)
+    private final int minX, minY, minZ, maxX, maxY, maxZ;
+    private int cx, cy, cz;
+
+    // Vein flood-fill state; the block type is read from the origin when the job starts
+    @Nullable private final BlockPos origin;
+    @Nullable private Block veinBlock;
+    private final LongArrayFIFOQueue frontier = new LongArrayFIFOQueue();
+    private final LongOpenHashSet visited = new LongOpenHashSet();
+
+    private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+    private long next;
+    private boolean hasNext;
+    private int mined;
+    private int skipped;
+    private final Map<String, Integer> collected = new LinkedHashMap<>();
+
+    private NuncleMiningJob(String description, int blocksPerTick, BlockPos a, BlockPos b,
+                            @Nullable BlockPos origin) {
+        super(description);
+        this.blocksPerTick = Math.max(1, Math.min(MAX_BLOCKS_PER_TICK, blocksPerTick));
+        this.minX = Math.min(a.getX(), b.getX());
+        this.minY = Math.min(a.getY(), b.getY());
+        this.minZ = Math.min(a.getZ(), b.getZ());
+        this.maxX = Math.max(a.getX(), b.getX());
+        this.maxY = Math.max(a.getY(), b.getY());
+        this.maxZ = Math.max(a.getZ(), b.getZ());
+        this.cx = minX;
+        this.cy = maxY;
+        this.cz = minZ;
+        this.origin = origin;
+        if (origin != null) {
+            visited.add(origin.asLong());
+            frontier.enqueue(origin.asLong());
+        }
+    }
+
+    /** Clear every block in the box between two corners */
+    public static NuncleMiningJob area(BlockPos a, BlockPos b, int blocksPerTick) {
+        long volume = (long) (Math.abs(a.getX() - b.getX()) + 1)
+            * (Math.abs(a.getY() - b.getY()) + 1)
+            * (Math.abs(a.getZ() - b.getZ()) + 1);
+        if (volume > MAX_AREA_BLOCKS) {
+            throw new IllegalArgumentException("Area too large (" + volume + " blocks, max " + MAX_AREA_BLOCKS + ")");
+        }
+        String description = "mine area " + a.toShortString() + " to " + b.toShortString();
+        return new NuncleMiningJob(description, blocksPerTick, a, b, null);
+    }
+
+    /** Break the connected vein (ore, log...) of whatever block sits at origin */
+    public static NuncleMiningJob vein(BlockPos origin, int blocksPerTick) {
+        BlockPos min = origin.offset(-MAX_VEIN_SPREAD, -MAX_VEIN_SPREAD, -MAX_VEIN_SPREAD);
+        BlockPos max = origin.offset(MAX_VEIN_SPREAD, MAX_VEIN_SPREAD, MAX_VEIN_SPREAD);
+        String description = "mine vein " + origin.toShortString();
+        return new NuncleMiningJob(description, blocksPerTick, min, max, origin);
+    }
+
+    @Override
+    @Nullable
+    public String precondition(NunclePlayer mgr) {
+        if (origin == null) return null;
+        if (!mgr.isInsideBoundary(origin.getX(), origin.getZ())) return "Cannot mine outside boundary";
+        BlockState state = mgr.getNpc().level().getBlockState(origin);
+        if (state.isAir()) return "No block at " + origin.toShortString();
+        veinBlock = state.getBlock();
+        return null;
+    }
+
+    @Override
+    @Nullable
+    public Vec3 target(NunclePlayer mgr) {
+        if (!advance(mgr)) return null;
+        return Vec3.atCenterOf(BlockPos.of(next));
+    }
+
+    @Override
+    public boolean onUnreachable(NunclePlayer mgr) {
+        skipped++;
+        hasNext = false;
+        return true;
+    }
+
+    @Override
+    public Status execute(NunclePlayer mgr) {
+        Villager npc = mgr.getNpc();
+        for (int i = 0; i < blocksPerTick; i++) {
+            if (!advance(mgr)) {
+                setMessage(summary());
+                return Status.DONE;
+            }
+            BlockPos pos = BlockPos.of(next);
+            if (npc.position().distanceTo(Vec3.atCenterOf(pos)) > reach()) {
+                return Status.RUNNING; // walk to it next tick
+            }
+            hasNext = false;
+            if (mgr.harvestAt(pos, collected)) {
+                mined++;
+                if (veinBlock != null) spread(npc.level(), mgr, pos);
+                if (mined % PROGRESS_INTERVAL == 0) {
+                    NuncleEvents.emit("JOB_PROGRESS", "{} | mined={} skipped={}", describe(), mined, skipped);
+                }
+            } else {
+                skipped++;
+            }
+        }
+        return Status.RUNNING;
+    }
+
+    /** Find the next block worth breaking, or false when the job is finished */
+    private boolean advance(NunclePlayer mgr) {
+        if (hasNext) return true;
+        Level level = mgr.getNpc().level();
+        if (origin != null) {
+            while (!frontier.isEmpty()) {
+                long pos = frontier.dequeueLong();
+                cursor.set(pos);
+                if (level.getBlockState(cursor).is(veinBlock)) {
+                    next = pos;
+                    return hasNext = true;
+                }
+            }
+            return false;
+        }
+        while (cy >= minY) {
+            cursor.set(cx, cy, cz);
+            boolean found = isMineable(level, mgr, cursor);
+            if (found) next = cursor.asLong();
+            // Step the cursor: z, then x, then down a layer
+            if (++cz > maxZ) {
+                cz = minZ;
+                if (++cx > maxX) {
+                    cx = minX;
+                    cy--;
+                }
+            }
+            if (found) return hasNext = true;
+        }
+        return false;
+    }
+
+    private boolean isMineable(Level level, NunclePlayer mgr, BlockPos pos) {
+        if (!mgr.isInsideBoundary(pos.getX(), pos.getZ())) return false;
+        BlockState state = level.getBlockState(pos);
+        if (state.isAir() || state.getBlock() instanceof LiquidBlock) return false;
+        return state.getDestroySpeed(level, pos) >= 0; // bedrock, barriers...
+    }
+
+    private void spread(Level level, NunclePlayer mgr, BlockPos from) {
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    if (visited.size() >= MAX_VEIN_BLOCKS) return;
+                    cursor.setWithOffset(from, dx, dy, dz);
+                    if (cursor.getX() < minX || cursor.getX() > maxX
+                        || cursor.getY() < minY || cursor.getY() > maxY
+                        || cursor.getZ() < minZ || cursor.getZ() > maxZ) continue;
+                    if (!mgr.isInsideBoundary(cursor.getX(), cursor.getZ())) continue;
+                    long key = cursor.asLong();
+                    if (visited.contains(key)) continue;
+                    if (!level.getBlockState(cursor).is(veinBlock)) continue;
+                    visited.add(key);
+                    frontier.enqueue(key);
+                }
+            }
+        }
+    }
+
+    private String summary() {
+        String loot = collected.isEmpty() ? "nothing" : collected.entrySet().stream()
+            .map(e -> e.getValue() + "x " + e.getKey())
+            .collect(Collectors.joining(", "));
+        return "Mined " + mined + " block(s)" + (skipped > 0 ? " (" + skipped + " skipped)" : "") +
+            ", collected: " + loot;
+    }
+}
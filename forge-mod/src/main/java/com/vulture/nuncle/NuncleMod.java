@@ -1,16 +1,24 @@
 package com.vulture.nuncle;
 
 import net.minecraft.ChatFormatting;
+import net.minecraft.core.SectionPos;
 import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.item.ItemEntity;
 import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.level.storage.LevelResource;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.CommandEvent;
 import net.minecraftforge.event.RegisterCommandsEvent;
 import net.minecraftforge.event.ServerChatEvent;
 import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.EntityEvent;
+import net.minecraftforge.event.entity.EntityJoinLevelEvent;
+import net.minecraftforge.event.entity.EntityLeaveLevelEvent;
 import net.minecraftforge.event.entity.living.LivingDamageEvent;
 import net.minecraftforge.event.entity.living.LivingDeathEvent;
+import net.minecraftforge.event.level.BlockEvent;
 import net.minecraftforge.event.server.ServerStartingEvent;
 import net.minecraftforge.event.server.ServerStoppingEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
@@ -28,6 +36,8 @@ public class NuncleMod {
     public static final double HEARING_RADIUS = 32.0;
 
     private static NunclePlayer npcManager;
+    private static NuncleTrace trace;
+    private static long lastTickNanos;
 
     public NuncleMod() {
         MinecraftForge.EVENT_BUS.register(this);
@@ -41,22 +51,75 @@ public class NuncleMod {
 
     @SubscribeEvent
     public void onServerStarting(ServerStartingEvent event) {
+        NuncleEntityTypes.init();
+        NuncleEvents.open(event.getServer().getWorldPath(LevelResource.ROOT).resolve("nuncle").resolve("journal"));
         npcManager = new NunclePlayer(event.getServer());
+        trace = new NuncleTrace(event.getServer());
         LOGGER.info("NuncleNelson mod initialized");
     }
 
     @SubscribeEvent
     public void onServerStopping(ServerStoppingEvent event) {
         if (npcManager != null) {
+            npcManager.drainMailbox(); // don't leave callers waiting on commands that will never run
             npcManager.despawn();
             npcManager = null;
         }
+        if (trace != null) {
+            trace.stop();
+            trace = null;
+        }
+        NuncleJfr.stop(event.getServer()); // keep an in-game recording rather than lose it
+        NuncleEvents.close();
     }
 
     @SubscribeEvent
     public void onServerTick(TickEvent.ServerTickEvent event) {
-        if (event.phase == TickEvent.Phase.END && npcManager != null) {
+        if (event.phase != TickEvent.Phase.END) return;
+        if (npcManager != null) {
+            long start = System.nanoTime();
             npcManager.tick();
+            lastTickNanos = System.nanoTime() - start;
+            if (trace.isRecording()) trace.onTick(npcManager, lastTickNanos);
+        }
+    }
+
+    @SubscribeEvent
+    public void onCommand(CommandEvent event) {
+        if (trace != null && trace.isRecording()) {
+            String input = event.getParseResults().getReader().getString();
+            trace.onCommand(input.startsWith("/") ? input.substring(1) : input);
+        }
+    }
+
+    @SubscribeEvent
+    public void onEntityJoin(EntityJoinLevelEvent event) {
+        if (npcManager == null || event.getLevel().isClientSide()) return;
+        npcManager.onEntitySectionChange(event.getLevel(), SectionPos.of(event.getEntity()).asLong());
+        if (event.getEntity() instanceof ItemEntity item) {
+            npcManager.onItemJoined(item);
+        }
+    }
+
+    @SubscribeEvent
+    public void onEntityLeave(EntityLeaveLevelEvent event) {
+        if (npcManager != null && !event.getLevel().isClientSide()) {
+            npcManager.onEntitySectionChange(event.getLevel(), SectionPos.of(event.getEntity()).asLong());
+        }
+    }
+
+    @SubscribeEvent
+    public void onEntitySection(EntityEvent.EnteringSection event) {
+        if (npcManager != null && !event.getEntity().level().isClientSide()) {
+            npcManager.onEntitySectionChange(event.getEntity().level(), event.getPackedOldPos());
+            npcManager.onEntitySectionChange(event.getEntity().level(), event.getPackedNewPos());
+        }
+    }
+
+    @SubscribeEvent
+    public void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        if (npcManager != null && !event.getLevel().isClientSide()) {
+            npcManager.onBlockChange(event.getLevel(), event.getPos());
         }
     }
 
@@ -92,18 +155,18 @@ public class NuncleMod {
             String biome = ((ServerLevel) npc.level()).getBiome(npc.blockPosition())
                 .unwrapKey().map(k -> k.location().getPath().replace("_", " ")).orElse("unknown");
             String boundaryInfo = npcManager.getBoundaryInfo();
-            LOGGER.info("[NUNCLE] SUMMONED {} at {} {} {} ({}) boundary={}", playerName, x, y, z, biome, boundaryInfo);
+            NuncleEvents.emit("SUMMONED", "{} at {} {} {} ({}) boundary={}", playerName, x, y, z, biome, boundaryInfo);
 
             // Auto-reply in chat with location
-            npcManager.chat("I'm at " + x + " " + y + " " + z + " (" + biome + ")");
+            npcManager.chat("I'm at " + x + " " + y + " " + z + " (" + biome + ")", player);
             return;
         }
 
-        // Proximity check — only log HEARD if player is within hearing range
+        // Proximity check — only players within hearing range reach the filter, which logs HEARD
         if (player.level() == npc.level()) {
             double dist = npc.distanceTo(player);
             if (dist <= HEARING_RADIUS) {
-                LOGGER.info("[NUNCLE] HEARD {} {}", playerName, message);
+                npcManager.getChatFilter().accept(playerName, message, player.server.getTickCount());
             }
         }
     }
@@ -111,4 +174,13 @@ public class NuncleMod {
     public static NunclePlayer getNpcManager() {
         return npcManager;
     }
+
+    public static NuncleTrace getTrace() {
+        return trace;
+    }
+
+    /** Wall time of the NPC manager's last tick */
+    public static long getLastTickNanos() {
+        return lastTickNanos;
+    }
 }
@@ -0,0 +1,185 @@
+package com.vulture.nuncle;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.Container;
+import net.minecraft.world.ContainerListener;
+import net.minecraft.world.entity.npc.Villager;
+
+import javax.annotation.Nullable;
+
+/**
+ * Per-NPC memo of observe sections. A section is reused until something that
+ * could change it happens:
+ * <ul>
+ *   <li>self, time, players — recomputed once per game tick</li>
+ *   <li>inventory — the backpack reported a change</li>
+ *   <li>biome — the NPC moved to another block</li>
+ *   <li>entities, items — the NPC moved a block, or an entity joined, left or
+ *       changed section within the scanned radius (and at most every 20 ticks,
+ *       since distances drift inside a section)</li>
+ *   <li>blocks — the NPC moved a block, or a block update in range (and at
+ *       most every 100 ticks, for changes that skip neighbour updates)</li>
+ * </ul>
+ * On top of that the whole reply is kept for the current tick, so a repeat of
+ * the same query costs one equality check. The memo holds the assembled tree
+ * and, once a JSON observe has serialized it, the string; binary observe
+ * encodes from the same tree. Server thread only.
+ */
+public class NuncleObservationCache implements ContainerListener {
+    private static final int SECTIONS = Integer.numberOfTrailingZeros(NuncleObserver.ALL_FIELDS + 1);
+    private static final long FOREVER = Long.MAX_VALUE;
+
+    private final JsonElement[] values = new JsonElement[SECTIONS];
+    private final long[] keys = new long[SECTIONS];
+    private final int[] radii = new int[SECTIONS];
+    private final long[] computedAt = new long[SECTIONS];
+    private final long[] maxAge = new long[SECTIONS];
+
+    // Whole-reply memo
+    @Nullable private NuncleObserver.Query lastQuery;
+    @Nullable private JsonObject lastTree;
+    @Nullable private String lastReply;
+    private long lastTick = -1;
+    private int lastVersion;
+    private int version; // bumped by every invalidation
+
+    // Status memo
+    @Nullable private String lastStatus;
+    private long statusTick = -1;
+
+    private int hits;
+    private int misses;
+
+    public NuncleObservationCache() {
+        for (int i = 0; i < SECTIONS; i++) maxAge[i] = 1;
+        maxAge[slot(NuncleObserver.INVENTORY)] = FOREVER;
+        maxAge[slot(NuncleObserver.BIOME)] = FOREVER;
+        maxAge[slot(NuncleObserver.ENTITIES)] = 20;
+        maxAge[slot(NuncleObserver.ITEMS)] = 20;
+        maxAge[slot(NuncleObserver.BLOCKS)] = 100;
+    }
+
+    /** Cached section, or null if it has to be recomputed */
+    @Nullable
+    public JsonElement get(int field, long key, int radius, long now) {
+        int s = slot(field);
+        JsonElement value = values[s];
+        if (value != null && keys[s] == key && radii[s] == radius && now - computedAt[s] < maxAge[s]) {
+            hits++;
+            return value;
+        }
+        misses++;
+        return null;
+    }
+
+    public JsonElement put(int field, long key, int radius, long now, JsonElement value) {
+        int s = slot(field);
+        values[s] = value;
+        keys[s] = key;
+        radii[s] = radius;
+        computedAt[s] = now;
+        return value;
+    }
+
+    /** The assembled observation if this query already ran this tick and nothing changed since */
+    @Nullable
+    public JsonObject tree(NuncleObserver.Query query, long now) {
+        return now == lastTick && version == lastVersion && query.equals(lastQuery) ? lastTree : null;
+    }
+
+    public JsonObject remember(NuncleObserver.Query query, long now, JsonObject tree) {
+        lastQuery = query;
+        lastTick = now;
+        lastVersion = version;
+        lastTree = tree;
+        lastReply = null;
+        return tree;
+    }
+
+    /** The memo serialized as JSON, or null if it is stale or was never serialized */
+    @Nullable
+    public String reply(NuncleObserver.Query query, long now) {
+        return tree(query, now) != null ? lastReply : null;
+    }
+
+    /** Serialize the tree just returned by {@link #tree} or {@link #remember} and keep the string */
+    public String rememberReply(JsonObject tree) {
+        lastReply = tree.toString();
+        return lastReply;
+    }
+
+    @Nullable
+    public String status(long now) {
+        return now == statusTick ? lastStatus : null;
+    }
+
+    public String rememberStatus(long now, String status) {
+        statusTick = now;
+        lastStatus = status;
+        return status;
+    }
+
+    // --- Invalidation ---
+
+    @Override
+    public void containerChanged(Container container) {
+        invalidate(NuncleObserver.INVENTORY);
+    }
+
+    /** An entity joined, left, or crossed into another section at this position */
+    public void onEntityChange(Villager npc, long sectionPos) {
+        int ranged = Math.max(radiusIfCached(NuncleObserver.ENTITIES), radiusIfCached(NuncleObserver.ITEMS));
+        if (ranged < 0) return;
+        SectionPos npcSection = SectionPos.of(npc);
+        int reach = SectionPos.blockToSectionCoord(ranged) + 1;
+        if (Math.abs(SectionPos.x(sectionPos) - npcSection.x()) <= reach
+            && Math.abs(SectionPos.y(sectionPos) - npcSection.y()) <= reach
+            && Math.abs(SectionPos.z(sectionPos) - npcSection.z()) <= reach) {
+            invalidate(NuncleObserver.ENTITIES);
+            invalidate(NuncleObserver.ITEMS);
+        }
+    }
+
+    /** A block changed and notified its neighbours */
+    public void onBlockChange(Villager npc, BlockPos pos) {
+        int radius = radiusIfCached(NuncleObserver.BLOCKS);
+        if (radius < 0) return;
+        BlockPos center = npc.blockPosition();
+        if (Math.abs(pos.getX() - center.getX()) <= radius
+            && Math.abs(pos.getY() - center.getY()) <= radius
+            && Math.abs(pos.getZ() - center.getZ()) <= radius) {
+            invalidate(NuncleObserver.BLOCKS);
+        }
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < SECTIONS; i++) values[i] = null;
+        lastStatus = null;
+        version++;
+    }
+
+    public String info() {
+        int total = hits + misses;
+        return "Observe cache: " + hits + "/" + total + " section hits" +
+            (total == 0 ? "" : " (" + (100 * hits / total) + "%)");
+    }
+
+    private void invalidate(int field) {
+        int s = slot(field);
+        if (values[s] == null) return;
+        values[s] = null;
+        version++;
+    }
+
+    private int radiusIfCached(int field) {
+        int s = slot(field);
+        return values[s] == null ? -1 : radii[s];
+    }
+
+    private static int slot(int field) {
+        return Integer.numberOfTrailingZeros(field);
+    }
+}
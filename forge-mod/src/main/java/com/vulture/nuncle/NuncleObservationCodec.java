@@ -0,0 +1,341 @@
+package com.vulture.nuncle;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of an observe result, for high-frequency polling.
+ * Carries exactly what the JSON does, so the reference {@link Decoder}
+ * rebuilds an equal JsonObject.
+ *
+ * <pre>
+ * varint version (2), varint epoch, byte flags (bit 0 = alive)
+ * alive only:
+ *   zigzag originX, originY, originZ   (NPC block position)
+ *   varint fieldMask                   (bit i = FIELDS[i] present)
+ *   varint firstNewString, varint newStrings, then the new strings
+ *   sections in FIELDS order:
+ *     self      zigzag dx dy dz, varint health*10, varint maxHealth*10
+ *     inventory n × (ref name, varint count)
+ *     time      varint (timeIndex &lt;&lt; 1 | raining)
+ *     biome     ref
+ *     players   n × (ref name, varint distance)
+ *     entities  n × (ref name, varint (distance &lt;&lt; 3 | category)) — hostile is implied
+ *     items     n × (ref name, varint count, varint distance)
+ *     blocks    n × (ref name, zigzag dx dy dz)  — distance is implied
+ *     boundary  string
+ *     load      ref level, varint mspt*10
+ * </pre>
+ *
+ * Names are interned per session: each message only defines strings the
+ * peer hasn't seen yet. A peer that misses a message detects the gap from
+ * firstNewString and asks for a reset, which starts a new epoch.
+ */
+public final class NuncleObservationCodec {
+    public static final int VERSION = 2;
+    private static final int MAX_STRING_BYTES = 512;
+    private static final int MAX_TABLE = 65536;
+
+    private static final String[] FIELDS = {
+        "self", "inventory", "time", "biome", "nearbyPlayers", "nearbyEntities",
+        "groundItems", "notableBlocks", "boundary", "load"
+    };
+    private static final String[] TIMES = {"Morning", "Day", "Sunset", "Night", "Dawn"};
+    /** Labels of {@link NuncleEntityTypes.Category}, in ordinal order */
+    private static final String[] CATEGORIES = {"hostile", "animal", "player", "item", "other"};
+
+    private NuncleObservationCodec() {}
+
+    /** Per-session encoder; owns the sender's half of the string table */
+    public static final class Encoder {
+        private final Map<String, Integer> table = new HashMap<>();
+        private int epoch;
+        private final List<String> pending = new ArrayList<>();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(512);
+
+        /** Forget every interned string; the next message starts a new epoch */
+        public void reset() {
+            table.clear();
+            epoch++;
+        }
+
+        public byte[] encodeDead() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(4);
+            NuncleVarInt.write(out, VERSION);
+            NuncleVarInt.write(out, epoch);
+            out.write(0);
+            return out.toByteArray();
+        }
+
+        public byte[] encode(JsonObject obs, int originX, int originY, int originZ) {
+            if (table.size() > MAX_TABLE) reset();
+            int firstNew = table.size();
+            pending.clear();
+            body.reset();
+
+            int mask = 0;
+            for (int i = 0; i < FIELDS.length; i++) {
+                if (obs.has(FIELDS[i])) mask |= 1 << i;
+            }
+
+            if (obs.has("self")) {
+                JsonObject self = obs.getAsJsonObject("self");
+                JsonObject pos = self.getAsJsonObject("position");
+                NuncleVarInt.writeSigned(body, pos.get("x").getAsInt() - originX);
+                NuncleVarInt.writeSigned(body, pos.get("y").getAsInt() - originY);
+                NuncleVarInt.writeSigned(body, pos.get("z").getAsInt() - originZ);
+                NuncleVarInt.write(body, (int) Math.round(self.get("health").getAsDouble() * 10));
+                NuncleVarInt.write(body, (int) Math.round(self.get("maxHealth").getAsDouble() * 10));
+            }
+            if (obs.has("inventory")) {
+                JsonArray inv = obs.getAsJsonArray("inventory");
+                NuncleVarInt.write(body, inv.size());
+                for (JsonElement e : inv) {
+                    JsonObject item = e.getAsJsonObject();
+                    ref(item.get("name").getAsString());
+                    NuncleVarInt.write(body, item.get("count").getAsInt());
+                }
+            }
+            if (obs.has("time")) {
+                int time = indexOf(TIMES, obs.get("time").getAsString());
+                boolean raining = "Raining".equals(obs.get("weather").getAsString());
+                NuncleVarInt.write(body, time << 1 | (raining ? 1 : 0));
+            }
+            if (obs.has("biome")) {
+                ref(obs.get("biome").getAsString());
+            }
+            if (obs.has("nearbyPlayers")) {
+                JsonArray players = obs.getAsJsonArray("nearbyPlayers");
+                NuncleVarInt.write(body, players.size());
+                for (JsonElement e : players) {
+                    JsonObject p = e.getAsJsonObject();
+                    ref(p.get("name").getAsString());
+                    NuncleVarInt.write(body, p.get("distance").getAsInt());
+                }
+            }
+            if (obs.has("nearbyEntities")) {
+                JsonArray entities = obs.getAsJsonArray("nearbyEntities");
+                NuncleVarInt.write(body, entities.size());
+                for (JsonElement e : entities) {
+                    JsonObject ent = e.getAsJsonObject();
+                    ref(ent.get("name").getAsString());
+                    NuncleVarInt.write(body, ent.get("distance").getAsInt() << 3 | indexOf(CATEGORIES, ent.get("category").getAsString()));
+                }
+            }
+            if (obs.has("groundItems")) {
+                JsonArray items = obs.getAsJsonArray("groundItems");
+                NuncleVarInt.write(body, items.size());
+                for (JsonElement e : items) {
+                    JsonObject item = e.getAsJsonObject();
+                    ref(item.get("name").getAsString());
+                    NuncleVarInt.write(body, item.get("count").getAsInt());
+                    NuncleVarInt.write(body, item.get("distance").getAsInt());
+                }
+            }
+            if (obs.has("notableBlocks")) {
+                JsonArray blocks = obs.getAsJsonArray("notableBlocks");
+                NuncleVarInt.write(body, blocks.size());
+                for (JsonElement e : blocks) {
+                    JsonObject b = e.getAsJsonObject();
+                    ref(b.get("name").getAsString());
+                    NuncleVarInt.writeSigned(body, b.get("x").getAsInt() - originX);
+                    NuncleVarInt.writeSigned(body, b.get("y").getAsInt() - originY);
+                    NuncleVarInt.writeSigned(body, b.get("z").getAsInt() - originZ);
+                }
+            }
+            if (obs.has("boundary")) {
+                NuncleVarInt.writeString(body, obs.get("boundary").getAsString());
+            }
+            if (obs.has("load")) {
+                JsonObject load = obs.getAsJsonObject("load");
+                ref(load.get("level").getAsString());
+                NuncleVarInt.write(body, (int) Math.round(load.get("mspt").getAsDouble() * 10));
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.size() + 64);
+            NuncleVarInt.write(out, VERSION);
+            NuncleVarInt.write(out, epoch);
+            out.write(1);
+            NuncleVarInt.writeSigned(out, originX);
+            NuncleVarInt.writeSigned(out, originY);
+            NuncleVarInt.writeSigned(out, originZ);
+            NuncleVarInt.write(out, mask);
+            NuncleVarInt.write(out, firstNew);
+            NuncleVarInt.write(out, pending.size());
+            for (String s : pending) NuncleVarInt.writeString(out, s);
+            out.write(body.toByteArray(), 0, body.size());
+            return out.toByteArray();
+        }
+
+        private void ref(String s) {
+            Integer index = table.get(s);
+            if (index == null) {
+                index = table.size();
+                table.put(s, index);
+                pending.add(s);
+            }
+            NuncleVarInt.write(body, index);
+        }
+    }
+
+    /** Reference decoder; owns the receiver's half of the string table */
+    public static final class Decoder {
+        private final List<String> table = new ArrayList<>();
+        private int epoch = -1;
+
+        /** Decode one message; IllegalStateException means the session needs a reset */
+        public JsonObject decode(byte[] data) {
+            ByteBuffer in = ByteBuffer.wrap(data);
+            try {
+                int version = NuncleVarInt.read(in);
+                if (version != VERSION) throw new IllegalArgumentException("Unsupported observation version " + version);
+                int msgEpoch = NuncleVarInt.read(in);
+                int flags = in.get();
+                JsonObject obs = new JsonObject();
+                if ((flags & 1) == 0) {
+                    obs.addProperty("alive", false);
+                    return obs;
+                }
+
+                int ox = NuncleVarInt.readSigned(in);
+                int oy = NuncleVarInt.readSigned(in);
+                int oz = NuncleVarInt.readSigned(in);
+                int mask = NuncleVarInt.read(in);
+                int firstNew = NuncleVarInt.read(in);
+                int newCount = NuncleVarInt.read(in);
+                if (msgEpoch != epoch) {
+                    if (firstNew != 0) throw new IllegalStateException("Missed the start of epoch " + msgEpoch);
+                    table.clear();
+                    epoch = msgEpoch;
+                }
+                if (firstNew != table.size()) {
+                    throw new IllegalStateException("String table out of sync: have " + table.size() + ", message starts at " + firstNew);
+                }
+                for (int i = 0; i < newCount; i++) table.add(NuncleVarInt.readString(in, MAX_STRING_BYTES));
+
+                if (has(mask, 0)) {
+                    JsonObject self = new JsonObject();
+                    JsonObject pos = new JsonObject();
+                    pos.addProperty("x", ox + NuncleVarInt.readSigned(in));
+                    pos.addProperty("y", oy + NuncleVarInt.readSigned(in));
+                    pos.addProperty("z", oz + NuncleVarInt.readSigned(in));
+                    self.add("position", pos);
+                    self.addProperty("health", NuncleVarInt.read(in) / 10.0);
+                    self.addProperty("maxHealth", NuncleVarInt.read(in) / 10.0);
+                    obs.add("self", self);
+                }
+                if (has(mask, 1)) {
+                    JsonArray inv = new JsonArray();
+                    for (int n = NuncleVarInt.read(in); n > 0; n--) {
+                        JsonObject item = new JsonObject();
+                        item.addProperty("name", string(in));
+                        item.addProperty("count", NuncleVarInt.read(in));
+                        inv.add(item);
+                    }
+                    obs.add("inventory", inv);
+                }
+                if (has(mask, 2)) {
+                    int packed = NuncleVarInt.read(in);
+                    int time = packed >>> 1;
+                    if (time >= TIMES.length) throw new IllegalArgumentException("Bad time index " + time);
+                    obs.addProperty("time", TIMES[time]);
+                    obs.addProperty("weather", (packed & 1) != 0 ? "Raining" : "Clear");
+                }
+                if (has(mask, 3)) {
+                    obs.addProperty("biome", string(in));
+                }
+                if (has(mask, 4)) {
+                    JsonArray players = new JsonArray();
+                    for (int n = NuncleVarInt.read(in); n > 0; n--) {
+                        JsonObject p = new JsonObject();
+                        p.addProperty("name", string(in));
+                        p.addProperty("distance", NuncleVarInt.read(in));
+                        players.add(p);
+                    }
+                    obs.add("nearbyPlayers", players);
+                }
+                if (has(mask, 5)) {
+                    JsonArray entities = new JsonArray();
+                    for (int n = NuncleVarInt.read(in); n > 0; n--) {
+                        JsonObject e = new JsonObject();
+                        e.addProperty("name", string(in));
+                        int packed = NuncleVarInt.read(in);
+                        int category = packed & 7;
+                        if (category >= CATEGORIES.length) throw new IllegalArgumentException("Bad entity category " + category);
+                        e.addProperty("distance", packed >>> 3);
+                        e.addProperty("hostile", category == 0);
+                        e.addProperty("category", CATEGORIES[category]);
+                        entities.add(e);
+                    }
+                    obs.add("nearbyEntities", entities);
+                }
+                if (has(mask, 6)) {
+                    JsonArray items = new JsonArray();
+                    for (int n = NuncleVarInt.read(in); n > 0; n--) {
+                        JsonObject item = new JsonObject();
+                        item.addProperty("name", string(in));
+                        item.addProperty("count", NuncleVarInt.read(in));
+                        item.addProperty("distance", NuncleVarInt.read(in));
+                        items.add(item);
+                    }
+                    obs.add("groundItems", items);
+                }
+                if (has(mask, 7)) {
+                    JsonArray blocks = new JsonArray();
+                    for (int n = NuncleVarInt.read(in); n > 0; n--) {
+                        JsonObject b = new JsonObject();
+                        b.addProperty("name", string(in));
+                        int dx = NuncleVarInt.readSigned(in);
+                        int dy = NuncleVarInt.readSigned(in);
+                        int dz = NuncleVarInt.readSigned(in);
+                        b.addProperty("x", ox + dx);
+                        b.addProperty("y", oy + dy);
+                        b.addProperty("z", oz + dz);
+                        b.addProperty("distance", (int) Math.sqrt(dx * dx + dy * dy + dz * dz));
+                        blocks.add(b);
+                    }
+                    obs.add("notableBlocks", blocks);
+                }
+                if (has(mask, 8)) {
+                    obs.addProperty("boundary", NuncleVarInt.readString(in, MAX_STRING_BYTES));
+                }
+                if (has(mask, 9)) {
+                    JsonObject load = new JsonObject();
+                    load.addProperty("level", string(in));
+                    load.addProperty("mspt", NuncleVarInt.read(in) / 10.0);
+                    obs.add("load", load);
+                }
+                if (in.hasRemaining()) throw new IllegalArgumentException("Trailing bytes after observation");
+                return obs;
+            } catch (BufferUnderflowException e) {
+                throw new IllegalArgumentException("Truncated observation");
+            }
+        }
+
+        private String string(ByteBuffer in) {
+            int index = NuncleVarInt.read(in);
+            if (index < 0 || index >= table.size()) throw new IllegalArgumentException("Bad string ref " + index);
+            return table.get(index);
+        }
+
+        private static boolean has(int mask, int field) {
+            return (mask & 1 << field) != 0;
+        }
+    }
+
+    private static int indexOf(String[] values, String value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i].equals(value)) return i;
+        }
+        throw new IllegalArgumentException("Unknown value " + value);
+    }
+}
@@ -1,16 +1,20 @@
 package com.vulture.nuncle;
 
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.Entity;
-import net.minecraft.world.entity.EntityType;
-import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.item.ItemEntity;
 import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.levelgen.Heightmap;
 import net.minecraft.world.phys.AABB;
@@ -23,13 +27,128 @@ public class NuncleObserver {
     private static final int BLOCK_SCAN_RADIUS = 8;
     private static final int ITEM_SCAN_RADIUS = 8;
 
-    private static final Set<String> HOSTILE_MOBS = Set.of(
-        "zombie", "skeleton", "creeper", "spider", "cave_spider",
-        "enderman", "witch", "slime", "phantom", "drowned",
-        "husk", "stray", "blaze", "ghast", "magma_cube",
-        "wither_skeleton", "pillager", "vindicator", "ravager",
-        "evoker", "vex", "guardian", "elder_guardian", "warden"
-    );
+    // Upper bounds for requested radii — the block scan is cubic in its radius
+    private static final int MAX_ENTITY_RADIUS = 64;
+    private static final int MAX_ITEM_RADIUS = 32;
+    private static final int MAX_BLOCK_RADIUS = 16;
+
+    // Observe sections, selectable with fields=
+    public static final int SELF = 1;
+    public static final int INVENTORY = 1 << 1;
+    public static final int TIME = 1 << 2;
+    public static final int BIOME = 1 << 3;
+    public static final int PLAYERS = 1 << 4;
+    public static final int ENTITIES = 1 << 5;
+    public static final int ITEMS = 1 << 6;
+    public static final int BLOCKS = 1 << 7;
+    public static final int BOUNDARY = 1 << 8;
+    public static final int ALL_FIELDS = (1 << 9) - 1;
+    private static final Map<String, Integer> FIELD_NAMES = Map.of(
+        "self", SELF, "inventory", INVENTORY, "time", TIME, "biome", BIOME, "players", PLAYERS,
+        "entities", ENTITIES, "items", ITEMS, "blocks", BLOCKS, "boundary", BOUNDARY);
+
+    /** Which sections to compute and how far each ranged section looks */
+    public record Query(int fields, int playerRadius, int entityRadius, int itemRadius, int blockRadius) {
+        public static final Query ALL = new Query(ALL_FIELDS, ENTITY_SCAN_RADIUS, ENTITY_SCAN_RADIUS,
+            ITEM_SCAN_RADIUS, BLOCK_SCAN_RADIUS);
+
+        boolean has(int field) {
+            return (fields & field) != 0;
+        }
+
+        /**
+         * Parse "fields=self,entities:16,blocks radius=24". radius= sets every
+         * ranged section; name:N in fields= overrides it for one section.
+         * Radii are capped per section. Throws IllegalArgumentException.
+         */
+        public static Query parse(String options) {
+            int fields = ALL_FIELDS;
+            int global = -1;
+            int[] radii = {-1, -1, -1, -1}; // players, entities, items, blocks
+            for (String token : options.trim().split("\\s+")) {
+                if (token.isEmpty()) continue;
+                int eq = token.indexOf('=');
+                if (eq < 0) throw new IllegalArgumentException("expected key=value, got " + token);
+                String key = token.substring(0, eq).toLowerCase();
+                String value = token.substring(eq + 1);
+                switch (key) {
+                    case "radius" -> global = parseRadius(value);
+                    case "fields" -> {
+                        fields = 0;
+                        for (String part : value.split(",")) {
+                            if (part.isEmpty()) continue;
+                            int colon = part.indexOf(':');
+                            String name = (colon < 0 ? part : part.substring(0, colon)).toLowerCase();
+                            Integer field = FIELD_NAMES.get(name);
+                            if (field == null) throw new IllegalArgumentException("unknown field " + name);
+                            fields |= field;
+                            if (colon >= 0) {
+                                int slot = Integer.numberOfTrailingZeros(field) - Integer.numberOfTrailingZeros(PLAYERS);
+                                if (slot < 0 || slot >= radii.length) {
+                                    throw new IllegalArgumentException(name + " does not take a radius");
+                                }
+                                radii[slot] = parseRadius(part.substring(colon + 1));
+                            }
+                        }
+                    }
+                    default -> throw new IllegalArgumentException("unknown option " + key);
+                }
+            }
+            return new Query(fields,
+                pick(radii[0], global, ENTITY_SCAN_RADIUS, MAX_ENTITY_RADIUS),
+                pick(radii[1], global, ENTITY_SCAN_RADIUS, MAX_ENTITY_RADIUS),
+                pick(radii[2], global, ITEM_SCAN_RADIUS, MAX_ITEM_RADIUS),
+                pick(radii[3], global, BLOCK_SCAN_RADIUS, MAX_BLOCK_RADIUS));
+        }
+
+        private static int parseRadius(String value) {
+            try {
+                int r = Integer.parseInt(value);
+                if (r < 0) throw new NumberFormatException();
+                return r;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("bad radius " + value);
+            }
+        }
+
+        private static int pick(int own, int global, int fallback, int max) {
+            return Math.min(max, own >= 0 ? own : global >= 0 ? global : fallback);
+        }
+
+        /** Radii capped for a load level; this same query if none of them change */
+        Query shed(NuncleLoadShedder.Level level) {
+            int entity = Math.min(entityRadius, level.maxEntityRadius);
+            int item = Math.min(itemRadius, level.maxItemRadius);
+            int block = Math.min(blockRadius, level.maxBlockRadius);
+            if (entity == entityRadius && item == itemRadius && block == blockRadius) return this;
+            return new Query(fields, playerRadius, entity, item, block);
+        }
+    }
+
+    private static final int MAX_ENTITIES = 15;
+    private static final int MAX_GROUND_ITEMS = 10;
+    private static final int MAX_BLOCKS = 20;
+
+    // Reused selection buffers — observe only runs on the server thread
+    private static final NuncleTopK ENTITY_TOP = new NuncleTopK(MAX_ENTITIES);
+    private static final NuncleTopK ITEM_TOP = new NuncleTopK(MAX_GROUND_ITEMS);
+    private static final NuncleTopK BLOCK_TOP = new NuncleTopK(MAX_BLOCKS);
+
+    // Per-Block scan state, indexed by block registry id
+    private static final byte BLOCK_UNKNOWN = 0;
+    private static final byte BLOCK_IGNORED = 1;
+    private static final byte BLOCK_NOTABLE = 2;
+    private static byte[] blockClass = new byte[0];
+    private static String[] blockNames = new String[0];
+    private static int[] bestDistSq = new int[0];
+    private static long[] bestPos = new long[0];
+    private static int[] seenStamp = new int[0];
+    private static int[] touched = new int[0];
+    private static int scanStamp;
+
+    // What the current observe scanned, for its JFR event
+    private static int entitiesScanned;
+    private static int blocksScanned;
 
     /** Boring terrain/filler blocks to ignore — everything else gets reported */
     private static final Set<String> IGNORE_BLOCKS = Set.of(
@@ -52,6 +171,10 @@ public class NuncleObserver {
         if (npc == null || !npc.isAlive()) {
             return "{\"alive\":false}";
         }
+        NuncleObservationCache cache = mgr.getObservationCache();
+        long now = npc.level().getGameTime();
+        String cached = cache.status(now);
+        if (cached != null) return cached;
 
         JsonObject json = new JsonObject();
         json.addProperty("alive", true);
@@ -66,18 +189,158 @@ public class NuncleObserver {
         json.addProperty("maxHealth", Math.round(npc.getMaxHealth() * 10.0) / 10.0);
         json.addProperty("dimension", npc.level().dimension().location().getPath());
 
-        return json.toString();
+        return cache.rememberStatus(now, json.toString());
     }
 
     public static String observe(NunclePlayer mgr) {
+        return observe(mgr, Query.ALL);
+    }
+
+    /** Observe only the requested sections; anything not asked for is never computed */
+    public static String observe(NunclePlayer mgr, Query query) {
         Villager npc = mgr.getNpc();
         if (npc == null || !npc.isAlive()) {
             return "{\"alive\":false}";
         }
+        query = query.shed(mgr.getLoadShedder().level());
+        NuncleJfr.Observe event = new NuncleJfr.Observe();
+        event.begin();
+        entitiesScanned = 0;
+        blocksScanned = 0;
+        NuncleObservationCache cache = mgr.getObservationCache();
+        long now = npc.level().getGameTime();
+        String cached = cache.reply(query, now);
+        String reply = cached != null ? cached : cache.rememberReply(observeTree(mgr, npc, query, now));
+        event.finish(npc, query, entitiesScanned, blocksScanned, reply.length(), cached != null);
+        return reply;
+    }
 
+    /** Binary observe (see NuncleObservationCodec), base64 so it fits an RCON reply */
+    public static String observeBinary(NunclePlayer mgr, Query query) {
+        NuncleObservationCodec.Encoder encoder = mgr.getObservationEncoder();
+        Villager npc = mgr.getNpc();
+        if (npc == null || !npc.isAlive()) {
+            return Base64.getEncoder().encodeToString(encoder.encodeDead());
+        }
+        query = query.shed(mgr.getLoadShedder().level());
+        NuncleJfr.Observe event = new NuncleJfr.Observe();
+        event.begin();
+        entitiesScanned = 0;
+        blocksScanned = 0;
+        long now = npc.level().getGameTime();
+        boolean cached = mgr.getObservationCache().tree(query, now) != null;
+        JsonObject tree = observeTree(mgr, npc, query, now);
+        BlockPos origin = npc.blockPosition();
+        String reply = Base64.getEncoder().encodeToString(encoder.encode(tree, origin.getX(), origin.getY(), origin.getZ()));
+        event.finish(npc, query, entitiesScanned, blocksScanned, reply.length(), cached);
+        return reply;
+    }
+
+    /** The whole-reply memo when this query already ran this tick, else a fresh tree */
+    private static JsonObject observeTree(NunclePlayer mgr, Villager npc, Query query, long now) {
+        NuncleObservationCache cache = mgr.getObservationCache();
+        JsonObject tree = cache.tree(query, now);
+        return tree != null ? tree : cache.remember(query, now, observeJson(mgr, npc, query));
+    }
+
+    /**
+     * Sections come from the NPC's {@link NuncleObservationCache} when nothing
+     * has invalidated them; only the missing ones are computed.
+     */
+    private static JsonObject observeJson(NunclePlayer mgr, Villager npc, Query query) {
         JsonObject json = new JsonObject();
+        ServerLevel level = (ServerLevel) npc.level();
+        BlockPos bpos = npc.blockPosition();
+        NuncleObservationCache cache = mgr.getObservationCache();
+        long now = level.getGameTime();
+        long here = bpos.asLong();
 
         // Self
+        if (query.has(SELF)) {
+            JsonElement self = cache.get(SELF, 0, 0, now);
+            if (self == null) self = cache.put(SELF, 0, 0, now, observeSelf(npc));
+            json.add("self", self);
+        }
+
+        // Inventory
+        if (query.has(INVENTORY)) {
+            JsonElement inventory = cache.get(INVENTORY, 0, 0, now);
+            if (inventory == null) inventory = cache.put(INVENTORY, 0, 0, now, observeInventoryTotals(mgr));
+            json.add("inventory", inventory);
+        }
+
+        // Time & weather
+        if (query.has(TIME)) {
+            JsonElement time = cache.get(TIME, 0, 0, now);
+            if (time == null) time = cache.put(TIME, 0, 0, now, observeTime(level));
+            JsonObject t = time.getAsJsonObject();
+            json.add("time", t.get("time"));
+            json.add("weather", t.get("weather"));
+        }
+
+        // Biome
+        if (query.has(BIOME)) {
+            JsonElement biome = cache.get(BIOME, here, 0, now);
+            if (biome == null) {
+                biome = cache.put(BIOME, here, 0, now, new JsonPrimitive(level.getBiome(bpos).unwrapKey()
+                    .map(k -> k.location().getPath()).orElse("unknown")));
+            }
+            json.add("biome", biome);
+        }
+
+        // Nearby players
+        if (query.has(PLAYERS)) {
+            JsonElement players = cache.get(PLAYERS, 0, query.playerRadius(), now);
+            if (players == null) {
+                players = cache.put(PLAYERS, 0, query.playerRadius(), now, observePlayers(npc, query.playerRadius()));
+            }
+            json.add("nearbyPlayers", players);
+        }
+
+        // Nearby entities — nearest MAX_ENTITIES, ground items from the same scan
+        JsonElement entities = query.has(ENTITIES) ? cache.get(ENTITIES, here, query.entityRadius(), now) : null;
+        JsonElement items = query.has(ITEMS) ? cache.get(ITEMS, here, query.itemRadius(), now) : null;
+        boolean scanEntities = query.has(ENTITIES) && entities == null;
+        boolean scanItems = query.has(ITEMS) && items == null;
+        if (scanEntities || scanItems) {
+            JsonArray[] scanned = scanEntities(npc, query, scanEntities, scanItems);
+            if (scanEntities) entities = cache.put(ENTITIES, here, query.entityRadius(), now, scanned[0]);
+            if (scanItems) items = cache.put(ITEMS, here, query.itemRadius(), now, scanned[1]);
+        }
+        if (entities != null) json.add("nearbyEntities", entities);
+        if (items != null) json.add("groundItems", items);
+
+        // Nearby blocks — report everything except boring filler, deduplicated by type (closest of each)
+        if (query.has(BLOCKS)) {
+            JsonElement blocks = cache.get(BLOCKS, here, query.blockRadius(), now);
+            if (blocks == null) {
+                blocks = cache.put(BLOCKS, here, query.blockRadius(), now,
+                    scanNotableBlocks(level, bpos, query.blockRadius()));
+            }
+            json.add("notableBlocks", blocks);
+        }
+
+        // Boundary info (cheap, never cached)
+        if (query.has(BOUNDARY)) {
+            String boundaryInfo = mgr.getBoundaryInfo();
+            if (!boundaryInfo.equals("No boundary set")) {
+                json.addProperty("boundary", boundaryInfo);
+            }
+        }
+
+        // Load level, only while shedding, so the brain knows it is seeing less
+        NuncleLoadShedder shedder = mgr.getLoadShedder();
+        if (shedder.level() != NuncleLoadShedder.Level.NORMAL) {
+            JsonObject load = new JsonObject();
+            load.addProperty("level", shedder.level().name());
+            load.addProperty("mspt", Math.round(shedder.mspt() * 10.0) / 10.0);
+            json.add("load", load);
+        }
+
+        return json;
+    }
+
+    private static JsonObject observeSelf(Villager npc) {
         JsonObject self = new JsonObject();
         JsonObject pos = new JsonObject();
         pos.addProperty("x", (int) npc.getX());
@@ -86,24 +349,23 @@ public class NuncleObserver {
         self.add("position", pos);
         self.addProperty("health", Math.round(npc.getHealth() * 10.0) / 10.0);
         self.addProperty("maxHealth", Math.round(npc.getMaxHealth() * 10.0) / 10.0);
-        json.add("self", self);
+        return self;
+    }
 
-        // Inventory
+    private static JsonArray observeInventoryTotals(NunclePlayer mgr) {
+        // One entry per item with its total, straight from the index — the backpack has 36 slots
         JsonArray invItems = new JsonArray();
-        for (int i = 0; i < npc.getInventory().getContainerSize(); i++) {
-            ItemStack stack = npc.getInventory().getItem(i);
-            if (!stack.isEmpty()) {
-                JsonObject item = new JsonObject();
-                item.addProperty("name", stack.getItem().getDescriptionId()
-                    .replace("item.minecraft.", "").replace("block.minecraft.", ""));
-                item.addProperty("count", stack.getCount());
-                invItems.add(item);
-            }
+        for (Object2IntMap.Entry<Item> e : mgr.getInventoryIndex().totals().object2IntEntrySet()) {
+            JsonObject item = new JsonObject();
+            item.addProperty("name", e.getKey().getDescriptionId()
+                .replace("item.minecraft.", "").replace("block.minecraft.", ""));
+            item.addProperty("count", e.getIntValue());
+            invItems.add(item);
         }
-        json.add("inventory", invItems);
+        return invItems;
+    }
 
-        // Time & weather
-        ServerLevel level = (ServerLevel) npc.level();
+    private static JsonObject observeTime(ServerLevel level) {
         long timeOfDay = level.getDayTime() % 24000;
         String timeStr;
         if (timeOfDay < 6000) timeStr = "Morning";
@@ -111,115 +373,167 @@ public class NuncleObserver {
         else if (timeOfDay < 13000) timeStr = "Sunset";
         else if (timeOfDay < 23000) timeStr = "Night";
         else timeStr = "Dawn";
-        json.addProperty("time", timeStr);
-        json.addProperty("weather", level.isRaining() ? "Raining" : "Clear");
-
-        // Biome
-        BlockPos bpos = npc.blockPosition();
-        String biome = level.getBiome(bpos).unwrapKey()
-            .map(k -> k.location().getPath()).orElse("unknown");
-        json.addProperty("biome", biome);
+        JsonObject time = new JsonObject();
+        time.addProperty("time", timeStr);
+        time.addProperty("weather", level.isRaining() ? "Raining" : "Clear");
+        return time;
+    }
 
-        // Nearby players
+    private static JsonArray observePlayers(Villager npc, int radius) {
         JsonArray players = new JsonArray();
-        for (ServerPlayer sp : level.getServer().getPlayerList().getPlayers()) {
+        for (ServerPlayer sp : ((ServerLevel) npc.level()).getServer().getPlayerList().getPlayers()) {
             if (sp.level() != npc.level()) continue;
             double dist = npc.distanceTo(sp);
-            if (dist <= ENTITY_SCAN_RADIUS) {
+            if (dist <= radius) {
                 JsonObject pj = new JsonObject();
                 pj.addProperty("name", sp.getGameProfile().getName());
                 pj.addProperty("distance", (int) dist);
                 players.add(pj);
             }
         }
-        json.add("nearbyPlayers", players);
+        return players;
+    }
 
-        // Nearby entities
-        AABB area = npc.getBoundingBox().inflate(ENTITY_SCAN_RADIUS);
+    /** One entity scan feeding both sections; returns {entities, items}, either null if not wanted */
+    private static JsonArray[] scanEntities(Villager npc, Query query, boolean wantEntities, boolean wantItems) {
+        JsonArray[] out = new JsonArray[2];
+        int scanRadius = Math.max(wantEntities ? query.entityRadius() : 0, wantItems ? query.itemRadius() : 0);
+        AABB area = npc.getBoundingBox().inflate(scanRadius);
+        AABB itemArea = npc.getBoundingBox().inflate(query.itemRadius());
+        double entityRadiusSq = (double) query.entityRadius() * query.entityRadius();
         List<Entity> entities = npc.level().getEntities(npc, area);
-        JsonArray entArr = new JsonArray();
-        int entityCount = 0;
-        for (Entity e : entities) {
-            if (e instanceof ServerPlayer) continue; // already in players
-            if (!(e instanceof LivingEntity)) continue;
-            String name = EntityType.getKey(e.getType()).getPath();
-            if (name.equals("villager") && e.getCustomName() != null
-                && e.getCustomName().getString().equals(NuncleMod.NPC_NAME)) continue; // skip self
-
-            double dist = npc.distanceTo(e);
-            JsonObject ej = new JsonObject();
-            ej.addProperty("name", name);
-            ej.addProperty("distance", (int) dist);
-            ej.addProperty("hostile", HOSTILE_MOBS.contains(name));
-            entArr.add(ej);
-            if (++entityCount >= 15) break;
-        }
-        json.add("nearbyEntities", entArr);
+        entitiesScanned += entities.size();
+        ENTITY_TOP.clear();
+        ITEM_TOP.clear();
+        for (int i = 0; i < entities.size(); i++) {
+            Entity e = entities.get(i);
+            if (e == npc) continue; // skip self
+            int flags = NuncleEntityTypes.flags(e.getType());
+            if ((flags & NuncleEntityTypes.ITEM) != 0) {
+                if (wantItems && e.isAlive() && itemArea.intersects(e.getBoundingBox())) {
+                    ITEM_TOP.offer(NuncleTopK.pack(scaledDistSq(npc, e), i));
+                }
+                continue;
+            }
+            if (!wantEntities) continue;
+            if ((flags & NuncleEntityTypes.PLAYER) != 0) continue; // already in players
+            if ((flags & NuncleEntityTypes.LIVING) == 0) continue;
+            if (scanRadius > query.entityRadius() && npc.distanceToSqr(e) > entityRadiusSq) continue;
+            ENTITY_TOP.offer(NuncleTopK.pack(scaledDistSq(npc, e), i));
+        }
+
+        if (wantEntities) {
+            JsonArray entArr = new JsonArray();
+            ENTITY_TOP.sort();
+            for (int k = 0; k < ENTITY_TOP.size(); k++) {
+                Entity e = entities.get(NuncleTopK.id(ENTITY_TOP.get(k)));
+                JsonObject ej = new JsonObject();
+                ej.addProperty("name", NuncleEntityTypes.name(e));
+                ej.addProperty("distance", (int) npc.distanceTo(e));
+                ej.addProperty("hostile", NuncleEntityTypes.isHostile(e));
+                ej.addProperty("category", NuncleEntityTypes.category(e).label());
+                entArr.add(ej);
+            }
+            out[0] = entArr;
+        }
 
         // Nearby ground items
-        AABB itemArea = npc.getBoundingBox().inflate(ITEM_SCAN_RADIUS);
-        List<Entity> itemEntities = npc.level().getEntities(npc, itemArea);
-        JsonArray groundItems = new JsonArray();
-        int itemCount = 0;
-        for (Entity e : itemEntities) {
-            if (!(e instanceof ItemEntity itemEntity)) continue;
-            if (!itemEntity.isAlive()) continue;
-
-            ItemStack stack = itemEntity.getItem();
-            String itemName = stack.getItem().getDescriptionId()
-                .replace("item.minecraft.", "").replace("block.minecraft.", "");
-            double dist = npc.distanceTo(e);
-
-            JsonObject ij = new JsonObject();
-            ij.addProperty("name", itemName);
-            ij.addProperty("count", stack.getCount());
-            ij.addProperty("distance", (int) dist);
-            groundItems.add(ij);
-            if (++itemCount >= 10) break;
-        }
-        json.add("groundItems", groundItems);
+        if (wantItems) {
+            JsonArray groundItems = new JsonArray();
+            ITEM_TOP.sort();
+            for (int k = 0; k < ITEM_TOP.size(); k++) {
+                ItemEntity itemEntity = (ItemEntity) entities.get(NuncleTopK.id(ITEM_TOP.get(k)));
+                ItemStack stack = itemEntity.getItem();
+                String itemName = stack.getItem().getDescriptionId()
+                    .replace("item.minecraft.", "").replace("block.minecraft.", "");
+
+                JsonObject ij = new JsonObject();
+                ij.addProperty("name", itemName);
+                ij.addProperty("count", stack.getCount());
+                ij.addProperty("distance", (int) npc.distanceTo(itemEntity));
+                groundItems.add(ij);
+            }
+            out[1] = groundItems;
+        }
+        return out;
+    }
+
+    private static JsonArray scanNotableBlocks(ServerLevel level, BlockPos center, int radius) {
+        int stamp = ++scanStamp;
+        int touchedCount = 0;
+        blocksScanned += (2 * radius + 1) * (2 * radius + 1) * (2 * radius + 1);
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dy = -radius; dy <= radius; dy++) {
+                for (int dz = -radius; dz <= radius; dz++) {
+                    cursor.setWithOffset(center, dx, dy, dz);
+                    BlockState state = level.getBlockState(cursor);
+                    if (state.isAir()) continue;
+                    Block block = state.getBlock();
+                    int id = BuiltInRegistries.BLOCK.getId(block);
+                    if (id >= blockClass.length) growBlockTables(id + 1);
+                    byte cls = blockClass[id];
+                    if (cls == BLOCK_UNKNOWN) cls = classifyBlock(block, id);
+                    if (cls == BLOCK_IGNORED) continue;
 
-        // Nearby blocks — report everything except boring filler, deduplicated by type (closest of each)
-        Map<String, int[]> closestByType = new LinkedHashMap<>(); // name -> {x, y, z, distSq}
-        for (int dx = -BLOCK_SCAN_RADIUS; dx <= BLOCK_SCAN_RADIUS; dx++) {
-            for (int dy = -BLOCK_SCAN_RADIUS; dy <= BLOCK_SCAN_RADIUS; dy++) {
-                for (int dz = -BLOCK_SCAN_RADIUS; dz <= BLOCK_SCAN_RADIUS; dz++) {
-                    BlockPos bp = bpos.offset(dx, dy, dz);
-                    BlockState state = level.getBlockState(bp);
-                    String blockName = state.getBlock().getDescriptionId()
-                        .replace("block.minecraft.", "");
-                    if (IGNORE_BLOCKS.contains(blockName)) continue;
                     int distSq = dx*dx + dy*dy + dz*dz;
-                    int[] existing = closestByType.get(blockName);
-                    if (existing == null || distSq < existing[3]) {
-                        closestByType.put(blockName, new int[]{bp.getX(), bp.getY(), bp.getZ(), distSq});
+                    if (seenStamp[id] != stamp) {
+                        seenStamp[id] = stamp;
+                        touched[touchedCount++] = id;
+                    } else if (distSq >= bestDistSq[id]) {
+                        continue;
                     }
+                    bestDistSq[id] = distSq;
+                    bestPos[id] = cursor.asLong();
                 }
             }
         }
-        // Sort by distance, cap at 20 entries
+
+        // Nearest MAX_BLOCKS types
+        BLOCK_TOP.clear();
+        for (int i = 0; i < touchedCount; i++) {
+            int id = touched[i];
+            BLOCK_TOP.offer(NuncleTopK.pack(bestDistSq[id], id));
+        }
+        BLOCK_TOP.sort();
+
         JsonArray blocks = new JsonArray();
-        closestByType.entrySet().stream()
-            .sorted(Comparator.comparingInt(e -> e.getValue()[3]))
-            .limit(20)
-            .forEach(e -> {
-                JsonObject bj = new JsonObject();
-                bj.addProperty("name", e.getKey());
-                bj.addProperty("x", e.getValue()[0]);
-                bj.addProperty("y", e.getValue()[1]);
-                bj.addProperty("z", e.getValue()[2]);
-                bj.addProperty("distance", (int) Math.sqrt(e.getValue()[3]));
-                blocks.add(bj);
-            });
-        json.add("notableBlocks", blocks);
-
-        // Boundary info
-        String boundaryInfo = mgr.getBoundaryInfo();
-        if (!boundaryInfo.equals("No boundary set")) {
-            json.addProperty("boundary", boundaryInfo);
+        for (int k = 0; k < BLOCK_TOP.size(); k++) {
+            long key = BLOCK_TOP.get(k);
+            int id = NuncleTopK.id(key);
+            long pos = bestPos[id];
+            JsonObject bj = new JsonObject();
+            bj.addProperty("name", blockNames[id]);
+            bj.addProperty("x", BlockPos.getX(pos));
+            bj.addProperty("y", BlockPos.getY(pos));
+            bj.addProperty("z", BlockPos.getZ(pos));
+            bj.addProperty("distance", (int) Math.sqrt(NuncleTopK.distance(key)));
+            blocks.add(bj);
         }
+        return blocks;
+    }
 
-        return json.toString();
+    private static byte classifyBlock(Block block, int id) {
+        String name = block.getDescriptionId().replace("block.minecraft.", "");
+        byte cls = IGNORE_BLOCKS.contains(name) ? BLOCK_IGNORED : BLOCK_NOTABLE;
+        blockNames[id] = name;
+        blockClass[id] = cls;
+        return cls;
+    }
+
+    private static void growBlockTables(int minSize) {
+        int size = Math.max(minSize, BuiltInRegistries.BLOCK.size());
+        blockClass = Arrays.copyOf(blockClass, size);
+        blockNames = Arrays.copyOf(blockNames, size);
+        bestDistSq = Arrays.copyOf(bestDistSq, size);
+        bestPos = Arrays.copyOf(bestPos, size);
+        seenStamp = Arrays.copyOf(seenStamp, size);
+        touched = Arrays.copyOf(touched, size);
+    }
+
+    /** Squared distance in 1/16 block² units, so it packs into a TopK key without losing ordering. */
+    private static int scaledDistSq(Entity from, Entity to) {
+        return (int) Math.min(Integer.MAX_VALUE, from.distanceToSqr(to) * 16.0);
     }
 
     public static String observeInventory(NunclePlayer mgr) {
@@ -228,12 +542,12 @@ public class NuncleObserver {
             return "{\"alive\":false}";
         }
 
-        // Villagers have a small inventory (8 slots)
         JsonObject json = new JsonObject();
+        NuncleBackpack backpack = mgr.getBackpack();
         JsonArray items = new JsonArray();
 
-        for (int i = 0; i < npc.getInventory().getContainerSize(); i++) {
-            ItemStack stack = npc.getInventory().getItem(i);
+        for (int i = 0; i < backpack.getContainerSize(); i++) {
+            ItemStack stack = backpack.getItem(i);
             if (!stack.isEmpty()) {
                 JsonObject item = new JsonObject();
                 item.addProperty("name", stack.getItem().getDescriptionId()
@@ -245,7 +559,7 @@ public class NuncleObserver {
         }
 
         json.add("inventory", items);
-        json.addProperty("slots", npc.getInventory().getContainerSize());
+        json.addProperty("slots", backpack.getContainerSize());
         return json.toString();
     }
 }
@@ -0,0 +1,127 @@
+package com.vulture.nuncle;
+
+import net.minecraft.ChatFormatting;
+import net.minecraft.core.particles.ParticleOptions;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.protocol.game.ClientboundLevelParticlesPacket;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.npc.Villager;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * Everything the NPC sends to players purely for show, scoped so it only
+ * reaches the players it is for:
+ * <ul>
+ *   <li>chat — players in the NPC's dimension within {@link #CHAT_RADIUS}</li>
+ *   <li>announcements — every player in the NPC's dimension</li>
+ *   <li>particles — players watching the NPC's chunk and close enough to render them</li>
+ *   <li>name — the thinking suffix is applied at most once per
+ *       {@link #NAME_INTERVAL_TICKS}, so on/off flicker inside that window
+ *       never syncs</li>
+ * </ul>
+ * Counts the packets each kind costs, per tick and in total. Server thread only.
+ */
+public class NuncleOutput {
+    public static final double CHAT_RADIUS = 64.0;
+    private static final double PARTICLE_RANGE = 32.0; // clients drop ordinary particles past this anyway
+    private static final int NAME_INTERVAL_TICKS = 20;
+
+    private static final int CHAT = 0;
+    private static final int ANNOUNCE = 1;
+    private static final int PARTICLES = 2;
+    private static final int NAME = 3;
+    private static final String[] KINDS = {"chat", "announce", "particles", "name"};
+
+    private final int[] thisTick = new int[KINDS.length];
+    private final int[] lastTick = new int[KINDS.length];
+    private final int[] peak = new int[KINDS.length];
+    private final long[] total = new long[KINDS.length];
+
+    private boolean nameThinking;
+    private int nextNameTick;
+
+    /** A freshly spawned NPC shows its plain name */
+    public void reset() {
+        nameThinking = false;
+        nextNameTick = 0;
+    }
+
+    /** NPC chat line; {@code asker}, if any, gets it wherever they are */
+    public void chat(Villager npc, String message, @Nullable ServerPlayer asker) {
+        Component line = Component.empty()
+            .append(Component.literal("<"))
+            .append(Component.literal(NuncleMod.NPC_NAME).withStyle(ChatFormatting.GOLD))
+            .append(Component.literal("> " + message));
+        double radiusSq = CHAT_RADIUS * CHAT_RADIUS;
+        for (ServerPlayer player : ((ServerLevel) npc.level()).players()) {
+            if (player != asker && player.distanceToSqr(npc) <= radiusSq) send(player, line, CHAT);
+        }
+        if (asker != null && !asker.hasDisconnected()) send(asker, line, CHAT);
+    }
+
+    public void announce(Villager npc, String message) {
+        Component line = Component.literal("[")
+            .append(Component.literal(NuncleMod.NPC_NAME).withStyle(ChatFormatting.GOLD))
+            .append(Component.literal("] "))
+            .append(Component.literal(message).withStyle(ChatFormatting.GRAY));
+        for (ServerPlayer player : ((ServerLevel) npc.level()).players()) send(player, line, ANNOUNCE);
+    }
+
+    public void particles(Villager npc, ParticleOptions particle, double yOffset, int count,
+                          float spreadX, float spreadY, float spreadZ) {
+        double x = npc.getX();
+        double y = npc.getY() + yOffset;
+        double z = npc.getZ();
+        ClientboundLevelParticlesPacket packet = null; // only built if someone will see it
+        for (ServerPlayer player : viewers(npc)) {
+            if (player.distanceToSqr(x, y, z) > PARTICLE_RANGE * PARTICLE_RANGE) continue;
+            if (packet == null) {
+                packet = new ClientboundLevelParticlesPacket(particle, false, x, y, z, spreadX, spreadY, spreadZ, 0.0F, count);
+            }
+            player.connection.send(packet);
+            thisTick[PARTICLES]++;
+        }
+    }
+
+    /** Bring the name in line with the thinking state, if the last change was long enough ago */
+    public void updateName(Villager npc, boolean thinking, int tickCount) {
+        if (thinking == nameThinking || tickCount < nextNameTick) return;
+        nameThinking = thinking;
+        nextNameTick = tickCount + NAME_INTERVAL_TICKS;
+        npc.setCustomName(thinking
+            ? Component.literal(NuncleMod.NPC_NAME + " ").append(Component.literal("...").withStyle(ChatFormatting.GRAY))
+            : Component.literal(NuncleMod.NPC_NAME));
+        thisTick[NAME] += viewers(npc).size(); // the entity data sync goes to everyone tracking it
+    }
+
+    /** Close the counters for this tick */
+    public void endTick() {
+        for (int i = 0; i < KINDS.length; i++) {
+            lastTick[i] = thisTick[i];
+            peak[i] = Math.max(peak[i], thisTick[i]);
+            total[i] += thisTick[i];
+            thisTick[i] = 0;
+        }
+    }
+
+    public String info() {
+        StringBuilder sb = new StringBuilder("Output packets (last tick / peak / total):");
+        for (int i = 0; i < KINDS.length; i++) {
+            sb.append(i == 0 ? " " : ", ").append(KINDS[i]).append(' ')
+                .append(lastTick[i]).append('/').append(peak[i]).append('/').append(total[i]);
+        }
+        return sb.toString();
+    }
+
+    private void send(ServerPlayer player, Component line, int kind) {
+        player.sendSystemMessage(line);
+        thisTick[kind]++;
+    }
+
+    private static List<ServerPlayer> viewers(Villager npc) {
+        return ((ServerLevel) npc.level()).getChunkSource().chunkMap.getPlayers(npc.chunkPosition(), false);
+    }
+}
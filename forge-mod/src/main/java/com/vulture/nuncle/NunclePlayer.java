@@ -1,6 +1,5 @@
 package com.vulture.nuncle;
 
-import net.minecraft.ChatFormatting;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.particles.ParticleTypes;
 import net.minecraft.network.chat.Component;
@@ -10,7 +9,6 @@ import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.Container;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EntityType;
-import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.item.ItemEntity;
 import net.minecraft.world.entity.npc.Villager;
 import net.minecraft.world.entity.npc.VillagerType;
@@ -20,6 +18,9 @@ import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.CraftingRecipe;
 import net.minecraft.world.item.crafting.Ingredient;
 import net.minecraft.world.item.crafting.RecipeType;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
@@ -28,31 +29,91 @@ import net.minecraftforge.event.entity.living.LivingDeathEvent;
 import net.minecraftforge.registries.ForgeRegistries;
 
 import javax.annotation.Nullable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
 
 public class NunclePlayer {
+    /** How close the NPC must be to a block to mine, place or open it */
+    static final double REACH = 6.0;
+
+    /** Ticks an approach may go without getting closer before the step fails */
+    private static final int APPROACH_TIMEOUT = 200;
+
     private final MinecraftServer server;
     private Villager npc;
+    private final NuncleBackpack backpack = new NuncleBackpack();
+    private final NuncleInventoryIndex inventoryIndex = backpack.index();
+    private final NuncleSchematics schematics;
 
     // Movement state
     private ServerPlayer followTarget;
+    private int followRepathIn;
     private boolean wandering;
     private int wanderCooldown;
 
-    // Attack state
-    private LivingEntity attackTarget;
+    // Chunk tickets around the NPC and along its route
+    private final NuncleChunkLoader chunks = new NuncleChunkLoader();
+
+    // Checked wander targets inside the boundary
+    private final NuncleWaypoints waypoints = new NuncleWaypoints();
+
+    // Downsampled terrain grid, cached per chunk
+    private final NuncleTerrain terrain = new NuncleTerrain();
+
+    // Combat
+    private final NuncleCombat combat = new NuncleCombat();
+
+    // Vacuum mode for drops
+    private final NuncleAutoPickup autoPickup = new NuncleAutoPickup();
 
     // Thinking state
     private boolean thinking;
     private int thinkingParticleTick;
 
+    // Scoped chat, announcements, particles and name updates, with packet counters
+    private final NuncleOutput output = new NuncleOutput();
+
     // Boundary state
-    @Nullable private Double boundaryCenterX;
-    @Nullable private Double boundaryCenterZ;
-    @Nullable private Double boundaryRadius;
+    // Replaced whole, never mutated, so any thread reading it sees a consistent boundary
+    @Nullable private volatile NuncleBoundary boundary;
+
+    // Action queue state
+    private final ArrayDeque<NuncleAction> plan = new ArrayDeque<>();
+    @Nullable private NuncleAction currentAction;
+    private int actionIndex;
+    @Nullable private Vec3 approachTarget;
+    private int approachStallTicks;
+    private double approachBestDist;
+
+    // Push-based perception alerts
+    private final NuncleTriggers triggers = new NuncleTriggers();
+
+    // Dedupe / rate limit / batching in front of HEARD
+    private final NuncleChatFilter chatFilter = new NuncleChatFilter();
+
+    // Commands from other threads, applied in arrival order at the start of the next tick
+    private final ConcurrentLinkedQueue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+
+    // Scales perception and tick work with server MSPT
+    private final NuncleLoadShedder loadShedder = new NuncleLoadShedder();
+
+    // Heavy commands held back by the load shedder, started a few per tick
+    private final ArrayDeque<DeferredCommand> deferred = new ArrayDeque<>();
+
+    private record DeferredCommand(String input, boolean plan, Supplier<String> command) {}
+
+    // Observe sections reused until a dirty flag says otherwise
+    private final NuncleObservationCache observationCache = new NuncleObservationCache();
+
+    // String table for binary observe, one session per NPC manager
+    private final NuncleObservationCodec.Encoder observationEncoder = new NuncleObservationCodec.Encoder();
 
     // Announcement timer (~10 min = 12000 ticks)
     private static final int LOCATION_ANNOUNCE_INTERVAL = 12000;
@@ -60,6 +121,8 @@ public class NunclePlayer {
 
     public NunclePlayer(MinecraftServer server) {
         this.server = server;
+        this.schematics = new NuncleSchematics(server);
+        backpack.addListener(observationCache);
     }
 
     public boolean isAlive() {
@@ -71,58 +134,155 @@ public class NunclePlayer {
         return npc;
     }
 
+    public NuncleTriggers getTriggers() {
+        return triggers;
+    }
+
+    public NuncleChatFilter getChatFilter() {
+        return chatFilter;
+    }
+
+    /** The NPC's inventory; kept while despawned, emptied by death */
+    public NuncleBackpack getBackpack() {
+        return backpack;
+    }
+
+    /** Item index over the NPC's inventory */
+    public NuncleInventoryIndex getInventoryIndex() {
+        return inventoryIndex;
+    }
+
+    public NuncleObservationCache getObservationCache() {
+        return observationCache;
+    }
+
+    public NuncleObservationCodec.Encoder getObservationEncoder() {
+        return observationEncoder;
+    }
+
+    public NuncleSchematics getSchematics() {
+        return schematics;
+    }
+
+    public NuncleLoadShedder getLoadShedder() {
+        return loadShedder;
+    }
+
+    public NuncleOutput getOutput() {
+        return output;
+    }
+
+    // --- Command mailbox ---
+
+    /**
+     * Run a command against NPC state on the server thread. Called on the
+     * server thread it runs right away (after anything already queued);
+     * from any other thread it is queued and the future completes during
+     * the next tick.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> command) {
+        if (server.isSameThread()) {
+            drainMailbox();
+            try {
+                return CompletableFuture.completedFuture(command.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        mailbox.add(() -> {
+            try {
+                future.complete(command.get());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /** Apply every queued command; server thread only */
+    void drainMailbox() {
+        Runnable command;
+        while ((command = mailbox.poll()) != null) {
+            command.run();
+        }
+    }
+
+    /**
+     * Hold a heavy command back until the load shedder lets it start; its
+     * result is reported as DEFERRED_DONE. A plan submission ({@code plan})
+     * is dropped again by a plan clear. Server thread only.
+     */
+    public String defer(String input, boolean plan, Supplier<String> command) {
+        deferred.add(new DeferredCommand(input, plan, command));
+        NuncleEvents.emit("DEFERRED", "{} queued={}", input, deferred.size());
+        return "Server under load (" + loadShedder.level() + "), queued: " + input;
+    }
+
+    private void runDeferred() {
+        int budget = loadShedder.level().commandBudget;
+        for (int i = 0; i < budget && !deferred.isEmpty(); i++) {
+            DeferredCommand next = deferred.poll();
+            NuncleJfr.Command event = new NuncleJfr.Command();
+            event.begin();
+            String reply;
+            try {
+                reply = next.command().get();
+            } catch (RuntimeException e) {
+                reply = "Command failed: " + e.getMessage();
+            }
+            event.finish(next.input(), this, reply);
+            NuncleEvents.emit("DEFERRED_DONE", "{}: {}", next.input(), reply);
+        }
+    }
+
+    public String getLoadInfo() {
+        return loadShedder.info() + (deferred.isEmpty() ? "" : ", " + deferred.size() + " command(s) queued");
+    }
+
+    public String forceLoadLevel(@Nullable NuncleLoadShedder.Level level) {
+        return loadShedder.force(level, server.getTickCount());
+    }
+
     // --- Boundary methods ---
 
     public String setBoundary(double x, double z, double radius) {
-        this.boundaryCenterX = x;
-        this.boundaryCenterZ = z;
-        this.boundaryRadius = radius;
-        NuncleMod.LOGGER.info("[NUNCLE] BOUNDARY_SET center=({},{}) radius={}", (int) x, (int) z, (int) radius);
+        this.boundary = new NuncleBoundary(x, z, radius);
+        NuncleEvents.emit("BOUNDARY_SET", "center=({},{}) radius={}", (int) x, (int) z, (int) radius);
         return "Boundary set: center (" + (int) x + ", " + (int) z + ") radius " + (int) radius;
     }
 
     public String clearBoundary() {
-        this.boundaryCenterX = null;
-        this.boundaryCenterZ = null;
-        this.boundaryRadius = null;
-        NuncleMod.LOGGER.info("[NUNCLE] BOUNDARY_CLEARED");
+        this.boundary = null;
+        NuncleEvents.emit("BOUNDARY_CLEARED");
         return "Boundary cleared";
     }
 
     public String getBoundaryInfo() {
-        if (boundaryCenterX == null) {
+        NuncleBoundary b = boundary;
+        if (b == null) {
             return "No boundary set";
         }
-        String info = "Boundary: center (" + boundaryCenterX.intValue() + ", " + boundaryCenterZ.intValue() +
-            ") radius " + boundaryRadius.intValue();
+        String info = "Boundary: center (" + (int) b.centerX() + ", " + (int) b.centerZ() +
+            ") radius " + (int) b.radius();
         if (isAlive()) {
-            double dist = distFromBoundaryCenter(npc.getX(), npc.getZ());
+            double dist = b.distanceFromCenter(npc.getX(), npc.getZ());
             info += " | NPC is " + (int) dist + " blocks from center (" +
-                (int) (boundaryRadius - dist) + " from edge)";
+                (int) (b.radius() - dist) + " from edge)";
         }
         return info;
     }
 
-    private boolean isInsideBoundary(double x, double z) {
-        if (boundaryCenterX == null) return true;
-        return distFromBoundaryCenter(x, z) <= boundaryRadius;
-    }
-
-    private double distFromBoundaryCenter(double x, double z) {
-        double dx = x - boundaryCenterX;
-        double dz = z - boundaryCenterZ;
-        return Math.sqrt(dx * dx + dz * dz);
+    boolean isInsideBoundary(double x, double z) {
+        NuncleBoundary b = boundary;
+        return b == null || b.contains(x, z);
     }
 
-    /** Clamp a point to the boundary edge. Returns {x, z}. */
-    private double[] clampToBoundary(double x, double z) {
-        if (boundaryCenterX == null) return new double[]{x, z};
-        double dx = x - boundaryCenterX;
-        double dz = z - boundaryCenterZ;
-        double dist = Math.sqrt(dx * dx + dz * dz);
-        if (dist <= boundaryRadius) return new double[]{x, z};
-        double scale = boundaryRadius / dist;
-        return new double[]{boundaryCenterX + dx * scale, boundaryCenterZ + dz * scale};
+    /** Movement destination with x/z clamped to the boundary */
+    Vec3 clampedTarget(double x, double y, double z) {
+        NuncleBoundary b = boundary;
+        if (b == null) return new Vec3(x, y, z);
+        return new Vec3(b.clampX(x, z), y, b.clampZ(x, z));
     }
 
     // --- Spawn/despawn ---
@@ -141,6 +301,10 @@ public class NunclePlayer {
         npc.setInvulnerable(false);
         npc.setPersistenceRequired();
         npc.setNoAi(false);
+        NuncleBackpackStore.get(server).restore(backpack);
+        observationCache.invalidateAll();
+        terrain.clear(); // block changes are only tracked while the NPC is alive
+        output.reset();
 
         // Clear default villager AI, add idle look
         npc.goalSelector.removeAllGoals(g -> true);
@@ -151,7 +315,7 @@ public class NunclePlayer {
         level.addFreshEntity(npc);
         locationAnnounceTick = 0;
 
-        NuncleMod.LOGGER.info("[NUNCLE] SPAWNED {} {} {}",
+        NuncleEvents.emit("SPAWNED", "{} {} {}",
             (int) x, (int) y, (int) z);
 
         broadcastAnnouncement(NuncleMod.NPC_NAME + " has arrived at " +
@@ -170,49 +334,83 @@ public class NunclePlayer {
         if (npc == null || !npc.isAlive()) {
             return "NuncleNelson is not spawned";
         }
+        NuncleBackpackStore.get(server).stash(backpack); // for the next spawn, even after a restart
         npc.discard();
         npc = null;
         followTarget = null;
-        attackTarget = null;
+        combat.stop();
+        autoPickup.disable();
+        chunks.release();
         wandering = false;
         thinking = false;
-        NuncleMod.LOGGER.info("[NUNCLE] DESPAWNED");
+        triggers.reset();
+        chatFilter.reset();
+        terrain.clear();
+        cancelPlan("despawned");
+        NuncleEvents.emit("DESPAWNED");
         return "NuncleNelson despawned";
     }
 
     // --- Chat ---
 
     public String chat(String message) {
+        return chat(message, null);
+    }
+
+    /** Say something to players nearby; {@code asker} hears it from anywhere */
+    public String chat(String message, @Nullable ServerPlayer asker) {
         if (!isAlive()) return "NuncleNelson is not spawned";
 
-        Component chatMsg = Component.empty()
-            .append(Component.literal("<"))
-            .append(Component.literal(NuncleMod.NPC_NAME).withStyle(ChatFormatting.GOLD))
-            .append(Component.literal("> " + message));
-        server.getPlayerList().broadcastSystemMessage(chatMsg, false);
+        output.chat(npc, message, asker);
 
-        NuncleMod.LOGGER.info("[NUNCLE] SAID {}", message);
+        NuncleEvents.emit("SAID", "{}", message);
         return "Said: " + message;
     }
 
     // --- Movement (boundary-aware) ---
 
+    /** Every path request goes through here so it shows up as a JFR navigation event */
+    static boolean navigate(Villager npc, double x, double y, double z, double speed) {
+        NuncleJfr.Navigation event = new NuncleJfr.Navigation();
+        event.begin();
+        boolean found = npc.getNavigation().moveTo(x, y, z, speed);
+        event.finish(npc, x, y, z, found);
+        return found;
+    }
+
+    static boolean navigate(Villager npc, Entity target, double speed) {
+        NuncleJfr.Navigation event = new NuncleJfr.Navigation();
+        event.begin();
+        boolean found = npc.getNavigation().moveTo(target, speed);
+        event.finish(npc, target.getX(), target.getY(), target.getZ(), found);
+        return found;
+    }
+
     public String goTo(double x, double y, double z) {
         if (!isAlive()) return "NuncleNelson is not spawned";
+        cancelPlan("goto");
         followTarget = null;
         wandering = false;
-        attackTarget = null;
+        combat.stop();
+        chunks.cancel();
 
         // Clamp destination to boundary
-        double[] clamped = clampToBoundary(x, z);
-        boolean wasClamped = clamped[0] != x || clamped[1] != z;
+        NuncleBoundary b = boundary;
+        double cx = b == null ? x : b.clampX(x, z);
+        double cz = b == null ? z : b.clampZ(x, z);
+        boolean wasClamped = cx != x || cz != z;
 
-        boolean started = npc.getNavigation().moveTo(clamped[0], y, clamped[1], 1.0);
-        String dest = (int) clamped[0] + " " + (int) y + " " + (int) clamped[1];
+        String dest = (int) cx + " " + (int) y + " " + (int) cz;
         if (wasClamped) {
-            NuncleMod.LOGGER.info("[NUNCLE] BOUNDARY_CLAMPED goto from ({},{}) to ({},{})",
-                (int) x, (int) z, (int) clamped[0], (int) clamped[1]);
+            NuncleEvents.emit("BOUNDARY_CLAMPED", "goto from ({},{}) to ({},{})",
+                (int) x, (int) z, (int) cx, (int) cz);
+        }
+        chunks.plan(npc, cx, cz);
+        if (!chunks.isLoaded(cx, cz)) {
+            chunks.defer(cx, y, cz, false);
+            return "Loading chunks toward " + dest + (wasClamped ? " (clamped to boundary)" : "");
         }
+        boolean started = navigate(npc, cx, y, cz, 1.0);
         if (started) {
             return wasClamped ? "Moving to " + dest + " (clamped to boundary)" : "Moving to " + dest;
         }
@@ -227,16 +425,20 @@ public class NunclePlayer {
             return "Player " + playerName + " not found";
         }
 
+        cancelPlan("follow");
         followTarget = target;
+        followRepathIn = 0;
         wandering = false;
-        attackTarget = null;
+        combat.stop();
+        chunks.cancel();
         return "Following " + playerName;
     }
 
     public String wander() {
         if (!isAlive()) return "NuncleNelson is not spawned";
+        cancelPlan("wander");
         followTarget = null;
-        attackTarget = null;
+        combat.stop();
         wandering = true;
         wanderCooldown = 0;
         doWander();
@@ -245,9 +447,11 @@ public class NunclePlayer {
 
     public String stay() {
         if (!isAlive()) return "NuncleNelson is not spawned";
+        cancelPlan("stay");
         followTarget = null;
         wandering = false;
-        attackTarget = null;
+        combat.stop();
+        chunks.cancel();
         npc.getNavigation().stop();
         return "Staying in place";
     }
@@ -258,36 +462,78 @@ public class NunclePlayer {
         return "Looking at " + (int) x + " " + (int) y + " " + (int) z;
     }
 
-    public String attack(String entityType) {
+    /** Hunt every mob of a type ("hostile" for all hostiles) in range, one after another */
+    public String attack(String entityType, double radius) {
         if (!isAlive()) return "NuncleNelson is not spawned";
 
-        AABB area = npc.getBoundingBox().inflate(16.0);
-        List<Entity> nearby = npc.level().getEntities(npc, area);
-
-        LivingEntity closest = null;
-        double closestDist = Double.MAX_VALUE;
-
-        for (Entity e : nearby) {
-            if (!(e instanceof LivingEntity le)) continue;
-            String name = EntityType.getKey(e.getType()).getPath();
-            if (!name.equals(entityType)) continue;
-            // Skip targets outside boundary
-            if (!isInsideBoundary(e.getX(), e.getZ())) continue;
-            double dist = npc.distanceTo(e);
-            if (dist < closestDist) {
-                closest = le;
-                closestDist = dist;
+        EntityType<?> type = null;
+        if (!entityType.equals("hostile") && !entityType.equals("hostiles")) {
+            type = EntityType.byString(entityType).orElse(null);
+            if (type == null) {
+                return "Unknown entity type: " + entityType;
             }
         }
 
-        if (closest == null) {
+        int count = combat.countTargets(this, type, radius);
+        if (count == 0) {
             return "No " + entityType + " found nearby";
         }
 
-        attackTarget = closest;
+        cancelPlan("attack");
         followTarget = null;
         wandering = false;
-        return "Attacking " + entityType + " (" + (int) closestDist + " blocks away)";
+        chunks.cancel();
+        combat.engage(type, entityType, radius);
+        return "Attacking " + entityType + " (" + count + " in range)";
+    }
+
+    public String attack(String entityType) {
+        return attack(entityType, NuncleCombat.DEFAULT_RADIUS);
+    }
+
+    /** Terrain grid around the NPC, see {@link NuncleTerrain#summarize} */
+    public String getTerrain(int radius) {
+        if (!isAlive()) return "{\"alive\":false}";
+        return terrain.summarize(npc, radius);
+    }
+
+    public String getTerrainInfo() {
+        return terrain.info();
+    }
+
+    public String getChunkInfo() {
+        return chunks.info();
+    }
+
+    /** A move is waiting for its destination chunk to load */
+    boolean hasPendingMove() {
+        return chunks.hasPendingMove();
+    }
+
+    /** What the NPC is doing, as {@link NuncleTraceFile} state flags */
+    public int getTraceFlags() {
+        if (!isAlive()) return 0;
+        int flags = NuncleTraceFile.ALIVE;
+        if (wandering) flags |= NuncleTraceFile.WANDERING;
+        if (followTarget != null) flags |= NuncleTraceFile.FOLLOWING;
+        if (currentAction != null || !plan.isEmpty()) flags |= NuncleTraceFile.PLAN;
+        if (combat.isActive()) flags |= NuncleTraceFile.COMBAT;
+        return flags;
+    }
+
+    public String getWaypointInfo() {
+        return waypoints.info();
+    }
+
+    public String getCombatInfo() {
+        return combat.info();
+    }
+
+    public String stopCombat() {
+        if (!combat.isActive()) return "Not fighting";
+        combat.stop();
+        if (isAlive()) npc.getNavigation().stop();
+        return "Stopped fighting";
     }
 
     // --- Mining (boundary-aware) ---
@@ -299,26 +545,83 @@ public class NunclePlayer {
             return "Cannot mine outside boundary";
         }
 
-        ServerLevel level = (ServerLevel) npc.level();
         BlockPos pos = new BlockPos(x, y, z);
-        BlockState state = level.getBlockState(pos);
-
-        if (state.isAir()) {
+        if (npc.level().getBlockState(pos).isAir()) {
             return "No block at " + x + " " + y + " " + z;
         }
 
         double dist = npc.position().distanceTo(Vec3.atCenterOf(pos));
-        if (dist > 6.0) {
-            npc.getNavigation().moveTo(x, y + 1, z, 1.0);
+        if (dist > REACH) {
+            navigate(npc, x, y + 1, z, 1.0);
             return "Too far to mine (" + (int) dist + " blocks). Moving closer.";
         }
 
+        return mineAt(pos).message();
+    }
+
+    /** Break a block the NPC is already in reach of */
+    NuncleAction.Result mineAt(BlockPos pos) {
+        ServerLevel level = (ServerLevel) npc.level();
+        BlockState state = level.getBlockState(pos);
+        String at = pos.getX() + " " + pos.getY() + " " + pos.getZ();
+
+        if (state.isAir()) {
+            return NuncleAction.Result.fail("No block at " + at);
+        }
+
         String blockName = state.getBlock().getDescriptionId();
         boolean broken = level.destroyBlock(pos, true, npc);
         if (broken) {
-            return "Mined " + blockName + " at " + x + " " + y + " " + z;
+            return NuncleAction.Result.ok("Mined " + blockName + " at " + at);
+        }
+        return NuncleAction.Result.fail("Failed to mine block at " + at);
+    }
+
+    public String mineArea(BlockPos from, BlockPos to, int blocksPerTick) {
+        if (!isAlive()) return "NuncleNelson is not spawned";
+        try {
+            return submitPlan(List.of(NuncleMiningJob.area(from, to, blocksPerTick)), true);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
         }
-        return "Failed to mine block at " + x + " " + y + " " + z;
+    }
+
+    public String mineVein(BlockPos origin, int blocksPerTick) {
+        if (!isAlive()) return "NuncleNelson is not spawned";
+        return submitPlan(List.of(NuncleMiningJob.vein(origin, blocksPerTick)), true);
+    }
+
+    /**
+     * Break a block in reach and put its drops straight into the inventory
+     * (overflow spills on the ground). Tallies collected items by name.
+     */
+    boolean harvestAt(BlockPos pos, Map<String, Integer> collected) {
+        ServerLevel level = (ServerLevel) npc.level();
+        BlockState state = level.getBlockState(pos);
+        if (state.isAir()) return false;
+
+        List<ItemStack> drops = Block.getDrops(state, level, pos, level.getBlockEntity(pos), npc, ItemStack.EMPTY);
+        if (!level.destroyBlock(pos, false, npc)) return false;
+
+        for (ItemStack drop : drops) {
+            String name = drop.getItem().getDescriptionId()
+                .replace("item.minecraft.", "").replace("block.minecraft.", "");
+            collected.merge(name, drop.getCount(), Integer::sum);
+            inventoryIndex.insert(drop);
+            if (!drop.isEmpty()) {
+                Block.popResource(level, npc.blockPosition(), drop);
+            }
+        }
+        return true;
+    }
+
+    // --- Building ---
+
+    public String build(String schematicId, BlockPos origin, int blocksPerTick) {
+        if (!isAlive()) return "NuncleNelson is not spawned";
+        NuncleSchematic schematic = schematics.get(schematicId);
+        if (schematic == null) return "No schematic " + schematicId + " (upload it first)";
+        return submitPlan(List.of(new NuncleBuildJob(schematicId, schematic, origin, blocksPerTick)), true);
     }
 
     // --- Block placement (boundary-aware) ---
@@ -332,20 +635,26 @@ public class NunclePlayer {
 
         BlockPos pos = new BlockPos(x, y, z);
         double dist = npc.position().distanceTo(Vec3.atCenterOf(pos));
-        if (dist > 6.0) {
-            npc.getNavigation().moveTo(x, y + 1, z, 1.0);
+        if (dist > REACH) {
+            navigate(npc, x, y + 1, z, 1.0);
             return "Too far to place block (" + (int) dist + " blocks). Moving closer.";
         }
 
+        return placeAt(pos, blockName).message();
+    }
+
+    /** Place a block from inventory at a position the NPC is already in reach of */
+    NuncleAction.Result placeAt(BlockPos pos, String blockName) {
         ServerLevel level = (ServerLevel) npc.level();
+        String at = pos.getX() + " " + pos.getY() + " " + pos.getZ();
         BlockState currentState = level.getBlockState(pos);
         if (!currentState.canBeReplaced()) {
-            return "Cannot place block at " + x + " " + y + " " + z + " - position is not empty";
+            return NuncleAction.Result.fail("Cannot place block at " + at + " - position is not empty");
         }
 
         // Find matching BlockItem in inventory
-        for (int i = 0; i < npc.getInventory().getContainerSize(); i++) {
-            ItemStack stack = npc.getInventory().getItem(i);
+        for (int i = 0; i < backpack.getContainerSize(); i++) {
+            ItemStack stack = backpack.getItem(i);
             if (stack.isEmpty()) continue;
             if (!(stack.getItem() instanceof BlockItem blockItem)) continue;
 
@@ -355,18 +664,55 @@ public class NunclePlayer {
 
             level.setBlock(pos, blockItem.getBlock().defaultBlockState(), 3);
             stack.shrink(1);
-            if (stack.isEmpty()) npc.getInventory().setItem(i, ItemStack.EMPTY);
-            return "Placed " + itemName + " at " + x + " " + y + " " + z;
+            if (stack.isEmpty()) backpack.setItem(i, ItemStack.EMPTY);
+            backpack.setChanged();
+            return NuncleAction.Result.ok("Placed " + itemName + " at " + at);
         }
 
-        return "No " + blockName + " blocks in inventory";
+        return NuncleAction.Result.fail("No " + blockName + " blocks in inventory");
     }
 
     // --- Item pickup/drop ---
 
+    public String autoPickup(double radius, List<String> filters) {
+        if (!isAlive()) return "NuncleNelson is not spawned";
+        return autoPickup.enable(this, radius, filters);
+    }
+
+    public String stopAutoPickup() {
+        if (!autoPickup.isEnabled()) return "Auto-pickup is already off";
+        return autoPickup.disable();
+    }
+
+    public String getAutoPickupInfo() {
+        return autoPickup.info();
+    }
+
+    /** Called from EntityJoinLevelEvent for every item entity on the server */
+    public void onItemJoined(ItemEntity item) {
+        if (isAlive()) autoPickup.onItemJoined(npc, item);
+    }
+
+    /** An entity joined, left or changed section; sectionPos is a packed SectionPos */
+    public void onEntitySectionChange(Level level, long sectionPos) {
+        if (isAlive() && level == npc.level()) observationCache.onEntityChange(npc, sectionPos);
+    }
+
+    public void onBlockChange(LevelAccessor level, BlockPos pos) {
+        if (isAlive() && level == npc.level()) {
+            observationCache.onBlockChange(npc, pos);
+            waypoints.onBlockChange(pos);
+            terrain.onBlockChange(pos);
+        }
+    }
+
     public String pickup(@Nullable String itemFilter) {
         if (!isAlive()) return "NuncleNelson is not spawned";
+        return pickupItems(itemFilter).message();
+    }
 
+    /** Pick up nearby drops; fails when nothing in range matched, so a plan can react */
+    NuncleAction.Result pickupItems(@Nullable String itemFilter) {
         AABB area = npc.getBoundingBox().inflate(6.0);
         List<Entity> entities = npc.level().getEntities(npc, area);
 
@@ -376,6 +722,7 @@ public class NunclePlayer {
             if (!itemEntity.isAlive()) continue;
 
             ItemStack stack = itemEntity.getItem();
+            if (!inventoryIndex.hasSpaceFor(stack)) continue;
             String itemName = stack.getItem().getDescriptionId()
                 .replace("item.minecraft.", "").replace("block.minecraft.", "");
 
@@ -384,29 +731,29 @@ public class NunclePlayer {
                 continue;
             }
 
-            ItemStack remainder = npc.getInventory().addItem(stack.copy());
-            if (remainder.getCount() < stack.getCount()) {
-                int taken = stack.getCount() - remainder.getCount();
-                if (remainder.isEmpty()) {
-                    itemEntity.discard();
-                } else {
-                    itemEntity.setItem(remainder);
-                }
+            int taken = inventoryIndex.insert(stack);
+            if (taken > 0) {
+                npc.take(itemEntity, taken);
+                if (stack.isEmpty()) itemEntity.discard();
+                else itemEntity.setItem(stack); // resync the smaller count to clients
                 pickedUp.add(taken + "x " + itemName);
             }
         }
 
         if (pickedUp.isEmpty()) {
-            return itemFilter != null ? "No " + itemFilter + " found nearby" : "No items found nearby";
+            return NuncleAction.Result.fail(itemFilter != null ? "No " + itemFilter + " found nearby" : "No items found nearby");
         }
-        return "Picked up: " + String.join(", ", pickedUp);
+        return NuncleAction.Result.ok("Picked up: " + String.join(", ", pickedUp));
     }
 
     public String dropItem(String itemName) {
         if (!isAlive()) return "NuncleNelson is not spawned";
+        return dropStack(itemName).message();
+    }
 
-        for (int i = 0; i < npc.getInventory().getContainerSize(); i++) {
-            ItemStack stack = npc.getInventory().getItem(i);
+    NuncleAction.Result dropStack(String itemName) {
+        for (int i = 0; i < backpack.getContainerSize(); i++) {
+            ItemStack stack = backpack.getItem(i);
             if (stack.isEmpty()) continue;
 
             String name = stack.getItem().getDescriptionId()
@@ -414,14 +761,16 @@ public class NunclePlayer {
             if (!name.toLowerCase().contains(itemName.toLowerCase())) continue;
 
             // Drop the whole stack
-            npc.getInventory().removeItem(i, stack.getCount());
+            ItemStack removed = backpack.removeItemNoUpdate(i);
+            backpack.setChanged();
             ItemEntity dropped = new ItemEntity(
-                npc.level(), npc.getX(), npc.getY(), npc.getZ(), stack);
+                npc.level(), npc.getX(), npc.getY(), npc.getZ(), removed);
+            dropped.setThrower(npc.getUUID()); // so auto-pickup leaves it alone
             npc.level().addFreshEntity(dropped);
-            return "Dropped " + stack.getCount() + "x " + name;
+            return NuncleAction.Result.ok("Dropped " + removed.getCount() + "x " + name);
         }
 
-        return "No " + itemName + " in inventory";
+        return NuncleAction.Result.fail("No " + itemName + " in inventory");
     }
 
     // --- Container access (boundary-aware) ---
@@ -435,15 +784,20 @@ public class NunclePlayer {
 
         BlockPos pos = new BlockPos(x, y, z);
         double dist = npc.position().distanceTo(Vec3.atCenterOf(pos));
-        if (dist > 6.0) {
-            npc.getNavigation().moveTo(x, y, z, 1.0);
+        if (dist > REACH) {
+            navigate(npc, x, y, z, 1.0);
             return "Too far (" + (int) dist + " blocks). Moving closer.";
         }
 
+        return takeFrom(pos, itemFilter, count).message();
+    }
+
+    /** Move items from a container the NPC is already in reach of into its inventory */
+    NuncleAction.Result takeFrom(BlockPos pos, @Nullable String itemFilter, int count) {
         ServerLevel level = (ServerLevel) npc.level();
         var be = level.getBlockEntity(pos);
         if (!(be instanceof Container container)) {
-            return "No container at " + x + " " + y + " " + z;
+            return NuncleAction.Result.fail("No container at " + pos.getX() + " " + pos.getY() + " " + pos.getZ());
         }
 
         List<String> taken = new ArrayList<>();
@@ -458,11 +812,13 @@ public class NunclePlayer {
             if (itemFilter != null && !itemFilter.isEmpty()
                 && !name.toLowerCase().contains(itemFilter.toLowerCase())) continue;
 
+            if (!inventoryIndex.hasSpaceFor(stack)) {
+                taken.add("(inventory full)");
+                break;
+            }
             int toTake = Math.min(remaining, stack.getCount());
-            ItemStack toInsert = stack.copy();
-            toInsert.setCount(toTake);
-            ItemStack leftover = npc.getInventory().addItem(toInsert);
-            int actuallyTaken = toTake - leftover.getCount();
+            ItemStack toInsert = stack.copyWithCount(toTake);
+            int actuallyTaken = inventoryIndex.insert(toInsert);
 
             if (actuallyTaken > 0) {
                 stack.shrink(actuallyTaken);
@@ -471,7 +827,7 @@ public class NunclePlayer {
                 remaining -= actuallyTaken;
             }
 
-            if (!leftover.isEmpty()) {
+            if (!toInsert.isEmpty()) {
                 taken.add("(inventory full)");
                 break;
             }
@@ -480,9 +836,9 @@ public class NunclePlayer {
         container.setChanged();
 
         if (taken.isEmpty()) {
-            return itemFilter != null ? "No " + itemFilter + " in container" : "Container is empty";
+            return NuncleAction.Result.fail(itemFilter != null ? "No " + itemFilter + " in container" : "Container is empty");
         }
-        return "Took: " + String.join(", ", taken);
+        return NuncleAction.Result.ok("Took: " + String.join(", ", taken));
     }
 
     public String putInContainer(int x, int y, int z, String itemName, int count) {
@@ -494,22 +850,27 @@ public class NunclePlayer {
 
         BlockPos pos = new BlockPos(x, y, z);
         double dist = npc.position().distanceTo(Vec3.atCenterOf(pos));
-        if (dist > 6.0) {
-            npc.getNavigation().moveTo(x, y, z, 1.0);
+        if (dist > REACH) {
+            navigate(npc, x, y, z, 1.0);
             return "Too far (" + (int) dist + " blocks). Moving closer.";
         }
 
+        return putInto(pos, itemName, count).message();
+    }
+
+    /** Move items from the NPC's inventory into a container it is already in reach of */
+    NuncleAction.Result putInto(BlockPos pos, String itemName, int count) {
         ServerLevel level = (ServerLevel) npc.level();
         var be = level.getBlockEntity(pos);
         if (!(be instanceof Container container)) {
-            return "No container at " + x + " " + y + " " + z;
+            return NuncleAction.Result.fail("No container at " + pos.getX() + " " + pos.getY() + " " + pos.getZ());
         }
 
         List<String> put = new ArrayList<>();
         int remaining = count;
 
-        for (int i = 0; i < npc.getInventory().getContainerSize() && remaining > 0; i++) {
-            ItemStack stack = npc.getInventory().getItem(i);
+        for (int i = 0; i < backpack.getContainerSize() && remaining > 0; i++) {
+            ItemStack stack = backpack.getItem(i);
             if (stack.isEmpty()) continue;
 
             String name = stack.getItem().getDescriptionId()
@@ -541,25 +902,29 @@ public class NunclePlayer {
 
             if (moved > 0) {
                 stack.shrink(moved);
-                if (stack.isEmpty()) npc.getInventory().setItem(i, ItemStack.EMPTY);
+                if (stack.isEmpty()) backpack.setItem(i, ItemStack.EMPTY);
                 put.add(moved + "x " + name);
                 remaining -= moved;
             }
         }
 
         container.setChanged();
+        backpack.setChanged();
 
         if (put.isEmpty()) {
-            return "No " + itemName + " in inventory (or container is full)";
+            return NuncleAction.Result.fail("No " + itemName + " in inventory (or container is full)");
         }
-        return "Put: " + String.join(", ", put);
+        return NuncleAction.Result.ok("Put: " + String.join(", ", put));
     }
 
     // --- Crafting ---
 
     public String craft(String itemName) {
         if (!isAlive()) return "NuncleNelson is not spawned";
+        return craftItem(itemName).message();
+    }
 
+    NuncleAction.Result craftItem(String itemName) {
         // Normalize input: "wooden_pickaxe" or "wooden pickaxe" → match against registry
         String normalized = itemName.trim().toLowerCase().replace(" ", "_");
 
@@ -573,7 +938,7 @@ public class NunclePlayer {
             }
         }
         if (targetItem == null) {
-            return "Unknown item: " + itemName;
+            return NuncleAction.Result.fail("Unknown item: " + itemName);
         }
 
         // Find a crafting recipe that outputs this item
@@ -587,7 +952,7 @@ public class NunclePlayer {
             }
         }
         if (matchedRecipe == null) {
-            return "No crafting recipe found for " + itemName;
+            return NuncleAction.Result.fail("No crafting recipe found for " + itemName);
         }
 
         // Count required ingredients (handles shaped + shapeless)
@@ -602,86 +967,215 @@ public class NunclePlayer {
         }
 
         if (requiredItems.isEmpty()) {
-            return "Recipe has no ingredients (unexpected)";
+            return NuncleAction.Result.fail("Recipe has no ingredients (unexpected)");
         }
 
         // Check NPC inventory has all required ingredients
-        Map<Item, Integer> available = new HashMap<>();
-        for (int i = 0; i < npc.getInventory().getContainerSize(); i++) {
-            ItemStack stack = npc.getInventory().getItem(i);
-            if (!stack.isEmpty()) {
-                available.merge(stack.getItem(), stack.getCount(), Integer::sum);
-            }
-        }
-
         for (Map.Entry<Item, Integer> req : requiredItems.entrySet()) {
-            int have = available.getOrDefault(req.getKey(), 0);
+            int have = inventoryIndex.count(req.getKey());
             if (have < req.getValue()) {
                 String reqName = ForgeRegistries.ITEMS.getKey(req.getKey()).getPath();
-                return "Missing materials: need " + req.getValue() + "x " + reqName + " (have " + have + ")";
+                return NuncleAction.Result.fail("Missing materials: need " + req.getValue() + "x " + reqName + " (have " + have + ")");
             }
         }
 
         // Remove ingredients from inventory
         for (Map.Entry<Item, Integer> req : requiredItems.entrySet()) {
-            int toRemove = req.getValue();
-            for (int i = 0; i < npc.getInventory().getContainerSize() && toRemove > 0; i++) {
-                ItemStack stack = npc.getInventory().getItem(i);
-                if (stack.isEmpty() || stack.getItem() != req.getKey()) continue;
-                int take = Math.min(toRemove, stack.getCount());
-                stack.shrink(take);
-                if (stack.isEmpty()) npc.getInventory().setItem(i, ItemStack.EMPTY);
-                toRemove -= take;
-            }
+            inventoryIndex.consume(req.getKey(), req.getValue());
         }
 
         // Add crafted result to inventory
         ItemStack result = matchedRecipe.getResultItem(server.registryAccess()).copy();
-        ItemStack leftover = npc.getInventory().addItem(result);
-        if (!leftover.isEmpty()) {
+        int crafted = result.getCount();
+        String resultName = ForgeRegistries.ITEMS.getKey(result.getItem()).getPath();
+        inventoryIndex.insert(result);
+        if (!result.isEmpty()) {
             // Inventory full — drop overflow
             ItemEntity dropped = new ItemEntity(
-                npc.level(), npc.getX(), npc.getY(), npc.getZ(), leftover);
+                npc.level(), npc.getX(), npc.getY(), npc.getZ(), result);
+            dropped.setThrower(npc.getUUID());
             npc.level().addFreshEntity(dropped);
         }
 
-        String resultName = ForgeRegistries.ITEMS.getKey(result.getItem()).getPath();
-        return "Crafted " + result.getCount() + "x " + resultName;
+        return NuncleAction.Result.ok("Crafted " + crafted + "x " + resultName);
+    }
+
+    // --- Action queue ---
+
+    /** Queue a multi-step plan; replaces the current plan unless appending */
+    public String submitPlan(List<NuncleAction> steps, boolean append) {
+        if (!isAlive()) return "NuncleNelson is not spawned";
+        if (!append) cancelPlan("replaced");
+        if (currentAction == null && plan.isEmpty()) actionIndex = 0;
+        plan.addAll(steps);
+        followTarget = null;
+        wandering = false;
+        combat.stop();
+        chunks.cancel();
+        return (append ? "Appended " : "Queued ") + steps.size() + " step(s), " +
+            (plan.size() + (currentAction != null ? 1 : 0)) + " pending";
+    }
+
+    public String clearPlan() {
+        int pending = plan.size() + (currentAction != null ? 1 : 0) + dropDeferredPlans();
+        cancelPlan("cleared");
+        return pending > 0 ? "Cleared " + pending + " pending step(s)" : "No plan running";
+    }
+
+    public String getPlanInfo() {
+        if (currentAction == null && plan.isEmpty()) return "No plan running";
+        StringBuilder sb = new StringBuilder();
+        if (currentAction != null) {
+            sb.append("Step ").append(actionIndex).append(": ").append(currentAction.describe());
+        }
+        for (NuncleAction next : plan) {
+            if (sb.length() > 0) sb.append(" | ");
+            sb.append("next: ").append(next.describe());
+        }
+        return sb.toString();
+    }
+
+    /** Drop queued plan submissions, reporting each; other deferred commands still run */
+    private int dropDeferredPlans() {
+        int dropped = 0;
+        for (Iterator<DeferredCommand> it = deferred.iterator(); it.hasNext(); ) {
+            DeferredCommand next = it.next();
+            if (!next.plan()) continue;
+            it.remove();
+            dropped++;
+            NuncleEvents.emit("DEFERRED_CANCELLED", "{}: plan cleared", next.input());
+        }
+        return dropped;
+    }
+
+    private void cancelPlan(String reason) {
+        if (currentAction == null && plan.isEmpty()) return;
+        plan.clear();
+        currentAction = null;
+        NuncleEvents.emit("PLAN_CANCELLED", "{}", reason);
+    }
+
+    private void tickPlan() {
+        if (currentAction == null) {
+            currentAction = plan.poll();
+            if (currentAction == null) return;
+            actionIndex++;
+            approachTarget = null;
+            String reason = currentAction.precondition(this);
+            if (reason != null) {
+                failAction(reason);
+                return;
+            }
+        }
+
+        // Approach: walk until within reach, fail if we stop making progress
+        Vec3 target = currentAction.target(this);
+        if (target != null) {
+            if (!target.equals(approachTarget)) {
+                approachTarget = target;
+                chunks.cancel();
+                chunks.plan(npc, target.x, target.z);
+                approachStallTicks = 0;
+                approachBestDist = Double.MAX_VALUE;
+            }
+            double dist = npc.position().distanceTo(target);
+            if (dist > currentAction.reach()) {
+                if (dist < approachBestDist - 0.5) {
+                    approachBestDist = dist;
+                    approachStallTicks = 0;
+                } else if (++approachStallTicks > APPROACH_TIMEOUT) {
+                    npc.getNavigation().stop();
+                    if (!currentAction.onUnreachable(this)) {
+                        failAction("Could not reach " + (int) target.x + " " + (int) target.y + " " + (int) target.z);
+                    }
+                    return;
+                }
+                if (npc.getNavigation().isDone()) {
+                    navigate(npc, target.x, target.y, target.z, 1.0);
+                }
+                return;
+            }
+            npc.getNavigation().stop();
+        }
+
+        NuncleAction action = currentAction;
+        NuncleAction.Status status = action.execute(this);
+        if (status == NuncleAction.Status.RUNNING) return;
+        if (status == NuncleAction.Status.FAILED) {
+            failAction(action.message());
+            return;
+        }
+        NuncleEvents.emit("ACTION_DONE", "{} {} | {}", actionIndex, action.describe(), action.message());
+        currentAction = null;
+        if (plan.isEmpty()) {
+            NuncleEvents.emit("PLAN_DONE", "{}", actionIndex);
+        }
+    }
+
+    /** A failed step aborts the rest of the plan — later steps usually depend on it */
+    private void failAction(String reason) {
+        NuncleEvents.emit("ACTION_FAILED", "{} {} | {}", actionIndex, currentAction.describe(), reason);
+        int skipped = plan.size();
+        plan.clear();
+        currentAction = null;
+        NuncleEvents.emit("PLAN_FAILED", "{} skipped={}", actionIndex, skipped);
     }
 
     // --- Thinking indicator ---
 
     public String setThinking(boolean value) {
         if (!isAlive()) return "NuncleNelson is not spawned";
-        this.thinking = value;
-        if (value) {
-            npc.setCustomName(Component.literal(NuncleMod.NPC_NAME + " ")
-                .append(Component.literal("...").withStyle(ChatFormatting.GRAY)));
-            thinkingParticleTick = 0;
-        } else {
-            npc.setCustomName(Component.literal(NuncleMod.NPC_NAME));
-        }
+        if (value && !thinking) thinkingParticleTick = 0;
+        this.thinking = value; // the name follows in tick(), coalesced by NuncleOutput
         return value ? "Thinking started" : "Thinking stopped";
     }
 
     // --- Tick logic ---
 
     public void tick() {
-        if (!isAlive()) return;
+        loadShedder.tick(server.tickTimes, server.getTickCount());
+        NuncleJfr.TickPhase phase = NuncleJfr.TickPhase.begin(npc != null ? npc.getId() : -1, "mailbox");
+        drainMailbox();
+        runDeferred();
+        if (!isAlive()) {
+            output.endTick();
+            phase.commit();
+            return;
+        }
 
         // === BOUNDARY ENFORCEMENT (hard, every tick) ===
-        if (boundaryCenterX != null && !isInsideBoundary(npc.getX(), npc.getZ())) {
-            double[] clamped = clampToBoundary(npc.getX(), npc.getZ());
-            npc.teleportTo(clamped[0], npc.getY(), clamped[1]);
+        phase = phase.next("boundary");
+        NuncleBoundary b = boundary;
+        if (b != null && !b.contains(npc.getX(), npc.getZ())) {
+            double cx = b.clampX(npc.getX(), npc.getZ());
+            double cz = b.clampZ(npc.getX(), npc.getZ());
+            npc.teleportTo(cx, npc.getY(), cz);
             npc.getNavigation().stop();
             followTarget = null;
             wandering = false;
-            attackTarget = null;
-            NuncleMod.LOGGER.info("[NUNCLE] BOUNDARY_ENFORCED teleported back to ({},{})",
-                (int) clamped[0], (int) clamped[1]);
+            combat.stop();
+            chunks.cancel();
+            NuncleEvents.emit("BOUNDARY_ENFORCED", "teleported back to ({},{})", (int) cx, (int) cz);
         }
 
+        // Move the home ticket, release passed route chunks, start deferred moves
+        phase = phase.next("chunks");
+        chunks.tick(npc);
+
+        // Sample a few more chunks for wander waypoints
+        phase = phase.next("waypoints");
+        waypoints.tick(npc, b);
+
+        // Edge-triggered alerts (THREAT, PLAYER_NEAR, LOW_HEALTH, ITEM_NEARBY)
+        phase = phase.next("triggers");
+        triggers.tick(npc, server);
+
+        // Batched HEARD lines whose coalesce window has passed
+        phase = phase.next("chat");
+        chatFilter.tick(server.getTickCount());
+
         // Periodic location announcement
+        phase = phase.next("announce");
         locationAnnounceTick++;
         if (locationAnnounceTick >= LOCATION_ANNOUNCE_INTERVAL) {
             locationAnnounceTick = 0;
@@ -692,19 +1186,19 @@ public class NunclePlayer {
                 " (" + biome.replace("_", " ") + ")");
         }
 
-        // Thinking particles
+        // Thinking name and particles
+        phase = phase.next("output");
+        output.updateName(npc, thinking, server.getTickCount());
         if (thinking) {
             thinkingParticleTick++;
-            if (thinkingParticleTick % 10 == 0) {
-                ServerLevel level = (ServerLevel) npc.level();
-                level.sendParticles(
-                    ParticleTypes.HAPPY_VILLAGER,
-                    npc.getX(), npc.getY() + npc.getBbHeight() + 0.5, npc.getZ(),
-                    5, 0.3, 0.2, 0.3, 0.0);
+            int interval = loadShedder.level().particleIntervalTicks;
+            if (interval > 0 && thinkingParticleTick % interval == 0) {
+                output.particles(npc, ParticleTypes.HAPPY_VILLAGER, npc.getBbHeight() + 0.5, 5, 0.3F, 0.2F, 0.3F);
             }
         }
 
         // Follow target (boundary-aware)
+        phase = phase.next("follow");
         if (followTarget != null) {
             if (!followTarget.isAlive() || followTarget.hasDisconnected()) {
                 followTarget = null;
@@ -715,74 +1209,85 @@ public class NunclePlayer {
             } else {
                 double dist = npc.distanceTo(followTarget);
                 if (dist > 3.0) {
-                    npc.getNavigation().moveTo(followTarget, 1.0);
+                    if (--followRepathIn <= 0 || npc.getNavigation().isDone()) {
+                        followRepathIn = loadShedder.level().followRepathTicks;
+                        navigate(npc, followTarget, 1.0);
+                    }
                 } else {
                     npc.getLookControl().setLookAt(followTarget);
                 }
             }
         }
 
-        // Attack target (boundary-aware)
-        if (attackTarget != null) {
-            if (!attackTarget.isAlive()) {
-                attackTarget = null;
-            } else if (!isInsideBoundary(attackTarget.getX(), attackTarget.getZ())) {
-                // Target left our boundary — disengage
-                attackTarget = null;
-                npc.getNavigation().stop();
-            } else {
-                double dist = npc.distanceTo(attackTarget);
-                if (dist > 2.5) {
-                    npc.getNavigation().moveTo(attackTarget, 1.2);
-                } else {
-                    npc.getLookControl().setLookAt(attackTarget);
-                    npc.doHurtTarget(attackTarget);
-                }
-            }
-        }
+        // Combat (boundary-aware target selection, cooldown-limited strikes)
+        phase = phase.next("combat");
+        combat.tick(this);
+
+        // Collect drops queued by onItemJoined
+        phase = phase.next("pickup");
+        autoPickup.tick(this);
+
+        // Action queue
+        phase = phase.next("plan");
+        tickPlan();
 
         // Wander
-        if (wandering && npc.getNavigation().isDone()) {
+        phase = phase.next("wander");
+        if (wandering && npc.getNavigation().isDone() && !chunks.hasPendingMove()) {
             wanderCooldown--;
             if (wanderCooldown <= 0) {
                 doWander();
                 wanderCooldown = 100 + npc.getRandom().nextInt(200); // 5-15 seconds
             }
         }
+        output.endTick();
+        phase.commit();
     }
 
     private void doWander() {
-        if (boundaryCenterX != null) {
+        chunks.cancel();
+        BlockPos waypoint = waypoints.pickWanderTarget(npc);
+        if (waypoint != null) {
+            double x = waypoint.getX() + 0.5;
+            double z = waypoint.getZ() + 0.5;
+            chunks.plan(npc, x, z);
+            if (chunks.isLoaded(x, z)) {
+                navigate(npc, x, waypoint.getY(), z, 1.0);
+            } else {
+                chunks.defer(x, waypoint.getY(), z, false);
+            }
+            return;
+        }
+
+        // No waypoint yet, or exploring past the sampled ones
+        NuncleBoundary b = boundary;
+        double x, z;
+        if (b != null) {
             // Wander within boundary — pick random point inside the circle
             double angle = npc.getRandom().nextDouble() * Math.PI * 2;
-            double dist = npc.getRandom().nextDouble() * boundaryRadius;
-            double x = boundaryCenterX + Math.cos(angle) * dist;
-            double z = boundaryCenterZ + Math.sin(angle) * dist;
-            int y = npc.level().getHeight(
-                net.minecraft.world.level.levelgen.Heightmap.Types.MOTION_BLOCKING_NO_LEAVES,
-                (int) x, (int) z);
-            npc.getNavigation().moveTo(x, y, z, 1.0);
+            double dist = npc.getRandom().nextDouble() * b.radius();
+            x = b.centerX() + Math.cos(angle) * dist;
+            z = b.centerZ() + Math.sin(angle) * dist;
         } else {
             // No boundary — wander relative to NPC position
             double angle = npc.getRandom().nextDouble() * Math.PI * 2;
             double dist = 20 + npc.getRandom().nextDouble() * 30;
-            double x = npc.getX() + Math.cos(angle) * dist;
-            double z = npc.getZ() + Math.sin(angle) * dist;
-            int y = npc.level().getHeight(
-                net.minecraft.world.level.levelgen.Heightmap.Types.MOTION_BLOCKING_NO_LEAVES,
-                (int) x, (int) z);
-            npc.getNavigation().moveTo(x, y, z, 1.0);
+            x = npc.getX() + Math.cos(angle) * dist;
+            z = npc.getZ() + Math.sin(angle) * dist;
+        }
+        // Never look up the height of a chunk that isn't there yet; wait for the ticket to load it
+        chunks.plan(npc, x, z);
+        if (chunks.isLoaded(x, z)) {
+            navigate(npc, x, chunks.surfaceY(x, z), z, 1.0);
+        } else {
+            chunks.defer(x, 0, z, true);
         }
     }
 
     // --- Announcements ---
 
     private void broadcastAnnouncement(String message) {
-        Component msg = Component.literal("[")
-            .append(Component.literal(NuncleMod.NPC_NAME).withStyle(ChatFormatting.GOLD))
-            .append(Component.literal("] "))
-            .append(Component.literal(message).withStyle(ChatFormatting.GRAY));
-        server.getPlayerList().broadcastSystemMessage(msg, false);
+        output.announce(npc, message);
     }
 
     // --- Event handlers ---
@@ -791,18 +1296,24 @@ public class NunclePlayer {
         if (npc == null || event.getEntity() != npc) return;
         float amount = event.getAmount();
         String source = event.getSource().getMsgId();
-        NuncleMod.LOGGER.info("[NUNCLE] DAMAGED {} {}", amount, source);
+        NuncleEvents.emit("DAMAGED", "{} {}", amount, source);
     }
 
     public void onDeath(LivingDeathEvent event) {
         if (npc == null || event.getEntity() != npc) return;
         String cause = event.getSource().getMsgId();
-        NuncleMod.LOGGER.info("[NUNCLE] DIED cause={}", cause);
+        NuncleEvents.emit("DIED", "cause={}", cause);
         broadcastAnnouncement(NuncleMod.NPC_NAME + " has died");
         npc = null;
         followTarget = null;
-        attackTarget = null;
+        combat.stop();
+        autoPickup.disable();
+        chunks.release();
         wandering = false;
         thinking = false;
+        triggers.reset();
+        terrain.clear();
+        backpack.clearContent(); // nothing is dropped; it's just gone
+        cancelPlan("died");
     }
 }
@@ -0,0 +1,128 @@
+package com.vulture.nuncle;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Compact palette + varint schematic, small enough to upload over RCON.
+ *
+ * <pre>
+ * varint version (1)
+ * varint sizeX, sizeY, sizeZ
+ * varint paletteSize, then paletteSize strings (block state, e.g. "minecraft:oak_stairs[facing=north]")
+ * run-length cells until sizeX*sizeY*sizeZ are covered: varint runLength, varint paletteIndex
+ * </pre>
+ *
+ * Cells are ordered y-major (then z, then x) so lower layers come first.
+ * Palette index 0 means "leave as is"; real entries are numbered from 1.
+ */
+public final class NuncleSchematic {
+    public static final int VERSION = 1;
+    public static final int MAX_VOLUME = 32 * 32 * 32;
+    public static final int MAX_PALETTE = 256;
+    private static final int MAX_STATE_LENGTH = 256;
+
+    private final int sizeX, sizeY, sizeZ;
+    private final String[] palette; // palette[0] is unused ("skip")
+    private final int[] cells;
+
+    public NuncleSchematic(int sizeX, int sizeY, int sizeZ, String[] palette, int[] cells) {
+        if (sizeX <= 0 || sizeY <= 0 || sizeZ <= 0 || (long) sizeX * sizeY * sizeZ > MAX_VOLUME) {
+            throw new IllegalArgumentException("Bad schematic size " + sizeX + "x" + sizeY + "x" + sizeZ);
+        }
+        if (cells.length != sizeX * sizeY * sizeZ) {
+            throw new IllegalArgumentException("Cell count does not match size");
+        }
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.palette = palette;
+        this.cells = cells;
+    }
+
+    public int sizeX() { return sizeX; }
+    public int sizeY() { return sizeY; }
+    public int sizeZ() { return sizeZ; }
+    public int volume() { return cells.length; }
+
+    /** Palette index at a cell, 0 for "leave as is" */
+    public int cell(int index) {
+        return cells[index];
+    }
+
+    public String state(int paletteIndex) {
+        return palette[paletteIndex];
+    }
+
+    public int paletteSize() {
+        return palette.length;
+    }
+
+    public int x(int index) { return index % sizeX; }
+    public int z(int index) { return (index / sizeX) % sizeZ; }
+    public int y(int index) { return index / (sizeX * sizeZ); }
+
+    /** Number of cells that place a block */
+    public int blockCount() {
+        int n = 0;
+        for (int c : cells) if (c != 0) n++;
+        return n;
+    }
+
+    public static NuncleSchematic decode(byte[] data) {
+        ByteBuffer in = ByteBuffer.wrap(data);
+        try {
+            int version = NuncleVarInt.read(in);
+            if (version != VERSION) throw new IllegalArgumentException("Unsupported schematic version " + version);
+            int sx = NuncleVarInt.read(in);
+            int sy = NuncleVarInt.read(in);
+            int sz = NuncleVarInt.read(in);
+            if (sx <= 0 || sy <= 0 || sz <= 0 || (long) sx * sy * sz > MAX_VOLUME) {
+                throw new IllegalArgumentException("Bad schematic size " + sx + "x" + sy + "x" + sz);
+            }
+            int paletteSize = NuncleVarInt.read(in);
+            if (paletteSize < 0 || paletteSize > MAX_PALETTE) {
+                throw new IllegalArgumentException("Bad palette size " + paletteSize);
+            }
+            String[] palette = new String[paletteSize + 1];
+            for (int i = 1; i <= paletteSize; i++) {
+                palette[i] = NuncleVarInt.readString(in, MAX_STATE_LENGTH);
+            }
+            int[] cells = new int[sx * sy * sz];
+            int filled = 0;
+            while (filled < cells.length) {
+                int run = NuncleVarInt.read(in);
+                int index = NuncleVarInt.read(in);
+                if (run <= 0 || run > cells.length - filled) throw new IllegalArgumentException("Bad run length " + run);
+                if (index < 0 || index > paletteSize) throw new IllegalArgumentException("Bad palette index " + index);
+                for (int i = 0; i < run; i++) cells[filled++] = index;
+            }
+            if (in.hasRemaining()) throw new IllegalArgumentException("Trailing bytes after schematic");
+            return new NuncleSchematic(sx, sy, sz, palette, cells);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated schematic");
+        }
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NuncleVarInt.write(out, VERSION);
+        NuncleVarInt.write(out, sizeX);
+        NuncleVarInt.write(out, sizeY);
+        NuncleVarInt.write(out, sizeZ);
+        NuncleVarInt.write(out, palette.length - 1);
+        for (int i = 1; i < palette.length; i++) {
+            NuncleVarInt.writeString(out, palette[i]);
+        }
+        int i = 0;
+        while (i < cells.length) {
+            int run = 1;
+            while (i + run < cells.length && cells[i + run] == cells[i]) run++;
+            NuncleVarInt.write(out, run);
+            NuncleVarInt.write(out, cells[i]);
+            i += run;
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,100 @@
+package com.vulture.nuncle;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.storage.LevelResource;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Schematic cache. The brain uploads a schematic once (in base64 chunks, since
+ * RCON packets are small); it is decoded, kept in memory and saved under
+ * world/nuncle/schematics so later builds only need the id.
+ */
+public class NuncleSchematics {
+    private static final Pattern VALID_ID = Pattern.compile("[a-z0-9_\\-]{1,32}");
+    private static final int MAX_UPLOAD_BYTES = 256 * 1024;
+
+    private final Path dir;
+    private final Map<String, NuncleSchematic> cache = new HashMap<>();
+    private final Map<String, ByteArrayOutputStream> uploads = new HashMap<>();
+
+    public NuncleSchematics(MinecraftServer server) {
+        this.dir = server.getWorldPath(LevelResource.ROOT).resolve("nuncle").resolve("schematics");
+    }
+
+    /** Append a base64 chunk to a pending upload */
+    public String upload(String id, String base64Chunk) {
+        if (!VALID_ID.matcher(id).matches()) return "Invalid schematic id: " + id;
+        byte[] bytes;
+        try {
+            bytes = Base64.getDecoder().decode(base64Chunk.trim());
+        } catch (IllegalArgumentException e) {
+            return "Invalid base64 in upload chunk";
+        }
+        ByteArrayOutputStream buf = uploads.computeIfAbsent(id, k -> new ByteArrayOutputStream());
+        if (buf.size() + bytes.length > MAX_UPLOAD_BYTES) {
+            uploads.remove(id);
+            return "Schematic upload too large (max " + MAX_UPLOAD_BYTES + " bytes)";
+        }
+        buf.write(bytes, 0, bytes.length);
+        return "Received " + buf.size() + " bytes for " + id;
+    }
+
+    /** Decode a finished upload, cache it and persist it */
+    public String finish(String id) {
+        ByteArrayOutputStream buf = uploads.remove(id);
+        if (buf == null) return "No pending upload for " + id;
+        byte[] data = buf.toByteArray();
+        NuncleSchematic schematic;
+        try {
+            schematic = NuncleSchematic.decode(data);
+        } catch (IllegalArgumentException e) {
+            return "Invalid schematic: " + e.getMessage();
+        }
+        cache.put(id, schematic);
+        try {
+            Files.createDirectories(dir);
+            Files.write(dir.resolve(id + ".nsch"), data);
+        } catch (IOException e) {
+            NuncleMod.LOGGER.warn("Failed to save schematic {}", id, e);
+        }
+        return "Stored schematic " + id + " (" + schematic.sizeX() + "x" + schematic.sizeY() + "x" +
+            schematic.sizeZ() + ", " + schematic.blockCount() + " blocks)";
+    }
+
+    @Nullable
+    public NuncleSchematic get(String id) {
+        if (!VALID_ID.matcher(id).matches()) return null;
+        NuncleSchematic cached = cache.get(id);
+        if (cached != null) return cached;
+        Path file = dir.resolve(id + ".nsch");
+        if (!Files.isRegularFile(file)) return null;
+        try {
+            NuncleSchematic loaded = NuncleSchematic.decode(Files.readAllBytes(file));
+            cache.put(id, loaded);
+            return loaded;
+        } catch (IOException | IllegalArgumentException e) {
+            NuncleMod.LOGGER.warn("Failed to load schematic {}", id, e);
+            return null;
+        }
+    }
+
+    public String delete(String id) {
+        if (!VALID_ID.matcher(id).matches()) return "Invalid schematic id: " + id;
+        boolean removed = cache.remove(id) != null;
+        try {
+            removed |= Files.deleteIfExists(dir.resolve(id + ".nsch"));
+        } catch (IOException e) {
+            NuncleMod.LOGGER.warn("Failed to delete schematic {}", id, e);
+        }
+        return removed ? "Deleted schematic " + id : "No schematic " + id;
+    }
+}
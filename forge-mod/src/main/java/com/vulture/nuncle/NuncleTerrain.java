@@ -0,0 +1,248 @@
+package com.vulture.nuncle;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.tags.FluidTags;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coarse view of the terrain around the NPC for the brain to plan moves
+ * with: one cell per 4×4 columns giving surface height, what the surface is
+ * made of, biome, and whether there is water, lava or a steep drop in it.
+ *
+ * Cells are built from the chunk heightmaps, 16 per chunk: height is the
+ * ground under any canopy, the surface class is whatever tops the column
+ * (so forests read as trees). A chunk's cells are kept until a block change
+ * at or above its lowest ground could have moved a heightmap. Chunks that
+ * aren't loaded are reported as unknown, never loaded for this. Every grid
+ * is one character per cell so the reply at {@link #MAX_RADIUS} still fits
+ * one RCON packet. Server thread only.
+ */
+public class NuncleTerrain {
+    public static final int CELL = 4;
+    public static final int MAX_RADIUS = 48; // 25×25 cells, ~3 KB of reply
+    /** Relative heights beyond this either way are clamped */
+    static final int MAX_HEIGHT_STEP = 30;
+    static final int MAX_BIOMES = 16;
+    private static final int CELLS_PER_CHUNK = 16 / CELL;
+    private static final int MAX_CHUNKS = 2048; // a 128-block summary touches ~300
+    private static final int ROUGH_STEP = 3;    // height spread inside one cell that makes it steep
+
+    // Surface classes, one character per cell in the reply
+    static final char UNKNOWN = '?';
+    static final char WATER = 'w';
+    static final char LAVA = 'l';
+    static final char GRASS = 'g';
+    static final char SAND = 's';
+    static final char STONE = 'r';
+    static final char SNOW = 'i';
+    static final char TREE = 't';
+    static final char OTHER = 'o';
+
+    // Cell flags, sent as one hex digit per cell
+    static final int FLAG_WATER = 1;
+    static final int FLAG_LAVA = 2;
+    static final int FLAG_ROUGH = 4;
+
+    private static final String PALETTE_CHARS = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    /** The 4×4 cells of one chunk, row-major by z then x */
+    private record ChunkCells(short[] height, char[] surface, byte[] flags, String[] biome, int minSurface) {}
+
+    @Nullable private ServerLevel level;
+    private final Long2ObjectLinkedOpenHashMap<ChunkCells> chunks = new Long2ObjectLinkedOpenHashMap<>();
+    private int hits;
+    private int misses;
+
+    /**
+     * Terrain grid around the NPC as JSON: x0/z0 are the north-west corner
+     * of the first cell; height is one character per cell, the index into
+     * 0-9a-zA-Z of the ground height relative to y0 plus
+     * {@link #MAX_HEIGHT_STEP} (clamped); surface and flags are one character
+     * per cell, biome one palette index character per cell, and every grid
+     * uses '?' where unknown. All grids are row-major, north to south.
+     */
+    public String summarize(Villager npc, int radius) {
+        ServerLevel current = (ServerLevel) npc.level();
+        if (current != level) {
+            chunks.clear();
+            level = current;
+        }
+        int minX = Math.floorDiv(npc.getBlockX() - radius, CELL);
+        int minZ = Math.floorDiv(npc.getBlockZ() - radius, CELL);
+        int maxX = Math.floorDiv(npc.getBlockX() + radius, CELL);
+        int maxZ = Math.floorDiv(npc.getBlockZ() + radius, CELL);
+        int width = maxX - minX + 1;
+        int depth = maxZ - minZ + 1;
+        int y0 = npc.getBlockY();
+
+        StringBuilder height = new StringBuilder(width * depth);
+        StringBuilder surface = new StringBuilder(width * depth);
+        StringBuilder flags = new StringBuilder(width * depth);
+        StringBuilder biome = new StringBuilder(width * depth);
+        Map<String, Integer> paletteIndex = new HashMap<>();
+        List<String> palette = new ArrayList<>();
+
+        for (int cz = minZ; cz <= maxZ; cz++) {
+            ChunkCells cells = null;
+            int cellsChunkX = Integer.MIN_VALUE;
+            for (int cx = minX; cx <= maxX; cx++) {
+                int chunkX = Math.floorDiv(cx, CELLS_PER_CHUNK);
+                if (chunkX != cellsChunkX) { // a row crosses each chunk once
+                    cells = cells(chunkX, Math.floorDiv(cz, CELLS_PER_CHUNK));
+                    cellsChunkX = chunkX;
+                }
+                if (cells == null) {
+                    height.append(UNKNOWN);
+                    surface.append(UNKNOWN);
+                    flags.append('0');
+                    biome.append(UNKNOWN);
+                    continue;
+                }
+                int i = Math.floorMod(cz, CELLS_PER_CHUNK) * CELLS_PER_CHUNK + Math.floorMod(cx, CELLS_PER_CHUNK);
+                height.append(heightChar(cells.height()[i] - y0));
+                surface.append(cells.surface()[i]);
+                flags.append(Character.forDigit(cells.flags()[i], 16));
+                Integer index = paletteIndex.get(cells.biome()[i]);
+                if (index == null && palette.size() < MAX_BIOMES) {
+                    index = palette.size();
+                    paletteIndex.put(cells.biome()[i], index);
+                    palette.add(cells.biome()[i]);
+                }
+                biome.append(index != null ? PALETTE_CHARS.charAt(index) : UNKNOWN);
+            }
+        }
+
+        return toJson(minX * CELL, minZ * CELL, y0, width, depth, height, surface, flags, palette, biome);
+    }
+
+    static String toJson(int x0, int z0, int y0, int width, int depth, CharSequence height, CharSequence surface,
+                         CharSequence flags, List<String> palette, CharSequence biome) {
+        JsonObject json = new JsonObject();
+        json.addProperty("cell", CELL);
+        json.addProperty("x0", x0);
+        json.addProperty("z0", z0);
+        json.addProperty("y0", y0);
+        json.addProperty("width", width);
+        json.addProperty("depth", depth);
+        json.addProperty("height", height.toString());
+        json.addProperty("surface", surface.toString());
+        json.addProperty("flags", flags.toString());
+        JsonArray biomes = new JsonArray();
+        palette.forEach(biomes::add);
+        json.add("biomes", biomes);
+        json.addProperty("biome", biome.toString());
+        return json.toString();
+    }
+
+    static char heightChar(int relative) {
+        return PALETTE_CHARS.charAt(Math.max(-MAX_HEIGHT_STEP, Math.min(MAX_HEIGHT_STEP, relative)) + MAX_HEIGHT_STEP);
+    }
+
+    /** A block changed; drop its chunk if the change could have touched the surface */
+    public void onBlockChange(BlockPos pos) {
+        long key = ChunkPos.asLong(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+        ChunkCells cells = chunks.get(key);
+        if (cells != null && pos.getY() >= cells.minSurface() - 2) chunks.remove(key);
+    }
+
+    public void clear() {
+        chunks.clear();
+    }
+
+    public String info() {
+        return "Terrain cache: " + chunks.size() + " chunk(s), " + hits + " hit(s), " + misses + " miss(es)";
+    }
+
+    @Nullable
+    private ChunkCells cells(int chunkX, int chunkZ) {
+        long key = ChunkPos.asLong(chunkX, chunkZ);
+        ChunkCells cells = chunks.getAndMoveToLast(key);
+        if (cells != null) {
+            hits++;
+            return cells;
+        }
+        LevelChunk chunk = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+        if (chunk == null) return null;
+        misses++;
+        cells = sample(chunk);
+        chunks.putAndMoveToLast(key, cells);
+        if (chunks.size() > MAX_CHUNKS) chunks.removeFirst();
+        return cells;
+    }
+
+    private ChunkCells sample(LevelChunk chunk) {
+        int cellCount = CELLS_PER_CHUNK * CELLS_PER_CHUNK;
+        short[] height = new short[cellCount];
+        char[] surface = new char[cellCount];
+        byte[] flags = new byte[cellCount];
+        String[] biome = new String[cellCount];
+        int minSurface = Integer.MAX_VALUE;
+        // Ground under any canopy for height and steepness; with the canopy for what's on top
+        Heightmap ground = chunk.getOrCreateHeightmapUnprimed(Heightmap.Types.MOTION_BLOCKING_NO_LEAVES);
+        Heightmap top = chunk.getOrCreateHeightmapUnprimed(Heightmap.Types.MOTION_BLOCKING);
+        int baseX = chunk.getPos().getMinBlockX();
+        int baseZ = chunk.getPos().getMinBlockZ();
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+        for (int cz = 0; cz < CELLS_PER_CHUNK; cz++) {
+            for (int cx = 0; cx < CELLS_PER_CHUNK; cx++) {
+                int i = cz * CELLS_PER_CHUNK + cx;
+                int low = Integer.MAX_VALUE;
+                int high = Integer.MIN_VALUE;
+                int cellFlags = 0;
+                for (int dz = 0; dz < CELL; dz++) {
+                    for (int dx = 0; dx < CELL; dx++) {
+                        int x = cx * CELL + dx;
+                        int z = cz * CELL + dz;
+                        int groundY = ground.getFirstAvailable(x, z);
+                        low = Math.min(low, groundY);
+                        high = Math.max(high, groundY);
+                        BlockState state = chunk.getBlockState(cursor.set(baseX + x, top.getFirstAvailable(x, z) - 1, baseZ + z));
+                        if (state.getFluidState().is(FluidTags.WATER)) cellFlags |= FLAG_WATER;
+                        else if (state.getFluidState().is(FluidTags.LAVA)) cellFlags |= FLAG_LAVA;
+                    }
+                }
+                if (high - low >= ROUGH_STEP) cellFlags |= FLAG_ROUGH;
+                minSurface = Math.min(minSurface, low);
+
+                // Class and biome from the cell's middle column
+                int x = cx * CELL + CELL / 2;
+                int z = cz * CELL + CELL / 2;
+                height[i] = (short) ground.getFirstAvailable(x, z);
+                surface[i] = classify(chunk.getBlockState(cursor.set(baseX + x, top.getFirstAvailable(x, z) - 1, baseZ + z)));
+                flags[i] = (byte) cellFlags;
+                biome[i] = level.getBiome(cursor).unwrapKey().map(k -> k.location().getPath()).orElse("unknown");
+            }
+        }
+        return new ChunkCells(height, surface, flags, biome, minSurface);
+    }
+
+    static char classify(BlockState state) {
+        if (state.getFluidState().is(FluidTags.WATER)) return WATER;
+        if (state.getFluidState().is(FluidTags.LAVA)) return LAVA;
+        if (state.is(BlockTags.LOGS) || state.is(BlockTags.LEAVES)) return TREE;
+        if (state.is(BlockTags.SNOW) || state.is(BlockTags.ICE)) return SNOW;
+        if (state.is(BlockTags.SAND) || state.is(Blocks.SANDSTONE) || state.is(Blocks.RED_SANDSTONE)) return SAND;
+        if (state.is(BlockTags.DIRT)) return GRASS;
+        if (state.is(BlockTags.BASE_STONE_OVERWORLD) || state.is(BlockTags.BASE_STONE_NETHER)
+            || state.is(Blocks.GRAVEL) || state.is(Blocks.COBBLESTONE)) return STONE;
+        return OTHER;
+    }
+}
@@ -0,0 +1,101 @@
+package com.vulture.nuncle;
+
+/**
+ * Fixed-capacity selection of the K smallest keys, kept as a max-heap of
+ * primitive longs. Keys are packed as (distance << 32 | id) so the heap
+ * orders by distance and ties break on id, with no allocation per candidate.
+ * Not thread-safe; instances are reused on the server thread.
+ */
+public final class NuncleTopK {
+    private final long[] heap;
+    private int size;
+
+    public NuncleTopK(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        this.heap = new long[capacity];
+    }
+
+    public static long pack(int distance, int id) {
+        return ((long) distance << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    public static int distance(long key) {
+        return (int) (key >>> 32);
+    }
+
+    public static int id(long key) {
+        return (int) key;
+    }
+
+    public int capacity() {
+        return heap.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /** Would a candidate at this distance make the cut? Lets callers skip work early. */
+    public boolean accepts(int distance) {
+        return size < heap.length || distance < distance(heap[0]);
+    }
+
+    /** Offer a key; keeps it only if it is among the K smallest seen so far. */
+    public boolean offer(long key) {
+        if (size < heap.length) {
+            heap[size] = key;
+            siftUp(size++);
+            return true;
+        }
+        if (key >= heap[0]) return false;
+        heap[0] = key;
+        siftDown(0, size);
+        return true;
+    }
+
+    /**
+     * Sort the retained keys ascending in place. After this, {@link #get(int)}
+     * returns nearest-first; call {@link #clear()} before offering again.
+     */
+    public void sort() {
+        for (int end = size - 1; end > 0; end--) {
+            long top = heap[0];
+            heap[0] = heap[end];
+            heap[end] = top;
+            siftDown(0, end);
+        }
+    }
+
+    public long get(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException(i);
+        return heap[i];
+    }
+
+    private void siftUp(int i) {
+        long key = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] >= key) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = key;
+    }
+
+    private void siftDown(int i, int n) {
+        long key = heap[i];
+        int half = n >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < n && heap[child + 1] > heap[child]) child++;
+            if (key >= heap[child]) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = key;
+    }
+}
@@ -0,0 +1,109 @@
+package com.vulture.nuncle;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.level.storage.LevelResource;
+
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+/**
+ * Records a session to world/nuncle/traces/&lt;name&gt;.trace for replay with
+ * ./gradlew runTraceReplay (see NuncleTraceReplay): each /nuncle command as
+ * it arrives, and after every tick the NPC's position, health, what it is
+ * doing and how long its tick took. Server thread only.
+ */
+public class NuncleTrace {
+    private static final Pattern NAME = Pattern.compile("[a-z0-9_-]{1,64}");
+
+    private final MinecraftServer server;
+    private final Path dir;
+    @Nullable private NuncleTraceFile.Writer writer;
+    @Nullable private String name;
+    private int startTick;
+    private int ticks;
+    private int commands;
+
+    public NuncleTrace(MinecraftServer server) {
+        this.server = server;
+        this.dir = server.getWorldPath(LevelResource.ROOT).resolve("nuncle").resolve("traces");
+    }
+
+    public boolean isRecording() {
+        return writer != null;
+    }
+
+    public String start(String name) {
+        if (!NAME.matcher(name).matches()) return "Trace name must be 1-64 of a-z 0-9 _ -";
+        if (writer != null) return "Already recording " + this.name;
+        Path file = dir.resolve(name + ".trace");
+        try {
+            Files.createDirectories(dir);
+            writer = new NuncleTraceFile.Writer(new BufferedOutputStream(Files.newOutputStream(file)),
+                server.overworld().getGameTime(), server.getWorldData().getLevelName());
+        } catch (IOException e) {
+            NuncleMod.LOGGER.warn("Failed to start trace {}", name, e);
+            return "Failed to start trace: " + e.getMessage();
+        }
+        this.name = name;
+        startTick = server.getTickCount();
+        ticks = 0;
+        commands = 0;
+        return "Recording trace " + name;
+    }
+
+    public String stop() {
+        if (writer == null) return "Not recording";
+        String summary = info();
+        try {
+            writer.close();
+        } catch (IOException e) {
+            NuncleMod.LOGGER.warn("Failed to close trace {}", name, e);
+        }
+        writer = null;
+        return summary.replace("Recording", "Saved");
+    }
+
+    public String info() {
+        if (writer == null) return "Not recording";
+        return "Recording trace " + name + ": " + ticks + " tick(s), " + commands + " command(s), " +
+            writer.size() / 1024 + " KiB";
+    }
+
+    /** A command is about to run; {@code input} is the full command line without the slash */
+    public void onCommand(String input) {
+        if (writer == null || !input.startsWith("nuncle ") || input.startsWith("nuncle trace")) return;
+        try {
+            writer.command(server.getTickCount() - startTick, input);
+            commands++;
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /** End of a server tick; {@code nanos} is what the NPC manager's tick took */
+    public void onTick(NunclePlayer mgr, long nanos) {
+        if (writer == null) return;
+        Villager npc = mgr.getNpc();
+        try {
+            if (npc != null && npc.isAlive()) {
+                writer.tick(server.getTickCount() - startTick, npc.getX(), npc.getY(), npc.getZ(),
+                    npc.getHealth(), mgr.getTraceFlags(), nanos);
+            } else {
+                writer.tick(server.getTickCount() - startTick, 0, 0, 0, 0, 0, nanos);
+            }
+            ticks++;
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void fail(IOException e) {
+        NuncleMod.LOGGER.warn("Trace {} write failed, recording stopped", name, e);
+        stop();
+    }
+}
@@ -0,0 +1,155 @@
+package com.vulture.nuncle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary trace of a session: every /nuncle command with the tick it arrived
+ * on, and one small NPC state record per tick. Ticks are relative to the start
+ * of the recording and delta-coded, positions are 1/32-block fixed point
+ * deltas, so a quiet tick costs about seven bytes.
+ * <pre>
+ *   header:  "NTRC" | u8 version | i64 start game time | string level
+ *   tick:    0x01 | varint Δtick | svarint Δx Δy Δz | varint half-hearts | varint flags | varint µs in mod
+ *   command: 0x02 | varint Δtick | string command (without the slash)
+ * </pre>
+ */
+public final class NuncleTraceFile {
+    private static final int MAGIC = 0x4E545243; // "NTRC"
+    private static final int VERSION = 1;
+    private static final int TAG_TICK = 1;
+    private static final int TAG_COMMAND = 2;
+    private static final double POS_SCALE = 32.0;
+    private static final int MAX_COMMAND_BYTES = 32 * 1024;
+
+    // NPC state flags
+    public static final int ALIVE = 1;
+    public static final int WANDERING = 1 << 1;
+    public static final int FOLLOWING = 1 << 2;
+    public static final int PLAN = 1 << 3;
+    public static final int COMBAT = 1 << 4;
+
+    public record Tick(int tick, double x, double y, double z, float health, int flags, int modMicros) {}
+
+    public record Command(int tick, String command) {}
+
+    public record Trace(long startGameTime, String level, List<Tick> ticks, List<Command> commands) {}
+
+    private NuncleTraceFile() {}
+
+    /** Appends records to a stream, buffering about 64 KiB at a time */
+    public static final class Writer implements Closeable {
+        private static final int FLUSH_BYTES = 64 * 1024;
+
+        private final OutputStream out;
+        private final ByteArrayOutputStream buf = new ByteArrayOutputStream(FLUSH_BYTES + 256);
+        private int lastTick;
+        private int lastX, lastY, lastZ;
+        private long bytes;
+
+        public Writer(OutputStream out, long startGameTime, String level) throws IOException {
+            this.out = out;
+            for (int shift = 24; shift >= 0; shift -= 8) buf.write(MAGIC >>> shift);
+            buf.write(VERSION);
+            for (int shift = 56; shift >= 0; shift -= 8) buf.write((int) (startGameTime >>> shift));
+            NuncleVarInt.writeString(buf, level);
+        }
+
+        public void tick(int tick, double x, double y, double z, float health, int flags, long modNanos) throws IOException {
+            int fx = (int) Math.round(x * POS_SCALE);
+            int fy = (int) Math.round(y * POS_SCALE);
+            int fz = (int) Math.round(z * POS_SCALE);
+            buf.write(TAG_TICK);
+            NuncleVarInt.write(buf, advance(tick));
+            NuncleVarInt.writeSigned(buf, fx - lastX);
+            NuncleVarInt.writeSigned(buf, fy - lastY);
+            NuncleVarInt.writeSigned(buf, fz - lastZ);
+            NuncleVarInt.write(buf, Math.max(0, Math.round(health * 2)));
+            NuncleVarInt.write(buf, flags);
+            NuncleVarInt.write(buf, (int) Math.min(Integer.MAX_VALUE, modNanos / 1000));
+            lastX = fx;
+            lastY = fy;
+            lastZ = fz;
+            maybeFlush();
+        }
+
+        public void command(int tick, String command) throws IOException {
+            buf.write(TAG_COMMAND);
+            NuncleVarInt.write(buf, advance(tick));
+            NuncleVarInt.writeString(buf, command);
+            maybeFlush();
+        }
+
+        /** Bytes written so far, buffered or not */
+        public long size() {
+            return bytes + buf.size();
+        }
+
+        public void flush() throws IOException {
+            bytes += buf.size();
+            buf.writeTo(out);
+            buf.reset();
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+            out.close();
+        }
+
+        private int advance(int tick) {
+            int delta = Math.max(0, tick - lastTick);
+            lastTick += delta;
+            return delta;
+        }
+
+        private void maybeFlush() throws IOException {
+            if (buf.size() >= FLUSH_BYTES) flush();
+        }
+    }
+
+    public static Trace read(ByteBuffer in) {
+        if (in.remaining() < 13 || in.getInt() != MAGIC) throw new IllegalArgumentException("Not a nuncle trace");
+        int version = in.get() & 0xFF;
+        if (version != VERSION) throw new IllegalArgumentException("Unsupported trace version " + version);
+        long startGameTime = in.getLong();
+        String level = NuncleVarInt.readString(in, 256);
+
+        List<Tick> ticks = new ArrayList<>();
+        List<Command> commands = new ArrayList<>();
+        int tick = 0;
+        int x = 0, y = 0, z = 0;
+        // A trace cut short by a crash reads up to its last whole record
+        while (in.hasRemaining()) {
+            int start = in.position();
+            int tag = in.get();
+            if (tag != TAG_TICK && tag != TAG_COMMAND) {
+                throw new IllegalArgumentException("Bad record tag " + tag + " at byte " + start);
+            }
+            try {
+                tick += NuncleVarInt.read(in);
+                if (tag == TAG_TICK) {
+                    x += NuncleVarInt.readSigned(in);
+                    y += NuncleVarInt.readSigned(in);
+                    z += NuncleVarInt.readSigned(in);
+                    float health = NuncleVarInt.read(in) / 2f;
+                    int flags = NuncleVarInt.read(in);
+                    int micros = NuncleVarInt.read(in);
+                    ticks.add(new Tick(tick, x / POS_SCALE, y / POS_SCALE, z / POS_SCALE, health, flags, micros));
+                } else {
+                    commands.add(new Command(tick, NuncleVarInt.readString(in, MAX_COMMAND_BYTES)));
+                }
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                break;
+            }
+        }
+        return new Trace(startGameTime, level, ticks, commands);
+    }
+}
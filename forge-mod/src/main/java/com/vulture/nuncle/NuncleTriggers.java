@@ -0,0 +1,139 @@
+package com.vulture.nuncle;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.phys.AABB;
+
+import java.util.List;
+
+/**
+ * Edge-triggered perception alerts, evaluated every tick against the NPC's
+ * surroundings. Only transitions are reported (entered, left, crossed a
+ * threshold), so the brain hears about a zombie once instead of polling for it.
+ */
+public class NuncleTriggers {
+
+    // Thresholds — 0 disables a trigger
+    private double hostileRadius = 12.0;
+    private double hearingRadius = NuncleMod.HEARING_RADIUS;
+    private double lowHealth = 6.0;
+    private double itemRadius = 6.0;
+
+    // Edge state: what was in range last tick vs. this tick (swapped each tick)
+    private IntSet hostiles = new IntOpenHashSet();
+    private IntSet hostilesNow = new IntOpenHashSet();
+    private IntSet items = new IntOpenHashSet();
+    private IntSet itemsNow = new IntOpenHashSet();
+    private Int2ObjectMap<String> players = new Int2ObjectOpenHashMap<>();
+    private Int2ObjectMap<String> playersNow = new Int2ObjectOpenHashMap<>();
+    private boolean healthLow;
+
+    public String configure(String name, double value) {
+        switch (name) {
+            case "hostile" -> hostileRadius = value;
+            case "hearing" -> hearingRadius = value;
+            case "health" -> lowHealth = value;
+            case "item" -> itemRadius = value;
+            default -> {
+                return "Unknown trigger: " + name + " (hostile, hearing, health, item)";
+            }
+        }
+        reset();
+        return value > 0 ? "Trigger " + name + " set to " + value : "Trigger " + name + " disabled";
+    }
+
+    public String info() {
+        return "Triggers: hostile=" + hostileRadius + " hearing=" + hearingRadius +
+            " health=" + lowHealth + " item=" + itemRadius;
+    }
+
+    /** Forget edge state, e.g. after despawn, so the next tick reports from scratch */
+    public void reset() {
+        hostiles.clear();
+        items.clear();
+        players.clear();
+        healthLow = false;
+    }
+
+    public void tick(Villager npc, MinecraftServer server) {
+        // Health
+        if (lowHealth > 0) {
+            boolean low = npc.getHealth() < lowHealth;
+            if (low && !healthLow) {
+                NuncleEvents.emit("LOW_HEALTH", "{}", Math.round(npc.getHealth() * 10.0) / 10.0);
+            }
+            healthLow = low;
+        }
+
+        // Players entering / leaving hearing range
+        if (hearingRadius > 0) {
+            double hearingSq = hearingRadius * hearingRadius;
+            for (ServerPlayer sp : server.getPlayerList().getPlayers()) {
+                if (sp.level() != npc.level() || npc.distanceToSqr(sp) > hearingSq) continue;
+                String name = sp.getGameProfile().getName();
+                playersNow.put(sp.getId(), name);
+                if (!players.containsKey(sp.getId())) {
+                    NuncleEvents.emit("PLAYER_NEAR", "{} {}", name, (int) npc.distanceTo(sp));
+                }
+            }
+            for (Int2ObjectMap.Entry<String> entry : players.int2ObjectEntrySet()) {
+                if (!playersNow.containsKey(entry.getIntKey())) {
+                    NuncleEvents.emit("PLAYER_AWAY", "{}", entry.getValue());
+                }
+            }
+            Int2ObjectMap<String> swap = players;
+            players = playersNow;
+            playersNow = swap;
+            playersNow.clear();
+        }
+
+        // Hostiles and dropped items from one entity query
+        double scanRadius = Math.max(hostileRadius, itemRadius);
+        if (scanRadius <= 0) return;
+
+        double hostileSq = hostileRadius * hostileRadius;
+        double itemSq = itemRadius * itemRadius;
+        AABB area = npc.getBoundingBox().inflate(scanRadius);
+        List<Entity> nearby = npc.level().getEntities(npc, area);
+        for (Entity e : nearby) {
+            if (!e.isAlive()) continue;
+            int flags = NuncleEntityTypes.flags(e.getType());
+            double distSq = npc.distanceToSqr(e);
+            if ((flags & NuncleEntityTypes.HOSTILE) != 0 && hostileRadius > 0 && distSq <= hostileSq) {
+                hostilesNow.add(e.getId());
+                if (!hostiles.contains(e.getId())) {
+                    NuncleEvents.emit("THREAT", "{} {}", NuncleEntityTypes.name(e), (int) Math.sqrt(distSq));
+                }
+            } else if ((flags & NuncleEntityTypes.ITEM) != 0 && itemRadius > 0 && distSq <= itemSq) {
+                itemsNow.add(e.getId());
+                if (!items.contains(e.getId())) {
+                    ItemStack stack = ((ItemEntity) e).getItem();
+                    String name = stack.getItem().getDescriptionId()
+                        .replace("item.minecraft.", "").replace("block.minecraft.", "");
+                    NuncleEvents.emit("ITEM_NEARBY", "{} {} {}", name, stack.getCount(), (int) Math.sqrt(distSq));
+                }
+            }
+        }
+        if (!hostiles.isEmpty() && hostilesNow.isEmpty()) {
+            NuncleEvents.emit("THREAT_CLEAR");
+        }
+
+        IntSet swap = hostiles;
+        hostiles = hostilesNow;
+        hostilesNow = swap;
+        hostilesNow.clear();
+
+        swap = items;
+        items = itemsNow;
+        itemsNow = swap;
+        itemsNow.clear();
+    }
+}
@@ -0,0 +1,56 @@
+package com.vulture.nuncle;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/** LEB128-style unsigned varints, zig-zag signed varints and length-prefixed UTF-8 strings. */
+public final class NuncleVarInt {
+
+    private NuncleVarInt() {}
+
+    public static void write(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    public static void writeSigned(ByteArrayOutputStream out, int value) {
+        write(out, (value << 1) ^ (value >> 31));
+    }
+
+    public static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        write(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    public static int read(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (!in.hasRemaining()) throw new BufferUnderflowException();
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IllegalArgumentException("VarInt too long");
+    }
+
+    public static int readSigned(ByteBuffer in) {
+        int raw = read(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public static String readString(ByteBuffer in, int maxBytes) {
+        int length = read(in);
+        if (length < 0 || length > maxBytes || length > in.remaining()) {
+            throw new IllegalArgumentException("Bad string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,296 @@
+package com.vulture.nuncle;
+
+import it.unimi.dsi.fastutil.longs.Long2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.pathfinder.BlockPathTypes;
+import net.minecraft.world.level.pathfinder.WalkNodeEvaluator;
+
+import javax.annotation.Nullable;
+
+/**
+ * Wander targets that are known to be worth walking to. Each chunk in the
+ * wander area gets at most one waypoint: a surface column (from the heightmap)
+ * the vanilla walk evaluator calls WALKABLE with headroom above. Waypoints in
+ * side-by-side chunks are linked when the straight line between them never
+ * climbs or drops more than a block and crosses no water. Wander picks from the
+ * waypoints linked, directly or not, to the ones around the NPC.
+ *
+ * Chunks are sampled a few per tick once they are loaded, and sampled again
+ * when a block near their surface changes. Occasionally wander ignores the
+ * graph and picks a random point instead, so the NPC walks into chunks that
+ * haven't loaded yet and the graph keeps growing.
+ */
+public class NuncleWaypoints {
+    static final long NO_SPOT = Long.MAX_VALUE; // outside BlockPos range; "sampled, nothing standable"
+
+    private static final int FREE_AREA_CHUNKS = 4;  // wander is 20-50 blocks without a boundary
+    private static final int MAX_AREA_CHUNKS = 12;  // large boundaries are sampled around the NPC
+    private static final int RECENTER_CHUNKS = 4;
+    private static final int CHUNKS_PER_TICK = 4;
+    private static final int ATTEMPTS_PER_TICK = 16;
+    private static final int MAX_OBSTACLE_RUN = 2;  // trunks and posts; navigation walks around those
+    private static final float EXPLORE_CHANCE = 0.2f;
+    private static final int[][] COLUMNS = {{8, 8}, {4, 4}, {12, 4}, {4, 12}, {12, 12}};
+    // Link bits: east, west, south, north; d ^ 1 is the opposite side
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DZ = {0, 0, 1, -1};
+
+    @Nullable private ServerLevel level;
+    @Nullable private NuncleBoundary areaBoundary;
+    private boolean hasArea;
+    private int areaX, areaZ, areaRadius;
+
+    // Chunk → waypoint (BlockPos.asLong), or NO_SPOT once sampled without one
+    private final Long2LongOpenHashMap spots = new Long2LongOpenHashMap();
+    private final Long2ByteOpenHashMap links = new Long2ByteOpenHashMap();
+    private final LongLinkedOpenHashSet queue = new LongLinkedOpenHashSet();
+
+    // Chunks whose waypoint is connected to the NPC, rebuilt when the graph or the NPC's chunk changes
+    private final LongArrayList reachable = new LongArrayList();
+    private boolean graphChanged;
+    private long reachableFrom = Long.MIN_VALUE;
+
+    public NuncleWaypoints() {
+        spots.defaultReturnValue(NO_SPOT);
+    }
+
+    public void tick(Villager npc, @Nullable NuncleBoundary boundary) {
+        ServerLevel current = (ServerLevel) npc.level();
+        if (current != level) {
+            clear();
+            level = current;
+        }
+        updateArea(npc, boundary);
+
+        int sampled = 0;
+        for (int i = 0; i < ATTEMPTS_PER_TICK && sampled < CHUNKS_PER_TICK && !queue.isEmpty(); i++) {
+            long chunk = queue.removeFirstLong();
+            if (!level.hasChunk(ChunkPos.getX(chunk), ChunkPos.getZ(chunk))) {
+                queue.add(chunk); // back of the line until something loads it
+                continue;
+            }
+            sample(chunk, boundary);
+            sampled++;
+        }
+    }
+
+    /**
+     * A waypoint connected to where the NPC stands, or null to wander somewhere
+     * unsampled instead (no graph yet, or the occasional exploring pick).
+     */
+    @Nullable
+    public BlockPos pickWanderTarget(Villager npc) {
+        RandomSource random = npc.getRandom();
+        if (random.nextFloat() < EXPLORE_CHANCE) return null;
+        refreshReachable(npc);
+        if (reachable.isEmpty()) return null;
+        return BlockPos.of(spots.get(reachable.getLong(random.nextInt(reachable.size()))));
+    }
+
+    /** Re-sample the chunk if the change was at its surface */
+    public void onBlockChange(BlockPos pos) {
+        if (level == null) return;
+        long chunk = ChunkPos.asLong(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+        if (!spots.containsKey(chunk)) return;
+        if (pos.getY() >= level.getHeight(Heightmap.Types.MOTION_BLOCKING_NO_LEAVES, pos.getX(), pos.getZ()) - 2) {
+            queue.add(chunk);
+        }
+    }
+
+    public void clear() {
+        spots.clear();
+        links.clear();
+        queue.clear();
+        reachable.clear();
+        hasArea = false;
+        graphChanged = true;
+    }
+
+    public String info() {
+        int standable = 0;
+        for (LongIterator it = spots.values().iterator(); it.hasNext(); ) {
+            if (it.nextLong() != NO_SPOT) standable++;
+        }
+        int linkCount = 0;
+        for (var it = links.values().iterator(); it.hasNext(); ) linkCount += Integer.bitCount(it.nextByte() & 0xF);
+        return "Waypoints: " + standable + " in " + spots.size() + " sampled chunk(s), " + linkCount / 2 + " link(s), " +
+            reachable.size() + " reachable, " + queue.size() + " chunk(s) queued";
+    }
+
+    /**
+     * Standable surface spot at x/z (feet position), or null. The chunk must be loaded.
+     */
+    @Nullable
+    static BlockPos findSpot(Level level, int x, int z) {
+        int y = level.getHeight(Heightmap.Types.MOTION_BLOCKING_NO_LEAVES, x, z);
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos(x, y, z);
+        if (WalkNodeEvaluator.getBlockPathTypeStatic(level, pos) != BlockPathTypes.WALKABLE) return null;
+        pos.set(x, y + 1, z);
+        if (!isOpen(level, pos)) return null;
+        return new BlockPos(x, y, z);
+    }
+
+    private static boolean isOpen(BlockGetter level, BlockPos pos) {
+        return level.getBlockState(pos).getCollisionShape(level, pos).isEmpty() && level.getFluidState(pos).isEmpty();
+    }
+
+    private void updateArea(Villager npc, @Nullable NuncleBoundary boundary) {
+        int npcX = SectionPos.blockToSectionCoord(npc.getX());
+        int npcZ = SectionPos.blockToSectionCoord(npc.getZ());
+        boolean fixed = boundary != null && boundary.radius() <= MAX_AREA_CHUNKS * 16;
+        if (boundary != areaBoundary) {
+            clear(); // spots were filtered by the old boundary
+            areaBoundary = boundary;
+        } else if (hasArea && (fixed || Math.max(Math.abs(npcX - areaX), Math.abs(npcZ - areaZ)) < RECENTER_CHUNKS)) {
+            return;
+        }
+
+        hasArea = true;
+        if (fixed) {
+            areaX = SectionPos.blockToSectionCoord(boundary.centerX());
+            areaZ = SectionPos.blockToSectionCoord(boundary.centerZ());
+            areaRadius = (int) Math.ceil(boundary.radius() / 16.0) + 1;
+        } else {
+            areaX = npcX;
+            areaZ = npcZ;
+            areaRadius = boundary == null ? FREE_AREA_CHUNKS : MAX_AREA_CHUNKS;
+        }
+
+        // Forget what fell out of the area, queue what came into it
+        for (LongIterator it = spots.keySet().iterator(); it.hasNext(); ) {
+            long chunk = it.nextLong();
+            if (!inArea(chunk)) {
+                it.remove();
+                unlink(chunk);
+            }
+        }
+        for (LongIterator it = queue.iterator(); it.hasNext(); ) {
+            if (!inArea(it.nextLong())) it.remove();
+        }
+        for (int dx = -areaRadius; dx <= areaRadius; dx++) {
+            for (int dz = -areaRadius; dz <= areaRadius; dz++) {
+                long chunk = ChunkPos.asLong(areaX + dx, areaZ + dz);
+                if (!spots.containsKey(chunk) && inArea(chunk)) queue.add(chunk);
+            }
+        }
+        graphChanged = true;
+    }
+
+    private boolean inArea(long chunk) {
+        int cx = ChunkPos.getX(chunk);
+        int cz = ChunkPos.getZ(chunk);
+        if (Math.max(Math.abs(cx - areaX), Math.abs(cz - areaZ)) > areaRadius) return false;
+        // Chunk center within the boundary, give or take half a chunk diagonal
+        return areaBoundary == null
+            || areaBoundary.distanceFromCenter((cx << 4) + 8, (cz << 4) + 8) <= areaBoundary.radius() + 12;
+    }
+
+    private void sample(long chunk, @Nullable NuncleBoundary boundary) {
+        unlink(chunk);
+        int x0 = ChunkPos.getX(chunk) << 4;
+        int z0 = ChunkPos.getZ(chunk) << 4;
+        long spot = NO_SPOT;
+        for (int[] column : COLUMNS) {
+            int x = x0 + column[0];
+            int z = z0 + column[1];
+            if (boundary != null && !boundary.contains(x + 0.5, z + 0.5)) continue;
+            BlockPos found = findSpot(level, x, z);
+            if (found != null) {
+                spot = found.asLong();
+                break;
+            }
+        }
+        spots.put(chunk, spot);
+        graphChanged = true;
+        if (spot == NO_SPOT) return;
+
+        for (int d = 0; d < 4; d++) {
+            int nx = ChunkPos.getX(chunk) + DX[d];
+            int nz = ChunkPos.getZ(chunk) + DZ[d];
+            long neighbour = ChunkPos.asLong(nx, nz);
+            long other = spots.get(neighbour);
+            if (other != NO_SPOT && level.hasChunk(nx, nz) && walkable(spot, other)) {
+                links.put(chunk, (byte) (links.get(chunk) | 1 << d));
+                links.put(neighbour, (byte) (links.get(neighbour) | 1 << (d ^ 1)));
+            }
+        }
+    }
+
+    private void unlink(long chunk) {
+        int mask = links.remove(chunk);
+        for (int d = 0; d < 4; d++) {
+            if ((mask & 1 << d) == 0) continue;
+            long neighbour = ChunkPos.asLong(ChunkPos.getX(chunk) + DX[d], ChunkPos.getZ(chunk) + DZ[d]);
+            if (links.containsKey(neighbour)) links.put(neighbour, (byte) (links.get(neighbour) & ~(1 << (d ^ 1))));
+        }
+    }
+
+    /**
+     * Walk the surface along the straight line between two waypoints: every
+     * step stays within a block of the last, with a short run of taller
+     * columns allowed, and no water or lava underfoot. Both chunks must be loaded.
+     */
+    private boolean walkable(long from, long to) {
+        int ax = BlockPos.getX(from), az = BlockPos.getZ(from);
+        int bx = BlockPos.getX(to), bz = BlockPos.getZ(to);
+        int steps = Math.max(Math.abs(bx - ax), Math.abs(bz - az));
+        int lastY = BlockPos.getY(from);
+        int obstacles = 0;
+        BlockPos.MutableBlockPos ground = new BlockPos.MutableBlockPos();
+        for (int i = 1; i <= steps; i++) {
+            int x = ax + Math.round((float) (bx - ax) * i / steps);
+            int z = az + Math.round((float) (bz - az) * i / steps);
+            int y = level.getHeight(Heightmap.Types.MOTION_BLOCKING_NO_LEAVES, x, z);
+            if (!level.getFluidState(ground.set(x, y - 1, z)).isEmpty()) return false;
+            if (Math.abs(y - lastY) > 1) {
+                if (++obstacles > MAX_OBSTACLE_RUN) return false;
+                continue;
+            }
+            obstacles = 0;
+            lastY = y;
+        }
+        return Math.abs(BlockPos.getY(to) - lastY) <= 1;
+    }
+
+    private void refreshReachable(Villager npc) {
+        long start = ChunkPos.asLong(SectionPos.blockToSectionCoord(npc.getX()), SectionPos.blockToSectionCoord(npc.getZ()));
+        if (!graphChanged && start == reachableFrom) return;
+        graphChanged = false;
+        reachableFrom = start;
+        reachable.clear();
+
+        // Seed from the waypoints around the NPC, which it can walk to directly
+        LongOpenHashSet seen = new LongOpenHashSet();
+        LongArrayFIFOQueue open = new LongArrayFIFOQueue();
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                long chunk = ChunkPos.asLong(ChunkPos.getX(start) + dx, ChunkPos.getZ(start) + dz);
+                if (spots.get(chunk) != NO_SPOT && seen.add(chunk)) open.enqueue(chunk);
+            }
+        }
+        while (!open.isEmpty()) {
+            long chunk = open.dequeueLong();
+            reachable.add(chunk);
+            int mask = links.get(chunk);
+            for (int d = 0; d < 4; d++) {
+                if ((mask & 1 << d) == 0) continue;
+                long neighbour = ChunkPos.asLong(ChunkPos.getX(chunk) + DX[d], ChunkPos.getZ(chunk) + DZ[d]);
+                if (seen.add(neighbour)) open.enqueue(neighbour);
+            }
+        }
+    }
+}
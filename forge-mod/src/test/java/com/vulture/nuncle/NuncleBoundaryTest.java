@@ -0,0 +1,37 @@
+package com.vulture.nuncle;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NuncleBoundaryTest {
+    private final NuncleBoundary boundary = new NuncleBoundary(10, -20, 5);
+
+    @Test
+    void containsIsInclusiveAtTheEdge() {
+        assertTrue(boundary.contains(10, -20));
+        assertTrue(boundary.contains(15, -20));
+        assertTrue(boundary.contains(13, -16));
+        assertFalse(boundary.contains(15.01, -20));
+    }
+
+    @Test
+    void clampLeavesInsidePointsAlone() {
+        assertEquals(12.5, boundary.clampX(12.5, -18));
+        assertEquals(-18, boundary.clampZ(12.5, -18));
+    }
+
+    @Test
+    void clampProjectsOutsidePointsOntoTheEdge() {
+        double x = boundary.clampX(16, -12); // (6, 8) from center, distance 10
+        double z = boundary.clampZ(16, -12);
+        assertEquals(13, x, 1e-9);
+        assertEquals(-16, z, 1e-9);
+        assertTrue(boundary.contains(x, z));
+    }
+
+    @Test
+    void rejectsNegativeRadius() {
+        assertThrows(IllegalArgumentException.class, () -> new NuncleBoundary(0, 0, -1));
+    }
+}
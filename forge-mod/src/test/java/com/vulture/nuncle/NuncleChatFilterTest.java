@@ -0,0 +1,71 @@
+package com.vulture.nuncle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NuncleChatFilterTest {
+    private final List<String> heard = new ArrayList<>();
+    private final NuncleChatFilter filter = new NuncleChatFilter((player, message) -> heard.add(player + ": " + message));
+
+    @Test
+    void firstMessageGoesOutImmediately() {
+        filter.accept("alice", "hi nuncle", 0);
+        assertEquals(List.of("alice: hi nuncle"), heard);
+    }
+
+    @Test
+    void repeatsWithinTheWindowAreDropped() {
+        filter.accept("alice", "hello", 0);
+        filter.accept("alice", "  HELLO ", 50);
+        filter.tick(100);
+        assertEquals(List.of("alice: hello"), heard);
+
+        filter.accept("alice", "hello", 400); // window (200 ticks) has passed
+        assertEquals(2, heard.size());
+    }
+
+    @Test
+    void burstIsCoalescedIntoOneEvent() {
+        filter.accept("bob", "a", 0);
+        filter.accept("bob", "b", 5);
+        filter.accept("bob", "c", 10);
+        filter.tick(20);
+        assertEquals(List.of("bob: a"), heard);
+        filter.tick(40);
+        assertEquals(List.of("bob: a", "bob: b | c"), heard);
+    }
+
+    @Test
+    void emptyBucketHoldsTheBatchAndCapsIt() {
+        filter.configure("bucket", 1);
+        filter.configure("refill", 1000);
+        filter.accept("carol", "first", 0);
+        for (int i = 0; i < 8; i++) filter.accept("carol", "spam " + i, 50 + i);
+        filter.tick(100);
+        assertEquals(1, heard.size(), "no token left, nothing more should be heard yet");
+
+        filter.tick(1000);
+        assertEquals("carol: spam 0 | spam 1 | spam 2 | spam 3 | spam 4", heard.get(1));
+        assertTrue(filter.stats().contains("rate-limited 3"), filter.stats());
+    }
+
+    @Test
+    void ignorePatternsAreCaseInsensitive() {
+        assertTrue(filter.addPattern("^!skip").startsWith("Ignoring"));
+        filter.accept("dave", "!SKIP this", 0);
+        filter.accept("dave", "keep this", 1);
+        assertEquals(List.of("dave: keep this"), heard);
+        assertTrue(filter.addPattern("(").startsWith("Invalid pattern"));
+    }
+
+    @Test
+    void playersAreLimitedIndependently() {
+        filter.accept("erin", "one", 0);
+        filter.accept("frank", "two", 0);
+        assertEquals(List.of("erin: one", "frank: two"), heard);
+    }
+}
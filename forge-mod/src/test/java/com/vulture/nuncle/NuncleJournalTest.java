@@ -0,0 +1,97 @@
+package com.vulture.nuncle;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NuncleJournalTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void sequencesAreAssignedInOrderAndReadBack() throws IOException {
+        try (NuncleJournal journal = new NuncleJournal(dir, 4096, 1 << 20)) {
+            assertEquals(1, journal.append(100, "SPAWNED", "1 64 2"));
+            assertEquals(2, journal.append(200, "SAID", "héllo"));
+            assertEquals(3, journal.append(300, "DESPAWNED", ""));
+
+            List<NuncleJournal.Record> all = journal.since(0, 10);
+            assertEquals(3, all.size());
+            assertEquals(new NuncleJournal.Record(2, 200, "SAID", "héllo"), all.get(1));
+            assertEquals("", all.get(2).data());
+
+            assertEquals(List.of(3L), journal.since(2, 10).stream().map(NuncleJournal.Record::seq).toList());
+            assertTrue(journal.since(3, 10).isEmpty());
+            assertEquals(1, journal.since(0, 1).size());
+        }
+    }
+
+    @Test
+    void reopeningContinuesTheSequence() throws IOException {
+        try (NuncleJournal journal = new NuncleJournal(dir, 4096, 1 << 20)) {
+            journal.append(1, "A", "one");
+            journal.append(2, "B", "two");
+        }
+        try (NuncleJournal journal = new NuncleJournal(dir, 4096, 1 << 20)) {
+            assertEquals(3, journal.nextSeq());
+            assertEquals(3, journal.append(3, "C", "three"));
+            assertEquals(List.of("A", "B", "C"), journal.since(0, 10).stream().map(NuncleJournal.Record::event).toList());
+        }
+    }
+
+    @Test
+    void idSurvivesReopenButNotAFreshStart() throws IOException {
+        long id;
+        try (NuncleJournal journal = new NuncleJournal(dir, 4096, 1 << 20)) {
+            journal.append(1, "A", "one");
+            id = journal.id();
+        }
+        try (NuncleJournal journal = new NuncleJournal(dir, 4096, 1 << 20)) {
+            assertEquals(id, journal.id());
+        }
+
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path p : files.filter(p -> p.toString().endsWith(".seg")).toList()) Files.delete(p);
+        }
+        try (NuncleJournal journal = new NuncleJournal(dir, 4096, 1 << 20)) {
+            assertEquals(1, journal.nextSeq());
+            assertNotEquals(id, journal.id(), "a journal numbering from 1 again needs a new id");
+        }
+    }
+
+    @Test
+    void segmentsRotateAndOldOnesAreDeleted() throws IOException {
+        try (NuncleJournal journal = new NuncleJournal(dir, 256, 1024)) {
+            for (int i = 0; i < 100; i++) journal.append(i, "TICK", "event number " + i);
+
+            assertTrue(journal.segmentCount() <= 4, "segments beyond the size cap are dropped");
+            try (Stream<Path> files = Files.list(dir)) {
+                assertEquals(journal.segmentCount(), files.filter(p -> p.toString().endsWith(".seg")).count());
+            }
+            // Asking from before the oldest kept segment starts at whatever is left, in order
+            List<NuncleJournal.Record> kept = journal.since(0, 1000);
+            assertEquals(100, kept.get(kept.size() - 1).seq());
+            for (int i = 1; i < kept.size(); i++) assertEquals(kept.get(i - 1).seq() + 1, kept.get(i).seq());
+            assertEquals(List.of(99L, 100L), journal.since(98, 10).stream().map(NuncleJournal.Record::seq).toList());
+        }
+    }
+
+    @Test
+    void oversizedDataIsTruncatedToFitASegment() throws IOException {
+        try (NuncleJournal journal = new NuncleJournal(dir, 128, 1 << 20)) {
+            journal.append(1, "BIG", "x".repeat(1000));
+            journal.append(2, "SMALL", "ok");
+            List<NuncleJournal.Record> all = journal.since(0, 10);
+            assertEquals(2, all.size());
+            assertTrue(all.get(0).data().length() < 128);
+            assertEquals("ok", all.get(1).data());
+        }
+    }
+}
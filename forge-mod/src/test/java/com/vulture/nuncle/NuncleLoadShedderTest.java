@@ -0,0 +1,67 @@
+package com.vulture.nuncle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NuncleLoadShedderTest {
+    private static long[] ticks(double ms) {
+        long[] times = new long[100];
+        Arrays.fill(times, (long) (ms * 1_000_000));
+        return times;
+    }
+
+    @Test
+    void jumpsStraightToTheLevelForTheAverage() {
+        NuncleLoadShedder shedder = new NuncleLoadShedder();
+        shedder.tick(ticks(30), 20);
+        assertEquals(NuncleLoadShedder.Level.NORMAL, shedder.level());
+        shedder.tick(ticks(70), 40);
+        assertEquals(NuncleLoadShedder.Level.CRITICAL, shedder.level());
+        assertEquals(70, shedder.mspt(), 1e-6);
+    }
+
+    @Test
+    void onlyEvaluatesOncePerSecond() {
+        NuncleLoadShedder shedder = new NuncleLoadShedder();
+        shedder.tick(ticks(70), 21);
+        assertEquals(NuncleLoadShedder.Level.NORMAL, shedder.level());
+    }
+
+    @Test
+    void stepsDownOneLevelAtATimeAfterSettling() {
+        NuncleLoadShedder shedder = new NuncleLoadShedder();
+        shedder.tick(ticks(70), 20);
+        shedder.tick(ticks(10), 40);
+        assertEquals(NuncleLoadShedder.Level.CRITICAL, shedder.level(), "too soon after the last change");
+        shedder.tick(ticks(10), 120);
+        assertEquals(NuncleLoadShedder.Level.HIGH, shedder.level());
+        shedder.tick(ticks(10), 220);
+        assertEquals(NuncleLoadShedder.Level.ELEVATED, shedder.level());
+    }
+
+    @Test
+    void staysUpInsideTheHysteresisBand() {
+        NuncleLoadShedder shedder = new NuncleLoadShedder();
+        shedder.tick(ticks(52), 20);
+        assertEquals(NuncleLoadShedder.Level.HIGH, shedder.level());
+        shedder.tick(ticks(47), 200); // under HIGH's 50 ms, but not by the hysteresis margin
+        assertEquals(NuncleLoadShedder.Level.HIGH, shedder.level());
+        shedder.tick(ticks(44), 300);
+        assertEquals(NuncleLoadShedder.Level.ELEVATED, shedder.level());
+    }
+
+    @Test
+    void pinnedLevelIgnoresMspt() {
+        NuncleLoadShedder shedder = new NuncleLoadShedder();
+        shedder.force(NuncleLoadShedder.Level.HIGH, 0);
+        shedder.tick(ticks(5), 200);
+        assertEquals(NuncleLoadShedder.Level.HIGH, shedder.level());
+        assertTrue(shedder.level().defersCommands());
+        shedder.force(null, 200);
+        shedder.tick(ticks(5), 400);
+        assertEquals(NuncleLoadShedder.Level.ELEVATED, shedder.level());
+    }
+}
@@ -0,0 +1,90 @@
+package com.vulture.nuncle;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NuncleObservationCodecTest {
+    private static final String FULL = """
+        {"self":{"position":{"x":-120,"y":64,"z":301},"health":17.5,"maxHealth":20.0},
+         "inventory":[{"name":"oak_log","count":12},{"name":"bread","count":3}],
+         "time":"Night","weather":"Raining","biome":"dark_forest",
+         "nearbyPlayers":[{"name":"Steve","distance":9}],
+         "nearbyEntities":[{"name":"zombie","distance":4,"hostile":true,"category":"hostile"},{"name":"cow","distance":11,"hostile":false,"category":"animal"},
+                           {"name":"zombie","distance":15,"hostile":true,"category":"hostile"}],
+         "groundItems":[{"name":"bread","count":1,"distance":2}],
+         "notableBlocks":[{"name":"oak_log","x":-118,"y":65,"z":300,"distance":2},
+                          {"name":"chest","x":-125,"y":63,"z":305,"distance":6}],
+         "boundary":"Boundary: center (0, 0) radius 500 | NPC is 323 blocks from center (176 from edge)"}
+        """;
+
+    private static JsonObject parse(String json) {
+        return JsonParser.parseString(json).getAsJsonObject();
+    }
+
+    @Test
+    void roundTripsFullObservation() {
+        JsonObject obs = parse(FULL);
+        byte[] data = new NuncleObservationCodec.Encoder().encode(obs, -120, 64, 301);
+        assertEquals(obs, new NuncleObservationCodec.Decoder().decode(data));
+        assertTrue(data.length * 2 < FULL.replaceAll("\\s", "").getBytes(StandardCharsets.UTF_8).length,
+            "binary should be well under half the JSON size, was " + data.length);
+    }
+
+    @Test
+    void roundTripsProjectedObservation() {
+        JsonObject obs = parse("""
+            {"self":{"position":{"x":5,"y":70,"z":-3},"health":20.0,"maxHealth":20.0},
+             "nearbyEntities":[{"name":"skeleton","distance":7,"hostile":true,"category":"hostile"}],
+             "load":{"level":"HIGH","mspt":52.3}}
+            """);
+        byte[] data = new NuncleObservationCodec.Encoder().encode(obs, 5, 70, -4);
+        assertEquals(obs, new NuncleObservationCodec.Decoder().decode(data));
+    }
+
+    @Test
+    void deadNpcDecodesAsNotAlive() {
+        byte[] data = new NuncleObservationCodec.Encoder().encodeDead();
+        assertEquals(parse("{\"alive\":false}"), new NuncleObservationCodec.Decoder().decode(data));
+    }
+
+    @Test
+    void laterMessagesReuseInternedNames() {
+        NuncleObservationCodec.Encoder encoder = new NuncleObservationCodec.Encoder();
+        NuncleObservationCodec.Decoder decoder = new NuncleObservationCodec.Decoder();
+        JsonObject obs = parse(FULL);
+        obs.remove("boundary"); // free text, never interned
+        byte[] first = encoder.encode(obs, -120, 64, 301);
+        byte[] second = encoder.encode(obs, -120, 64, 301);
+        // 7 distinct names (~50 bytes) are only sent the first time
+        assertTrue(first.length - second.length >= 45, "second message should carry no strings");
+        assertEquals(obs, decoder.decode(first));
+        assertEquals(obs, decoder.decode(second));
+    }
+
+    @Test
+    void missedMessageIsDetectedAndResetRecovers() {
+        NuncleObservationCodec.Encoder encoder = new NuncleObservationCodec.Encoder();
+        NuncleObservationCodec.Decoder decoder = new NuncleObservationCodec.Decoder();
+        decoder.decode(encoder.encode(parse("{\"biome\":\"plains\"}"), 0, 0, 0));
+        encoder.encode(parse("{\"biome\":\"desert\"}"), 0, 0, 0); // lost in transit
+        byte[] third = encoder.encode(parse("{\"biome\":\"taiga\"}"), 0, 0, 0);
+        assertThrows(IllegalStateException.class, () -> decoder.decode(third));
+
+        encoder.reset();
+        JsonObject obs = parse("{\"biome\":\"taiga\"}");
+        assertEquals(obs, decoder.decode(encoder.encode(obs, 0, 0, 0)));
+    }
+
+    @Test
+    void rejectsTruncatedInput() {
+        byte[] data = new NuncleObservationCodec.Encoder().encode(parse(FULL), -120, 64, 301);
+        byte[] cut = Arrays.copyOf(data, data.length - 3);
+        assertThrows(IllegalArgumentException.class, () -> new NuncleObservationCodec.Decoder().decode(cut));
+    }
+}
@@ -0,0 +1,101 @@
+package com.vulture.nuncle;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NuncleSchematicTest {
+    private static NuncleSchematic wall() {
+        // 3 wide, 2 high, 1 deep: stone bottom row, glass / skip / glass on top
+        return new NuncleSchematic(3, 2, 1, new String[] {null, "minecraft:stone", "minecraft:glass"},
+            new int[] {1, 1, 1, 2, 0, 2});
+    }
+
+    private static byte[] header(int version, int sx, int sy, int sz, String... palette) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NuncleVarInt.write(out, version);
+        NuncleVarInt.write(out, sx);
+        NuncleVarInt.write(out, sy);
+        NuncleVarInt.write(out, sz);
+        NuncleVarInt.write(out, palette.length);
+        for (String s : palette) NuncleVarInt.writeString(out, s);
+        return out.toByteArray();
+    }
+
+    private static byte[] concat(byte[] head, int... varints) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(head, 0, head.length);
+        for (int v : varints) NuncleVarInt.write(out, v);
+        return out.toByteArray();
+    }
+
+    private static String error(byte[] data) {
+        return assertThrows(IllegalArgumentException.class, () -> NuncleSchematic.decode(data)).getMessage();
+    }
+
+    @Test
+    void roundTripsAndIndexesYMajor() {
+        NuncleSchematic decoded = NuncleSchematic.decode(wall().encode());
+        assertEquals(3, decoded.sizeX());
+        assertEquals(2, decoded.sizeY());
+        assertEquals(6, decoded.volume());
+        assertEquals(5, decoded.blockCount());
+        assertEquals("minecraft:glass", decoded.state(decoded.cell(3)));
+        assertEquals(0, decoded.cell(4));
+        assertEquals(1, decoded.y(3));
+        assertEquals(0, decoded.x(3));
+    }
+
+    @Test
+    void runLengthsKeepUniformSchematicsSmall() {
+        int[] cells = new int[32 * 32 * 32];
+        Arrays.fill(cells, 1);
+        byte[] data = new NuncleSchematic(32, 32, 32, new String[] {null, "minecraft:stone"}, cells).encode();
+        assertTrue(data.length < 32, "uniform 32^3 took " + data.length + " bytes");
+    }
+
+    @Test
+    void rejectsWrongVersion() {
+        assertTrue(error(concat(header(2, 1, 1, 1), 1, 0)).contains("version"));
+    }
+
+    @Test
+    void rejectsBadSizes() {
+        assertTrue(error(concat(header(1, 0, 1, 1), 1, 0)).contains("size"));
+        assertTrue(error(concat(header(1, 33, 32, 32), 1, 0)).contains("size"));
+    }
+
+    @Test
+    void rejectsOversizedPalette() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int v : new int[] {1, 1, 1, 1, NuncleSchematic.MAX_PALETTE + 1}) NuncleVarInt.write(out, v);
+        assertTrue(error(out.toByteArray()).contains("palette size"));
+    }
+
+    @Test
+    void rejectsRunsPastTheEnd() {
+        assertTrue(error(concat(header(1, 2, 1, 1, "minecraft:stone"), 3, 1)).contains("run length"));
+        assertTrue(error(concat(header(1, 2, 1, 1, "minecraft:stone"), 0, 1)).contains("run length"));
+    }
+
+    @Test
+    void rejectsPaletteIndexOutOfRange() {
+        assertTrue(error(concat(header(1, 1, 1, 1, "minecraft:stone"), 1, 2)).contains("palette index"));
+    }
+
+    @Test
+    void rejectsTruncatedAndTrailingBytes() {
+        byte[] data = wall().encode();
+        assertEquals("Truncated schematic", error(Arrays.copyOf(data, data.length - 1)));
+        assertTrue(error(Arrays.copyOf(data, data.length + 1)).contains("Trailing"));
+    }
+
+    @Test
+    void constructorChecksCellCount() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new NuncleSchematic(2, 2, 2, new String[] {null}, new int[7]));
+    }
+}
@@ -0,0 +1,37 @@
+package com.vulture.nuncle;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NuncleTerrainTest {
+    @Test
+    void largestGridFitsOneReply() {
+        // Widest the grid gets at MAX_RADIUS, over every alignment of the NPC to the cells
+        int width = 0;
+        for (int x = 0; x < NuncleTerrain.CELL; x++) {
+            width = Math.max(width, Math.floorDiv(x + NuncleTerrain.MAX_RADIUS, NuncleTerrain.CELL)
+                - Math.floorDiv(x - NuncleTerrain.MAX_RADIUS, NuncleTerrain.CELL) + 1);
+        }
+        String grid = "z".repeat(width * width);
+        List<String> palette = new ArrayList<>();
+        for (int i = 0; i < NuncleTerrain.MAX_BIOMES; i++) palette.add("windswept_gravelly_hills_" + i); // longer than any vanilla biome
+
+        String json = NuncleTerrain.toJson(-30_000_000, -30_000_000, -64, width, width, grid, grid, grid, palette, grid);
+        int bytes = json.getBytes(StandardCharsets.UTF_8).length;
+        assertTrue(bytes <= NuncleEvents.REPLY_BYTES, "terrain reply at max radius is " + bytes + " bytes");
+    }
+
+    @Test
+    void heightsAreOneCharacterClamped() {
+        assertEquals('u', NuncleTerrain.heightChar(0));
+        assertEquals('v', NuncleTerrain.heightChar(1));
+        assertEquals('0', NuncleTerrain.heightChar(-NuncleTerrain.MAX_HEIGHT_STEP));
+        assertEquals('0', NuncleTerrain.heightChar(-200));
+        assertEquals(NuncleTerrain.heightChar(NuncleTerrain.MAX_HEIGHT_STEP), NuncleTerrain.heightChar(300));
+    }
+}
@@ -0,0 +1,69 @@
+package com.vulture.nuncle;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NuncleTopKTest {
+    private static int[] distances(NuncleTopK top) {
+        int[] out = new int[top.size()];
+        for (int i = 0; i < out.length; i++) out[i] = NuncleTopK.distance(top.get(i));
+        return out;
+    }
+
+    @Test
+    void keepsTheSmallestInAscendingOrder() {
+        NuncleTopK top = new NuncleTopK(3);
+        int[] offered = {9, 4, 12, 1, 7, 3, 30};
+        for (int i = 0; i < offered.length; i++) top.offer(NuncleTopK.pack(offered[i], i));
+        top.sort();
+        assertArrayEquals(new int[] {1, 3, 4}, distances(top));
+        assertEquals(3, NuncleTopK.id(top.get(0)));
+    }
+
+    @Test
+    void tiesBreakOnId() {
+        NuncleTopK top = new NuncleTopK(2);
+        top.offer(NuncleTopK.pack(5, 8));
+        top.offer(NuncleTopK.pack(5, 2));
+        assertFalse(top.offer(NuncleTopK.pack(5, 9)), "same distance, higher id must not displace");
+        assertTrue(top.offer(NuncleTopK.pack(5, 1)));
+        top.sort();
+        assertEquals(1, NuncleTopK.id(top.get(0)));
+        assertEquals(2, NuncleTopK.id(top.get(1)));
+    }
+
+    @Test
+    void acceptsReflectsTheCurrentCut() {
+        NuncleTopK top = new NuncleTopK(2);
+        assertTrue(top.accepts(100));
+        top.offer(NuncleTopK.pack(10, 0));
+        top.offer(NuncleTopK.pack(20, 1));
+        assertFalse(top.accepts(20));
+        assertTrue(top.accepts(19));
+    }
+
+    @Test
+    void fewerThanCapacityAndReuse() {
+        NuncleTopK top = new NuncleTopK(5);
+        top.offer(NuncleTopK.pack(2, 0));
+        top.offer(NuncleTopK.pack(1, 1));
+        top.sort();
+        assertArrayEquals(new int[] {1, 2}, distances(top));
+        top.clear();
+        assertEquals(0, top.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> top.get(0));
+    }
+
+    @Test
+    void negativeIdsRoundTrip() {
+        long key = NuncleTopK.pack(7, -3);
+        assertEquals(7, NuncleTopK.distance(key));
+        assertEquals(-3, NuncleTopK.id(key));
+    }
+
+    @Test
+    void rejectsZeroCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new NuncleTopK(0));
+    }
+}
@@ -0,0 +1,68 @@
+package com.vulture.nuncle;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NuncleTraceFileTest {
+    private static byte[] record() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (NuncleTraceFile.Writer writer = new NuncleTraceFile.Writer(out, 123_456L, "world")) {
+            writer.command(0, "nuncle spawn 10 64 -20");
+            writer.tick(1, 10.5, 64, -19.5, 20, NuncleTraceFile.ALIVE, 150_000);
+            writer.tick(2, 10.75, 64, -19.25, 19.5f, NuncleTraceFile.ALIVE | NuncleTraceFile.WANDERING, 90_000);
+            writer.command(2, "nuncle say héllo");
+            writer.tick(3, 10.75, 64, -19.25, 19.5f, NuncleTraceFile.ALIVE | NuncleTraceFile.WANDERING, 80_000);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    void roundTripsCommandsAndTicks() throws IOException {
+        NuncleTraceFile.Trace trace = NuncleTraceFile.read(ByteBuffer.wrap(record()));
+        assertEquals(123_456L, trace.startGameTime());
+        assertEquals("world", trace.level());
+        assertEquals(List.of(new NuncleTraceFile.Command(0, "nuncle spawn 10 64 -20"),
+            new NuncleTraceFile.Command(2, "nuncle say héllo")), trace.commands());
+
+        assertEquals(3, trace.ticks().size());
+        NuncleTraceFile.Tick second = trace.ticks().get(1);
+        assertEquals(2, second.tick());
+        assertEquals(10.75, second.x(), 1e-9);
+        assertEquals(-19.25, second.z(), 1e-9);
+        assertEquals(19.5, second.health(), 1e-9);
+        assertEquals(NuncleTraceFile.ALIVE | NuncleTraceFile.WANDERING, second.flags());
+        assertEquals(90, second.modMicros());
+    }
+
+    @Test
+    void quietTicksStayCompact() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NuncleTraceFile.Writer writer = new NuncleTraceFile.Writer(out, 0, "w");
+        writer.tick(1, 100, 70, 100, 20, NuncleTraceFile.ALIVE, 50_000);
+        long before = writer.size();
+        for (int t = 2; t <= 1001; t++) writer.tick(t, 100, 70, 100, 20, NuncleTraceFile.ALIVE, 50_000);
+        writer.close();
+        assertTrue((writer.size() - before) / 1000.0 <= 9, "a quiet tick took " + (writer.size() - before) / 1000.0 + " bytes");
+    }
+
+    @Test
+    void truncatedTraceReadsUpToTheLastWholeRecord() throws IOException {
+        byte[] full = record();
+        NuncleTraceFile.Trace trace = NuncleTraceFile.read(ByteBuffer.wrap(Arrays.copyOf(full, full.length - 2)));
+        assertEquals(2, trace.ticks().size());
+        assertEquals(2, trace.commands().size());
+    }
+
+    @Test
+    void rejectsOtherFiles() {
+        assertThrows(IllegalArgumentException.class,
+            () -> NuncleTraceFile.read(ByteBuffer.wrap("definitely not a trace".getBytes())));
+    }
+}
@@ -0,0 +1,77 @@
+package com.vulture.nuncle;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NuncleVarIntTest {
+    private static final int[] BOUNDARIES = {0, 1, -1, 63, -64, 64, 127, 128, 16383, 16384,
+        Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE - 1, Integer.MIN_VALUE + 1};
+
+    @Test
+    void unsignedRoundTripsBoundaries() {
+        for (int value : BOUNDARIES) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            NuncleVarInt.write(out, value);
+            ByteBuffer in = ByteBuffer.wrap(out.toByteArray());
+            assertEquals(value, NuncleVarInt.read(in), "value " + value);
+            assertFalse(in.hasRemaining());
+        }
+    }
+
+    @Test
+    void signedRoundTripsBoundaries() {
+        for (int value : BOUNDARIES) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            NuncleVarInt.writeSigned(out, value);
+            assertEquals(value, NuncleVarInt.readSigned(ByteBuffer.wrap(out.toByteArray())), "value " + value);
+        }
+    }
+
+    @Test
+    void encodedSizes() {
+        assertEquals(1, size(0, false));
+        assertEquals(1, size(127, false));
+        assertEquals(2, size(128, false));
+        assertEquals(5, size(-1, false)); // unsigned -1 is all ones
+        assertEquals(1, size(-1, true));  // zigzag keeps small negatives small
+        assertEquals(1, size(-64, true));
+        assertEquals(2, size(64, true));
+        assertEquals(5, size(Integer.MIN_VALUE, true));
+    }
+
+    private static int size(int value, boolean signed) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (signed) NuncleVarInt.writeSigned(out, value);
+        else NuncleVarInt.write(out, value);
+        return out.size();
+    }
+
+    @Test
+    void truncatedInputThrows() {
+        assertThrows(BufferUnderflowException.class, () -> NuncleVarInt.read(ByteBuffer.wrap(new byte[0])));
+        assertThrows(BufferUnderflowException.class,
+            () -> NuncleVarInt.read(ByteBuffer.wrap(new byte[] {(byte) 0x80, (byte) 0x80})));
+    }
+
+    @Test
+    void overlongInputThrows() {
+        byte[] six = {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01};
+        assertThrows(IllegalArgumentException.class, () -> NuncleVarInt.read(ByteBuffer.wrap(six)));
+    }
+
+    @Test
+    void stringsRoundTripAndRespectTheLimit() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NuncleVarInt.writeString(out, "minecraft:oak_stairs[facing=north] é");
+        byte[] data = out.toByteArray();
+        assertEquals("minecraft:oak_stairs[facing=north] é", NuncleVarInt.readString(ByteBuffer.wrap(data), 64));
+        assertThrows(IllegalArgumentException.class, () -> NuncleVarInt.readString(ByteBuffer.wrap(data), 8));
+        assertThrows(IllegalArgumentException.class,
+            () -> NuncleVarInt.readString(ByteBuffer.wrap(data, 0, data.length - 1).slice(), 64));
+    }
+}
@@ -2,6 +2,13 @@ import { logger } from '../utils/logger.js';
 import type { PersistentMemory } from './memory.js';
 import type { AIPlayerBot } from './bot.js';
 import type { Boundary } from './types.js';
+import { formatTerrain } from './perception.js';
+import { encodeSchematic } from './schematic-codec.js';
+
+/** Mirrors NuncleAutoPickup.DEFAULT_RADIUS in the mod */
+const AUTO_PICKUP_DEFAULT_RADIUS = 4;
+/** Base64 per "schematic upload" command, well inside an RCON request */
+const SCHEMATIC_CHUNK_CHARS = 1000;
 
 // Tool definitions for Claude API (tool_use pattern)
 export const ACTION_TOOLS = [
@@ -65,11 +72,14 @@ export const ACTION_TOOLS = [
   // Combat
   {
     name: 'attackEntity',
-    description: 'Attack the nearest entity of a given type.',
+    description:
+      'Fight every entity of a given type nearby, one after another, until none are left. ' +
+      'Use "hostile" to clear all hostile mobs. You get an alert when the area is clear.',
     input_schema: {
       type: 'object' as const,
       properties: {
-        entityType: { type: 'string', description: 'Entity type to attack (e.g. "zombie", "cow")' },
+        entityType: { type: 'string', description: 'Entity type to attack (e.g. "zombie", "cow") or "hostile"' },
+        radius: { type: 'number', description: 'How far to look for targets, 1-32 blocks (default 16)' },
       },
       required: ['entityType'],
     },
@@ -101,6 +111,19 @@ export const ACTION_TOOLS = [
     },
   },
 
+  {
+    name: 'surveyTerrain',
+    description:
+      'Get a coarse map of the land around you: ground type, water, lava, steep spots, ' +
+      'height range and biomes. Use it to plan a route or find a spot to build.',
+    input_schema: {
+      type: 'object' as const,
+      properties: {
+        radius: { type: 'number', description: 'How far to map in blocks, 4-48 (default 32)' },
+      },
+    },
+  },
+
   // Items
   {
     name: 'pickupItem',
@@ -112,6 +135,21 @@ export const ACTION_TOOLS = [
       },
     },
   },
+  {
+    name: 'setAutoPickup',
+    description:
+      'Turn automatic item pickup on or off. While on, you collect drops (from mining, fighting, ' +
+      'or other players) within a few blocks without calling pickupItem.',
+    input_schema: {
+      type: 'object' as const,
+      properties: {
+        enabled: { type: 'boolean', description: 'true to turn auto-pickup on, false to turn it off' },
+        radius: { type: 'number', description: 'How far to collect from, 1-12 blocks (default 4)' },
+        itemFilter: { type: 'string', description: 'Optional comma-separated item names to collect (e.g. "iron,coal")' },
+      },
+      required: ['enabled'],
+    },
+  },
   {
     name: 'dropItem',
     description: 'Drop an item from your inventory on the ground.',
@@ -172,6 +210,36 @@ export const ACTION_TOOLS = [
     },
   },
 
+  // Building
+  {
+    name: 'buildStructure',
+    description:
+      'Build a structure block by block from a drawing, up to 32x32x32. Draw it as layers from the bottom up; ' +
+      'each layer is rows from north to south, each row one character per block from west to east. ' +
+      '"." or space leaves a block as it is. Blocks come out of your inventory; the job pauses when you run out ' +
+      'and you are told when it finishes.',
+    input_schema: {
+      type: 'object' as const,
+      properties: {
+        x: { type: 'number', description: 'West (lowest x) edge of the structure' },
+        y: { type: 'number', description: 'Y of the bottom layer' },
+        z: { type: 'number', description: 'North (lowest z) edge of the structure' },
+        palette: {
+          type: 'object',
+          description: 'Character to block, e.g. {"c": "cobblestone", "d": "oak_door[facing=south]"}',
+          additionalProperties: { type: 'string' },
+        },
+        layers: {
+          type: 'array',
+          description: 'Bottom layer first, e.g. [["ccc","c.c","ccc"], ["ccc","c.c","ccc"]]',
+          items: { type: 'array', items: { type: 'string' } },
+        },
+        blocksPerTick: { type: 'number', description: 'Placement speed, 1-16 (default 2)' },
+      },
+      required: ['x', 'y', 'z', 'palette', 'layers'],
+    },
+  },
+
   // Crafting
   {
     name: 'craft',
@@ -185,6 +253,26 @@ export const ACTION_TOOLS = [
     },
   },
 
+  // Plans
+  {
+    name: 'runPlan',
+    description:
+      'Queue several steps that run back-to-back without waiting for you. The NPC walks into range for each step ' +
+      'by itself. Steps are separated by ";": goto x y z | mine x y z | mine area x1 y1 z1 x2 y2 z2 | ' +
+      'mine vein x y z (whole ore vein or tree trunk) | place x y z block | pickup [filter] | ' +
+      'drop item | take x y z [filter] [count] | put x y z item [count] | craft item | wait ticks. ' +
+      'A failing step aborts the rest (pickup fails when nothing in range matched). ' +
+      'You will be told when the plan finishes or fails.',
+    input_schema: {
+      type: 'object' as const,
+      properties: {
+        steps: { type: 'string', description: 'e.g. "mine 10 63 4; mine 10 62 4; pickup; put 0 64 0 cobblestone"' },
+        append: { type: 'boolean', description: 'Add to the running plan instead of replacing it' },
+      },
+      required: ['steps'],
+    },
+  },
+
   // Memory / Meta
   {
     name: 'setGoal',
@@ -269,6 +357,8 @@ export class ActionExecutor {
   private memory: PersistentMemory;
   private boundary: Boundary | null;
   private lastPosition: { x: number; y: number; z: number } | null = null;
+  /** Schematic ids the mod has stored this session, so a repeated drawing skips the upload */
+  private uploadedSchematics = new Set<string>();
 
   constructor(bot: AIPlayerBot, memory: PersistentMemory, boundary: Boundary | null) {
     this.bot = bot;
@@ -315,7 +405,9 @@ export class ActionExecutor {
           return await this.bot.sendCommand(`mine ${Math.round(args.x)} ${Math.round(args.y)} ${Math.round(args.z)}`);
 
         case 'attackEntity':
-          return await this.bot.sendCommand(`attack ${args.entityType}`);
+          return await this.bot.sendCommand(args.radius !== undefined
+            ? `attack ${args.entityType} ${Math.min(Math.max(args.radius, 1), 32)}`
+            : `attack ${args.entityType}`);
 
         case 'chat': {
           const msg = (args.message as string).slice(0, 200);
@@ -325,11 +417,32 @@ export class ActionExecutor {
         case 'lookAt':
           return await this.bot.sendCommand(`look ${args.x} ${args.y} ${args.z}`);
 
+        case 'surveyTerrain': {
+          const radius = Math.min(Math.max(Math.round(args.radius ?? 32), 4), 48);
+          const raw = await this.bot.sendCommand(`terrain ${radius}`);
+          try {
+            const grid = JSON.parse(raw);
+            if (grid.alive === false) return 'You are not spawned.';
+            return formatTerrain(grid, this.lastPosition ?? undefined);
+          } catch {
+            return raw;
+          }
+        }
+
         case 'pickupItem': {
           const filter = args.itemFilter ? ` ${args.itemFilter}` : '';
           return await this.bot.sendCommand(`pickup${filter}`);
         }
 
+        case 'setAutoPickup': {
+          if (!args.enabled) return await this.bot.sendCommand('autopickup off');
+          // The filter follows the radius positionally, so send the mod's default when only a filter is given
+          const radius = args.radius ?? (args.itemFilter ? AUTO_PICKUP_DEFAULT_RADIUS : undefined);
+          const radiusArg = radius !== undefined ? ` ${Math.min(Math.max(radius, 1), 12)}` : '';
+          const filter = args.itemFilter ? ` ${args.itemFilter}` : '';
+          return await this.bot.sendCommand(`autopickup on${radiusArg}${filter}`);
+        }
+
         case 'dropItem':
           return await this.bot.sendCommand(`drop ${args.itemName}`);
 
@@ -356,6 +469,35 @@ export class ActionExecutor {
         case 'craft':
           return await this.bot.sendCommand(`craft ${args.item}`);
 
+        case 'buildStructure': {
+          let schematic;
+          try {
+            schematic = encodeSchematic({ palette: args.palette ?? {}, layers: args.layers ?? [] });
+          } catch (err: any) {
+            return `Bad drawing: ${err.message}`;
+          }
+          if (!this.uploadedSchematics.has(schematic.id)) {
+            const base64 = schematic.data.toString('base64');
+            for (let i = 0; i < base64.length; i += SCHEMATIC_CHUNK_CHARS) {
+              const reply = await this.bot.sendCommand(
+                `schematic upload ${schematic.id} ${base64.slice(i, i + SCHEMATIC_CHUNK_CHARS)}`);
+              if (!reply.startsWith('Received')) return `Upload failed: ${reply}`;
+            }
+            const stored = await this.bot.sendCommand(`schematic finish ${schematic.id}`);
+            // Under load the mod queues this and reports it with DEFERRED_DONE; building now would not find it
+            if (!stored.startsWith('Stored')) return `Schematic not stored yet: ${stored}`;
+            this.uploadedSchematics.add(schematic.id);
+          }
+          const perTick = args.blocksPerTick !== undefined
+            ? ` ${Math.min(Math.max(Math.round(args.blocksPerTick), 1), 16)}`
+            : '';
+          return await this.bot.sendCommand(
+            `build ${schematic.id} ${Math.round(args.x)} ${Math.round(args.y)} ${Math.round(args.z)}${perTick}`);
+        }
+
+        case 'runPlan':
+          return await this.bot.sendCommand(`plan ${args.append ? 'add ' : ''}${args.steps}`);
+
         // Memory actions (local, no RCON)
         case 'setGoal':
           this.memory.setGoal(args.goal, args.subTasks);
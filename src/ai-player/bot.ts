@@ -84,6 +84,29 @@ export class AIPlayerBot extends EventEmitter {
       case 'SAID':
         // Our own chat, ignore
         break;
+      case 'THREAT':
+      case 'THREAT_CLEAR':
+      case 'LOW_HEALTH':
+      case 'PLAYER_NEAR':
+      case 'PLAYER_AWAY':
+      case 'ITEM_NEARBY':
+      case 'ACTION_DONE':
+      case 'ACTION_FAILED':
+      case 'PLAN_DONE':
+      case 'PLAN_FAILED':
+      case 'JOB_PROGRESS':
+      case 'JOB_PAUSED':
+      case 'JOB_RESUMED':
+      case 'COMBAT_KILL':
+      case 'COMBAT_LOST':
+      case 'COMBAT_CLEAR':
+      case 'AUTO_PICKUP_FULL':
+      case 'LOAD_LEVEL':
+      case 'DEFERRED_DONE':
+      case 'DEFERRED_CANCELLED':
+        // Perception alerts and plan progress pushed by the mod
+        this.emit('alert', event, data);
+        break;
       case 'BRAIN_ON':
         this.emit('brainOn');
         break;
@@ -4,7 +4,8 @@ import { logger } from '../utils/logger.js';
 import type { AIPlayerConfig, ThinkTrigger, GameObservation } from './types.js';
 import type { PersistentMemory } from './memory.js';
 import { ACTION_TOOLS, ActionExecutor } from './actions.js';
-import { observeGameState, formatObservation } from './perception.js';
+import { observeGameState, observeGameStateBinary, formatObservation } from './perception.js';
+import { ObservationDecoder } from './observation-codec.js';
 import type { AIPlayerBot } from './bot.js';
 
 const MAX_CONTINUATION_ROUNDS = 3;
@@ -27,6 +28,7 @@ export class AIBrain {
   private memory: PersistentMemory;
   private personality: string;
   private executor: ActionExecutor;
+  private observationDecoder: ObservationDecoder | null;
   private getPlayerCount: () => number;
 
   private conversationHistory: MessageParam[] = [];
@@ -61,6 +63,7 @@ export class AIBrain {
     this.getPlayerCount = getPlayerCount;
     this.client = new Anthropic({ apiKey: config.anthropicApiKey });
     this.executor = new ActionExecutor(botWrapper, memory, config.boundary);
+    this.observationDecoder = config.binaryObserve ? new ObservationDecoder() : null;
   }
 
   get isRunning(): boolean {
@@ -83,6 +86,20 @@ export class AIBrain {
       this.triggerThink('damage');
     });
 
+    this.botWrapper.on('alert', (event: string, data: string) => {
+      const text = describeAlert(event, data);
+      if (!text) return;
+      this.addEvent(text);
+      if (event === 'THREAT' || event === 'LOW_HEALTH') {
+        if (this.sleeping) this.wake(text);
+        this.triggerThink('damage');
+      } else if (event === 'PLAYER_NEAR' || event === 'PLAN_DONE' || event === 'PLAN_FAILED' ||
+          event === 'JOB_PAUSED' || event === 'COMBAT_CLEAR' || event === 'DEFERRED_DONE' ||
+          event === 'DEFERRED_CANCELLED') {
+        this.triggerThink('event');
+      }
+    });
+
     this.botWrapper.on('died', () => {
       this.addEvent('You died!');
       // Dead NPC = no reason to think
@@ -127,6 +144,7 @@ export class AIBrain {
     this.generateSessionSummary('shutdown');
     this.botWrapper.removeAllListeners('chat');
     this.botWrapper.removeAllListeners('damaged');
+    this.botWrapper.removeAllListeners('alert');
     this.botWrapper.removeAllListeners('died');
     this.botWrapper.removeAllListeners('spawned');
     this.botWrapper.removeAllListeners('playerJoined');
@@ -234,7 +252,9 @@ export class AIBrain {
 
   private async thinkCycle(trigger: ThinkTrigger): Promise<void> {
     // Gather observations via RCON
-    const observation = await observeGameState(this.botWrapper);
+    const observation = this.observationDecoder
+      ? await observeGameStateBinary(this.botWrapper, this.observationDecoder)
+      : await observeGameState(this.botWrapper);
     observation.recentEvents = [...this.eventBuffer];
 
     // Update executor's position knowledge
@@ -602,3 +622,52 @@ export class AIBrain {
     return estimatedCost >= this.config.maxDailySpend;
   }
 }
+
+/** Turn a mod perception alert into a line for the event buffer */
+function describeAlert(event: string, data: string): string | null {
+  const parts = data.split(' ');
+  switch (event) {
+    case 'THREAT':
+      return `A hostile ${parts[0]} is ${parts[1]} blocks away!`;
+    case 'THREAT_CLEAR':
+      return 'No hostiles nearby anymore.';
+    case 'LOW_HEALTH':
+      return `Your health is low (${parts[0]})!`;
+    case 'PLAYER_NEAR':
+      return `${parts[0]} came within earshot (${parts[1]} blocks).`;
+    case 'PLAYER_AWAY':
+      return `${parts[0]} walked out of earshot.`;
+    case 'ITEM_NEARBY':
+      return `${parts[1]}x ${parts[0]} is lying on the ground ${parts[2]} blocks away.`;
+    case 'ACTION_DONE':
+      return `Plan step ${data}`;
+    case 'ACTION_FAILED':
+      return `Plan step FAILED ${data}`;
+    case 'PLAN_DONE':
+      return 'Your plan finished.';
+    case 'PLAN_FAILED':
+      return 'Your plan was aborted after a failed step.';
+    case 'JOB_PAUSED':
+      return `Job paused, out of materials: ${data}`;
+    case 'JOB_RESUMED':
+      return `Job resumed: ${data}`;
+    case 'AUTO_PICKUP_FULL':
+      return `Your inventory is full; ${data} item(s) are being left on the ground.`;
+    case 'COMBAT_KILL':
+      return `You killed a ${data}.`;
+    case 'COMBAT_LOST':
+      return `Your target ${parts[0]} is gone (${parts[1] ?? 'removed'}), not killed.`;
+    case 'LOAD_LEVEL':
+      return parts[0] === 'NORMAL'
+        ? 'Server load is back to normal.'
+        : `Server is under load (${parts[0]}): you see less and heavy commands may be queued.`;
+    case 'DEFERRED_DONE':
+      return `Queued command ran: ${data}`;
+    case 'DEFERRED_CANCELLED':
+      return `Queued command was dropped without running: ${data}`;
+    case 'COMBAT_CLEAR':
+      return `Area clear of ${parts[0]} (${(parts[1] ?? 'kills=0').replace('kills=', '')} killed).`;
+    default:
+      return null;
+  }
+}
@@ -7,12 +7,59 @@ import type { AIPlayerConfig } from './types.js';
 import { AIPlayerBot } from './bot.js';
 import { AIBrain } from './brain.js';
 import { PersistentMemory } from './memory.js';
+import { JournalCursor } from './journal-cursor.js';
 import { loadPersonality } from './personality.js';
 
 export interface AIPlayerInstance {
   shutdown: () => Promise<void>;
 }
 
+/** Replayed events older than this are stale news and are skipped */
+const REPLAY_MAX_AGE_MS = 5 * 60 * 1000;
+/** Alive/brain state is re-derived by reconcileAliveState, so these are never replayed */
+const STATE_EVENTS = new Set(['SPAWNED', 'DESPAWNED', 'DIED', 'BRAIN_ON', 'BRAIN_OFF']);
+
+/**
+ * Ask the mod for journal events after the cursor and dispatch the recent ones.
+ * Each reply is "<seq> <millis> EVENT data" lines, then "MORE <seq> <id>" when there is
+ * another page or "END <head> <id>" with the journal's latest sequence; a new id means
+ * the journal started over, so the cursor does too.
+ */
+async function replayJournal(
+  bot: AIPlayerBot,
+  cursor: JournalCursor,
+  dispatch: (event: string, data: string) => void,
+): Promise<void> {
+  if (cursor.seq === 0) return; // first run: nothing to catch up on
+  let replayed = 0;
+  let skipped = 0;
+  for (let page = 0; page < 50; page++) {
+    const reply = await bot.sendCommand(`journal since ${cursor.seq}`);
+    const lines = reply.split('\n');
+    const end = lines[lines.length - 1].match(/^(MORE|END) (\d+)(?: (\d+))?$/);
+    if (end?.[3] && cursor.useJournal(Number(end[3]))) continue; // started over: read the new journal from its start
+    for (const line of lines) {
+      const record = line.match(/^(\d+) (\d+) (\w+)(?: (.*))?$/);
+      if (record) {
+        if (!cursor.advance(Number(record[1]))) continue;
+        const event = record[3];
+        if (STATE_EVENTS.has(event) || event === 'JOURNAL' || Date.now() - Number(record[2]) > REPLAY_MAX_AGE_MS) {
+          skipped++;
+          continue;
+        }
+        dispatch(event, record[4] ?? '');
+        replayed++;
+      }
+    }
+    // Without an id (older mod), a head behind the cursor is the only sign of a restart
+    if (end?.[1] === 'END' && !end[3] && Number(end[2]) < cursor.seq) cursor.reset(Number(end[2]));
+    if (end?.[1] !== 'MORE') break;
+  }
+  if (replayed + skipped > 0) {
+    logger.info(`Replayed ${replayed} missed NUNCLE event(s), skipped ${skipped} stale`);
+  }
+}
+
 export async function setupAIPlayer(
   tracker: PlayerTracker,
   messaging: MessagingManager,
@@ -36,28 +83,54 @@ export async function setupAIPlayer(
   // Create brain (pass player count so it can sleep when server is empty)
   const brain = new AIBrain(config, bot, memory, personality, () => tracker.getPlayerCount());
 
+  // Sequence cursor into the mod's event journal, so a restart can catch up
+  const cursor = new JournalCursor(config.journalCursorFile);
+  await cursor.load();
+
+  const dispatch = (event: string, data: string) => {
+    // HEARD = proximity-filtered chat (player is within 32 blocks), deduped and rate limited
+    // by the mod; a burst arrives as one line with messages joined by " | "
+    if (event === 'HEARD') {
+      const spaceIdx = data.indexOf(' ');
+      if (spaceIdx > 0) {
+        const player = data.substring(0, spaceIdx);
+        const message = data.substring(spaceIdx + 1);
+        bot.handleChat(player, message);
+      }
+    } else {
+      // All other NUNCLE events (DAMAGED, DIED, SPAWNED, etc.)
+      bot.handleNuncleEvent(event, data);
+    }
+  };
+
+  // Live lines are held back while the journal is replayed, then deduped by sequence
+  let replaying = true;
+  const heldBack: string[] = [];
+
+  const handleLine = (line: string) => {
+    // Check for [NUNCLE] events from the Forge mod: "[NUNCLE] #<seq> EVENT data"
+    // (no sequence when the mod's journal is unavailable)
+    const nuncleMatch = line.match(/\[NUNCLE\] (?:#(\d+) )?(\w+)(?: (.*))?$/);
+    if (!nuncleMatch) return;
+    if (nuncleMatch[2] === 'JOURNAL') {
+      // The mod (re)opened its journal; a new id restarts the cursor just before this line
+      if (nuncleMatch[1]) {
+        cursor.useJournal(Number(nuncleMatch[3]), Number(nuncleMatch[1]) - 1);
+        cursor.advance(Number(nuncleMatch[1]));
+      }
+      return;
+    }
+    if (nuncleMatch[1] && !cursor.advance(Number(nuncleMatch[1]))) return; // already handled
+    dispatch(nuncleMatch[2], nuncleMatch[3] ?? '');
+  };
+
   // Wire log tailer events to bot
   tailer.on('line', (line: string) => {
-    // Check for [NUNCLE] events from the Forge mod
-    const nuncleMatch = line.match(/\[NUNCLE\] (\w+)(?: (.*))?$/);
-    if (nuncleMatch) {
-      const event = nuncleMatch[1];
-      const data = nuncleMatch[2] ?? '';
-
-      // HEARD = proximity-filtered chat (player is within 32 blocks)
-      if (event === 'HEARD') {
-        const spaceIdx = data.indexOf(' ');
-        if (spaceIdx > 0) {
-          const player = data.substring(0, spaceIdx);
-          const message = data.substring(spaceIdx + 1);
-          bot.handleChat(player, message);
-        }
-      } else {
-        // All other NUNCLE events (DAMAGED, DIED, SPAWNED, etc.)
-        bot.handleNuncleEvent(event, data);
-      }
+    if (replaying) {
+      heldBack.push(line);
       return;
     }
+    handleLine(line);
   });
 
   // Forward player join/leave from tracker to bot
@@ -130,6 +203,15 @@ export async function setupAIPlayer(
   // Start brain once — it handles spawned/died events internally
   brain.start();
 
+  // Catch up on events logged while we were down, then resume the live tail
+  try {
+    await replayJournal(bot, cursor, dispatch);
+  } catch (err) {
+    logger.warn('Event journal replay failed:', err);
+  }
+  replaying = false;
+  heldBack.splice(0).forEach(handleLine);
+
   // Spawn the NPC (if not already alive from reconciliation)
   if (!bot.isConnected) {
     try {
@@ -156,6 +238,7 @@ export async function setupAIPlayer(
       brain.stop();
       await bot.disconnect();
       await memory.shutdown();
+      await cursor.shutdown();
       logger.info('AI Player shut down');
     },
   };
@@ -0,0 +1,102 @@
+import { readFile, writeFile, mkdir } from 'node:fs/promises';
+import { existsSync } from 'node:fs';
+import { dirname } from 'node:path';
+import { logger } from '../utils/logger.js';
+
+/** A sequence this far behind the cursor can only come from a journal that started over */
+const MAX_SEQ_REGRESSION = 1000;
+
+/**
+ * Last [NUNCLE] event sequence number handled, persisted so a restarted bot
+ * can ask the mod's journal for what it missed ("nuncle journal since <seq>")
+ * and skip anything it already handled.
+ *
+ * Sequences only mean something within one journal id: the mod starts a new id
+ * (and numbers from 1 again) for a new world or a wiped journal, and the cursor
+ * starts over with it.
+ */
+export class JournalCursor {
+  private filePath: string;
+  private last = 0;
+  private journal = 0; // 0 = not known yet
+  private dirty = false;
+  private saveTimer: ReturnType<typeof setInterval> | null = null;
+
+  constructor(filePath: string) {
+    this.filePath = filePath;
+  }
+
+  async load(): Promise<void> {
+    if (existsSync(this.filePath)) {
+      try {
+        const parsed = JSON.parse(await readFile(this.filePath, 'utf-8')) as { seq?: number; journal?: number };
+        this.last = Number(parsed.seq) || 0;
+        this.journal = Number(parsed.journal) || 0;
+        logger.info(`Resuming NUNCLE events after #${this.last}`);
+      } catch (err) {
+        logger.warn('Failed to load journal cursor, starting fresh:', err);
+      }
+    }
+
+    // Cheap to write, so save often: a stale cursor means replaying events twice
+    this.saveTimer = setInterval(() => {
+      if (this.dirty) {
+        this.save().catch((err) => logger.warn('Saving journal cursor failed:', err));
+      }
+    }, 5000);
+  }
+
+  get seq(): number {
+    return this.last;
+  }
+
+  /** Record an event as handled; false if it was already handled */
+  advance(seq: number): boolean {
+    if (seq <= this.last - MAX_SEQ_REGRESSION) {
+      // Missed the journal's restart announcement, but no duplicate lags this far
+      this.reset(seq - 1);
+    }
+    if (seq <= this.last) return false;
+    this.last = seq;
+    this.dirty = true;
+    return true;
+  }
+
+  /**
+   * The mod named its journal id; if it is not the one the cursor counts in, start
+   * over just before `seq` (0 for the journal's start). True if the cursor was reset.
+   */
+  useJournal(id: number, seq = 0): boolean {
+    if (id === this.journal) return false;
+    const known = this.journal !== 0;
+    this.journal = id;
+    this.dirty = true;
+    if (!known) return false; // cursor from before ids: keep it, it was this journal's
+    this.reset(seq);
+    return true;
+  }
+
+  /** The journal was started over (new world or wiped), so follow it back down */
+  reset(seq: number): void {
+    logger.info(`Event journal restarted at #${seq} (was #${this.last})`);
+    this.last = seq;
+    this.dirty = true;
+  }
+
+  async save(): Promise<void> {
+    const dir = dirname(this.filePath);
+    if (!existsSync(dir)) {
+      await mkdir(dir, { recursive: true });
+    }
+    await writeFile(this.filePath, JSON.stringify({ seq: this.last, journal: this.journal }), 'utf-8');
+    this.dirty = false;
+  }
+
+  async shutdown(): Promise<void> {
+    if (this.saveTimer) {
+      clearInterval(this.saveTimer);
+      this.saveTimer = null;
+    }
+    if (this.dirty) await this.save();
+  }
+}
@@ -0,0 +1,124 @@
+/**
+ * Decoder for `/nuncle observe binary` (see NuncleObservationCodec.java for the layout).
+ * Produces the same object shape as the JSON observe, so perception can map either.
+ * One decoder per RCON session — it holds the receiving half of the string table.
+ */
+
+const VERSION = 2;
+const TIMES = ['Morning', 'Day', 'Sunset', 'Night', 'Dawn'];
+const CATEGORIES = ['hostile', 'animal', 'player', 'item', 'other'];
+
+/** Thrown when a message was missed; send `observe binary reset` and retry. */
+export class ObservationDesyncError extends Error {}
+
+export class ObservationDecoder {
+  private table: string[] = [];
+  private epoch = -1;
+
+  decode(base64: string): any {
+    const r = new Reader(Buffer.from(base64.trim(), 'base64'));
+    const version = r.varint();
+    if (version !== VERSION) throw new Error(`Unsupported observation version ${version}`);
+    const epoch = r.varint();
+    const flags = r.byte();
+    if ((flags & 1) === 0) return { alive: false };
+
+    const ox = r.zigzag();
+    const oy = r.zigzag();
+    const oz = r.zigzag();
+    const mask = r.varint();
+    const firstNew = r.varint();
+    const newCount = r.varint();
+    if (epoch !== this.epoch) {
+      if (firstNew !== 0) throw new ObservationDesyncError(`Missed the start of epoch ${epoch}`);
+      this.table = [];
+      this.epoch = epoch;
+    }
+    if (firstNew !== this.table.length) {
+      throw new ObservationDesyncError(`String table out of sync: have ${this.table.length}, message starts at ${firstNew}`);
+    }
+    for (let i = 0; i < newCount; i++) this.table.push(r.string());
+
+    const ref = () => {
+      const index = r.varint();
+      if (index >= this.table.length) throw new Error(`Bad string ref ${index}`);
+      return this.table[index];
+    };
+    const list = <T>(read: () => T): T[] => {
+      const out: T[] = [];
+      for (let n = r.varint(); n > 0; n--) out.push(read());
+      return out;
+    };
+    const has = (bit: number) => (mask & (1 << bit)) !== 0;
+
+    const obs: any = {};
+    if (has(0)) {
+      const position = { x: ox + r.zigzag(), y: oy + r.zigzag(), z: oz + r.zigzag() };
+      obs.self = { position, health: r.varint() / 10, maxHealth: r.varint() / 10 };
+    }
+    if (has(1)) obs.inventory = list(() => ({ name: ref(), count: r.varint() }));
+    if (has(2)) {
+      const packed = r.varint();
+      obs.time = TIMES[packed >>> 1] ?? 'Unknown';
+      obs.weather = (packed & 1) !== 0 ? 'Raining' : 'Clear';
+    }
+    if (has(3)) obs.biome = ref();
+    if (has(4)) obs.nearbyPlayers = list(() => ({ name: ref(), distance: r.varint() }));
+    if (has(5)) {
+      obs.nearbyEntities = list(() => {
+        const name = ref();
+        const packed = r.varint();
+        const category = CATEGORIES[packed & 7] ?? 'other';
+        return { name, distance: packed >>> 3, hostile: category === 'hostile', category };
+      });
+    }
+    if (has(6)) obs.groundItems = list(() => ({ name: ref(), count: r.varint(), distance: r.varint() }));
+    if (has(7)) {
+      obs.notableBlocks = list(() => {
+        const name = ref();
+        const dx = r.zigzag();
+        const dy = r.zigzag();
+        const dz = r.zigzag();
+        const distance = Math.floor(Math.sqrt(dx * dx + dy * dy + dz * dz));
+        return { name, x: ox + dx, y: oy + dy, z: oz + dz, distance };
+      });
+    }
+    if (has(8)) obs.boundary = r.string();
+    if (has(9)) obs.load = { level: ref(), mspt: r.varint() / 10 };
+    return obs;
+  }
+}
+
+class Reader {
+  private pos = 0;
+
+  constructor(private readonly buf: Buffer) {}
+
+  byte(): number {
+    if (this.pos >= this.buf.length) throw new Error('Truncated observation');
+    return this.buf[this.pos++];
+  }
+
+  varint(): number {
+    let value = 0;
+    for (let shift = 0; shift < 35; shift += 7) {
+      const b = this.byte();
+      value |= (b & 0x7f) << shift;
+      if ((b & 0x80) === 0) return value >>> 0;
+    }
+    throw new Error('VarInt too long');
+  }
+
+  zigzag(): number {
+    const raw = this.varint();
+    return (raw >>> 1) ^ -(raw & 1);
+  }
+
+  string(): string {
+    const length = this.varint();
+    if (this.pos + length > this.buf.length) throw new Error('Truncated observation');
+    const s = this.buf.toString('utf8', this.pos, this.pos + length);
+    this.pos += length;
+    return s;
+  }
+}
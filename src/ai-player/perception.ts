@@ -1,6 +1,7 @@
 import { logger } from '../utils/logger.js';
 import type { AIPlayerBot } from './bot.js';
-import type { GameObservation, InventoryItem, GroundItem } from './types.js';
+import type { GameObservation, InventoryItem, GroundItem, Position, TerrainGrid } from './types.js';
+import { ObservationDecoder, ObservationDesyncError } from './observation-codec.js';
 
 /** Blocks to suppress from observations even if the mod sends them (common clutter). */
 const SUPPRESS_BLOCKS = new Set([
@@ -16,47 +17,81 @@ const SUPPRESS_BLOCKS = new Set([
 /**
  * Observe game state by querying the Forge mod via RCON.
  * The mod returns compact JSON from /nuncle observe.
+ * `options` narrows the query, e.g. "fields=self,entities radius=16";
+ * sections that were not requested come back empty.
  */
-export async function observeGameState(bot: AIPlayerBot): Promise<GameObservation> {
-  const raw = await bot.sendCommand('observe');
+export async function observeGameState(bot: AIPlayerBot, options?: string): Promise<GameObservation> {
+  const raw = await bot.sendCommand(options ? `observe ${options}` : 'observe');
 
   try {
     const data = JSON.parse(raw);
-
-    if (!data.self) {
+    if (data.alive === false || (!options && !data.self)) {
       // NPC not alive
       return emptyObservation();
     }
-
-    return {
-      self: {
-        position: data.self.position ?? { x: 0, y: 0, z: 0 },
-        health: data.self.health ?? 20,
-        maxHealth: data.self.maxHealth ?? 20,
-      },
-      time: data.time ?? 'Unknown',
-      weather: data.weather ?? 'Unknown',
-      biome: data.biome ?? 'unknown',
-      nearbyPlayers: (data.nearbyPlayers ?? []).map((p: any) => ({
-        name: p.name,
-        distance: p.distance,
-      })),
-      nearbyEntities: (data.nearbyEntities ?? []).map((e: any) => ({
-        name: e.name,
-        distance: e.distance,
-        hostile: e.hostile ?? false,
-      })),
-      notableBlocks: filterBlocks(data.notableBlocks ?? []),
-      inventory: parseInventory(data.inventory),
-      groundItems: parseGroundItems(data.groundItems),
-      recentEvents: [], // Filled by brain from event buffer
-    };
+    return toObservation(data);
   } catch (err) {
     logger.warn(`Failed to parse observe response: ${raw}`);
     return emptyObservation();
   }
 }
 
+/**
+ * Same as observeGameState over the binary encoding (smaller payload, no JSON.parse).
+ * Reuse one decoder per bot; a missed message triggers a session reset and one retry.
+ * Any other failure (e.g. a mod without binary observe) falls back to the JSON command.
+ */
+export async function observeGameStateBinary(
+  bot: AIPlayerBot,
+  decoder: ObservationDecoder,
+  options?: string,
+): Promise<GameObservation> {
+  const command = options ? `observe binary ${options}` : 'observe binary';
+  try {
+    let data;
+    try {
+      data = decoder.decode(await bot.sendCommand(command));
+    } catch (err) {
+      if (!(err instanceof ObservationDesyncError)) throw err;
+      await bot.sendCommand('observe binary reset');
+      data = decoder.decode(await bot.sendCommand(command));
+    }
+    if (data.alive === false) return emptyObservation();
+    return toObservation(data);
+  } catch (err) {
+    logger.warn(`Failed to decode binary observe, falling back to JSON: ${err}`);
+    return observeGameState(bot, options);
+  }
+}
+
+function toObservation(data: any): GameObservation {
+  return {
+    self: {
+      position: data.self?.position ?? { x: 0, y: 0, z: 0 },
+      health: data.self?.health ?? 20,
+      maxHealth: data.self?.maxHealth ?? 20,
+    },
+    time: data.time ?? 'Unknown',
+    weather: data.weather ?? 'Unknown',
+    biome: data.biome ?? 'unknown',
+    nearbyPlayers: (data.nearbyPlayers ?? []).map((p: any) => ({
+      name: p.name,
+      distance: p.distance,
+    })),
+    nearbyEntities: (data.nearbyEntities ?? []).map((e: any) => ({
+      name: e.name,
+      distance: e.distance,
+      hostile: e.hostile ?? false,
+      category: e.category ?? (e.hostile ? 'hostile' : 'other'),
+    })),
+    notableBlocks: filterBlocks(data.notableBlocks ?? []),
+    inventory: parseInventory(data.inventory),
+    groundItems: parseGroundItems(data.groundItems),
+    load: data.load ? { level: data.load.level, mspt: data.load.mspt } : undefined,
+    recentEvents: [], // Filled by brain from event buffer
+  };
+}
+
 function filterBlocks(blocks: any[]): GameObservation['notableBlocks'] {
   return blocks
     .map((b: any) => ({
@@ -111,6 +146,9 @@ export function formatObservation(obs: GameObservation): string {
   const s = obs.self;
   lines.push(`Position: (${s.position.x}, ${s.position.y}, ${s.position.z}) | Health: ${s.health}/${s.maxHealth}`);
   lines.push(`Time: ${obs.time} | Weather: ${obs.weather} | Biome: ${obs.biome}`);
+  if (obs.load) {
+    lines.push(`Server load: ${obs.load.level} (${obs.load.mspt} ms/tick) - you see a shorter range than usual`);
+  }
 
   // Nearby players
   if (obs.nearbyPlayers.length > 0) {
@@ -125,7 +163,7 @@ export function formatObservation(obs: GameObservation): string {
     lines.push('\n== NEARBY ENTITIES ==');
     for (const e of obs.nearbyEntities) {
       const threat = e.hostile ? ' [HOSTILE]' : '';
-      lines.push(`${e.name} (${e.distance} blocks)${threat}`);
+      lines.push(`${e.name} (${e.distance} blocks, ${e.category})${threat}`);
     }
   }
 
@@ -165,3 +203,56 @@ export function formatObservation(obs: GameObservation): string {
 
   return lines.join('\n');
 }
+
+const TERRAIN_WATER = 1;
+const TERRAIN_LAVA = 2;
+const TERRAIN_STEEP = 4;
+const TERRAIN_HEIGHT_CHARS = '0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ';
+const TERRAIN_MAX_HEIGHT_STEP = 30;
+
+/**
+ * Render a /nuncle terrain grid as a character map, north at the top.
+ * Lava, water and steep ground override the surface class so hazards stand out;
+ * `at` marks the NPC's own cell.
+ */
+export function formatTerrain(grid: TerrainGrid, at?: Position): string {
+  const atCol = at ? Math.floor((Math.floor(at.x) - grid.x0) / grid.cell) : -1;
+  const atRow = at ? Math.floor((Math.floor(at.z) - grid.z0) / grid.cell) : -1;
+  const rows: string[] = [];
+  let low = Infinity;
+  let high = -Infinity;
+  for (let row = 0; row < grid.depth; row++) {
+    let line = '';
+    for (let col = 0; col < grid.width; col++) {
+      const i = row * grid.width + col;
+      const index = TERRAIN_HEIGHT_CHARS.indexOf(grid.height[i]);
+      if (index >= 0) {
+        const h = index - TERRAIN_MAX_HEIGHT_STEP;
+        low = Math.min(low, h);
+        high = Math.max(high, h);
+      }
+      const flags = parseInt(grid.flags[i], 16) || 0;
+      if (row === atRow && col === atCol) line += '@';
+      else if (flags & TERRAIN_LAVA) line += 'l';
+      else if (flags & TERRAIN_WATER) line += 'w';
+      else if (flags & TERRAIN_STEEP) line += '^';
+      else line += grid.surface[i];
+    }
+    rows.push(line);
+  }
+
+  const x1 = grid.x0 + grid.width * grid.cell - 1;
+  const z1 = grid.z0 + grid.depth * grid.cell - 1;
+  const lines = [
+    `Terrain from (${grid.x0}, ${grid.z0}) to (${x1}, ${z1}), one character per ${grid.cell}x${grid.cell} blocks, north at the top` +
+      (atRow >= 0 ? ', you are @' : '') + ':',
+    ...rows,
+    'Legend: g grass/dirt, s sand, r stone, i snow/ice, t trees, o other, w water, l lava, ^ steep, ? not loaded',
+  ];
+  if (low !== Infinity) {
+    const signed = (h: number) => (h > 0 ? `+${h}` : `${h}`);
+    lines.push(`Ground height relative to you: ${signed(low)} to ${signed(high)}`);
+  }
+  if (grid.biomes.length > 0) lines.push(`Biomes: ${grid.biomes.join(', ')}`);
+  return lines.join('\n');
+}
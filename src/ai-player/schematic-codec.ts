@@ -0,0 +1,97 @@
+import { createHash } from 'node:crypto';
+
+/**
+ * Encoder for the mod's schematic format (see NuncleSchematic.java for the layout),
+ * built from a layer-by-layer drawing the model can write directly.
+ */
+
+const VERSION = 1;
+const MAX_VOLUME = 32 * 32 * 32;
+const MAX_PALETTE = 256;
+
+/** Characters that mean "leave this cell as it is" */
+const SKIP = new Set(['.', ' ']);
+
+export interface SchematicDrawing {
+  /** One character per block state, e.g. { c: 'cobblestone', p: 'oak_planks' } */
+  palette: Record<string, string>;
+  /** Bottom layer first; each layer is rows north to south, each row west to east */
+  layers: string[][];
+}
+
+/**
+ * Encode a drawing; throws with a message meant for the model when it is malformed.
+ * Returns the bytes and a content-derived id, so the same drawing is only uploaded once.
+ */
+export function encodeSchematic(drawing: SchematicDrawing): { id: string; data: Buffer; blocks: number } {
+  const layers = drawing.layers;
+  const sizeY = layers.length;
+  const sizeZ = Math.max(0, ...layers.map((l) => l.length));
+  const sizeX = Math.max(0, ...layers.flatMap((l) => l.map((row) => row.length)));
+  if (sizeX === 0 || sizeY === 0 || sizeZ === 0) throw new Error('Schematic is empty');
+  if (sizeX * sizeY * sizeZ > MAX_VOLUME) {
+    throw new Error(`Schematic ${sizeX}x${sizeY}x${sizeZ} is larger than ${MAX_VOLUME} cells`);
+  }
+
+  const states: string[] = [];
+  const indexOf = new Map<string, number>();
+  for (const [ch, state] of Object.entries(drawing.palette)) {
+    if (ch.length !== 1 || SKIP.has(ch)) throw new Error(`Palette key "${ch}" must be one character other than "." or space`);
+    if (!indexOf.has(ch)) {
+      states.push(state.includes(':') ? state : `minecraft:${state}`);
+      indexOf.set(ch, states.length); // 0 is "leave as is"
+    }
+  }
+  if (states.length > MAX_PALETTE) throw new Error(`Palette has more than ${MAX_PALETTE} entries`);
+
+  // y-major, then z, then x; short rows and layers are padded with "leave as is"
+  const cells: number[] = [];
+  let blocks = 0;
+  for (let y = 0; y < sizeY; y++) {
+    for (let z = 0; z < sizeZ; z++) {
+      const row = layers[y][z] ?? '';
+      for (let x = 0; x < sizeX; x++) {
+        const ch = row[x] ?? '.';
+        if (SKIP.has(ch)) {
+          cells.push(0);
+          continue;
+        }
+        const index = indexOf.get(ch);
+        if (index === undefined) throw new Error(`"${ch}" at layer ${y}, row ${z} is not in the palette`);
+        cells.push(index);
+        blocks++;
+      }
+    }
+  }
+
+  const out: number[] = [];
+  varint(out, VERSION);
+  varint(out, sizeX);
+  varint(out, sizeY);
+  varint(out, sizeZ);
+  varint(out, states.length);
+  for (const state of states) {
+    const bytes = Buffer.from(state, 'utf8');
+    varint(out, bytes.length);
+    out.push(...bytes);
+  }
+  for (let i = 0; i < cells.length; ) {
+    let run = 1;
+    while (i + run < cells.length && cells[i + run] === cells[i]) run++;
+    varint(out, run);
+    varint(out, cells[i]);
+    i += run;
+  }
+
+  const data = Buffer.from(out);
+  const id = 's' + createHash('sha1').update(data).digest('hex').slice(0, 16);
+  return { id, data, blocks };
+}
+
+function varint(out: number[], value: number): void {
+  while (value > 0x7f) {
+    out.push((value & 0x7f) | 0x80);
+    value >>>= 7;
+  }
+  out.push(value);
+}
@@ -12,6 +12,9 @@ export interface AIPlayerConfig {
   maxDailySpend: number;
   personalityFile: string;
   memoryFile: string;
+  journalCursorFile: string;
+  /** Observe over the compact binary encoding, falling back to JSON when it fails */
+  binaryObserve: boolean;
   boundary: Boundary | null;
   spawnPosition: Position | null;
 }
@@ -31,6 +34,8 @@ export interface NearbyEntity {
   name: string;
   distance: number;
   hostile: boolean;
+  /** hostile, animal, player, item or other */
+  category: string;
 }
 
 export interface NotableBlock {
@@ -66,9 +71,32 @@ export interface GameObservation {
   notableBlocks: NotableBlock[];
   inventory: InventoryItem[];
   groundItems: GroundItem[];
+  /** Present while the mod is shedding load: observe radii are reduced */
+  load?: { level: string; mspt: number };
   recentEvents: string[];
 }
 
+/** Reply to /nuncle terrain: row-major grids, north to south, one entry per cell */
+export interface TerrainGrid {
+  cell: number;
+  x0: number;
+  z0: number;
+  y0: number;
+  width: number;
+  depth: number;
+  /**
+   * Ground height relative to y0, one character per cell: its index in 0-9a-zA-Z
+   * minus 30 (clamped to -30..+30), '?' where the chunk isn't loaded
+   */
+  height: string;
+  surface: string;
+  /** One hex digit per cell: 1 water, 2 lava, 4 steep */
+  flags: string;
+  biomes: string[];
+  /** One character per cell indexing biomes (0-9, a-z, A-Z) */
+  biome: string;
+}
+
 export interface AIMemory {
   identity: {
     name: string;
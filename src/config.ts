@@ -81,6 +81,8 @@ export const config = {
         maxDailySpend: envFloat('AI_PLAYER_MAX_DAILY_SPEND', 10.0),
         personalityFile: env('AI_PLAYER_PERSONALITY_FILE', 'data/ai-personality.txt'),
         memoryFile: env('AI_PLAYER_MEMORY_FILE', 'data/ai-memory.json'),
+        journalCursorFile: env('AI_PLAYER_JOURNAL_CURSOR_FILE', 'data/ai-journal-cursor.json'),
+        binaryObserve: envBool('AI_PLAYER_BINARY_OBSERVE', false),
         boundary: envOptional('AI_PLAYER_BOUNDARY_RADIUS')
           ? {
               centerX: envInt('AI_PLAYER_BOUNDARY_X', 0),